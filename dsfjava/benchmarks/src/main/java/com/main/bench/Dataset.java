@@ -0,0 +1,93 @@
+package com.main.bench;
+
+import com.main.database.DatabaseAccess;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Jeu de données des benchmarks, ajouté au singleton DatabaseAccess de la JVM de mesure :
+// un utilisateur pour 100 tâches (au moins 10), une tâche sur deux avec échéance, une sur trois terminée.
+// JMH lance une JVM par valeur de paramètre, le singleton ne contient donc qu'un seul jeu de données.
+public final class Dataset {
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] WORDS = {"acheter", "pain", "réunion", "équipe", "préparer", "présentation",
+            "projet", "rapport", "appeler", "médecin", "courses", "facture", "électricité", "vacances", "réviser"};
+
+    private static Dataset loaded;
+
+    private final List<User> users;
+    private final String[] userIds;
+    private final String[] taskIds;
+
+    private Dataset(List<User> users, String[] taskIds) {
+        this.users = users;
+        this.userIds = new String[users.size()];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = users.get(i).getId();
+        }
+        this.taskIds = taskIds;
+    }
+
+    public static synchronized Dataset load(int taskCount) {
+        if (loaded != null) {
+            if (loaded.taskIds.length != taskCount) {
+                throw new IllegalStateException("Jeu de données déjà chargé avec " + loaded.taskIds.length + " tâches");
+            }
+            return loaded;
+        }
+        DatabaseAccess database = DatabaseAccess.getInstance();
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < Math.max(10, taskCount / 100); i++) {
+            User user = new User("Utilisateur " + i);
+            database.addUser(user);
+            users.add(user);
+        }
+        LocalDate today = LocalDate.now();
+        String[] taskIds = new String[taskCount];
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < taskCount; i++) {
+            User user = users.get(random.nextInt(users.size()));
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = "Description de la tâche " + i + " : " + WORDS[random.nextInt(WORDS.length)];
+            Task task = i % 2 == 0
+                    ? new Task(title, description, user)
+                    : new DatedTask(title, description, user, today.plusDays(random.nextInt(365) - 180));
+            task.setDone(i % 3 == 0);
+            taskIds[i] = task.getId();
+            batch.add(task);
+            if (batch.size() == BATCH_SIZE) {
+                database.addTasks(batch);
+                batch.clear();
+            }
+        }
+        database.addTasks(batch);
+        loaded = new Dataset(users, taskIds);
+        return loaded;
+    }
+
+    public User user(int index) {
+        return users.get(index % users.size());
+    }
+
+    public String userId(int index) {
+        return userIds[index % userIds.length];
+    }
+
+    public String taskId(int index) {
+        return taskIds[index % taskIds.length];
+    }
+
+    public int userCount() {
+        return users.size();
+    }
+
+    public int taskCount() {
+        return taskIds.length;
+    }
+}
@@ -0,0 +1,58 @@
+package com.main.builder;
+
+import com.main.model.Task;
+import com.main.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Construction d'une tâche par TaskBuilder : validation, identifiant UUID et analyse de la date
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskBuilderBenchmark {
+    private final User user = new User("Alice");
+    private final LocalDate dueDate = LocalDate.now().plusDays(7);
+
+    @Benchmark
+    public Task buildSimpleTask() {
+        return TaskBuilder.simpleTask()
+                .title("Préparer la réunion")
+                .description("Ordre du jour et compte rendu")
+                .createdBy(user)
+                .build();
+    }
+
+    @Benchmark
+    public Task buildDatedTask() {
+        return TaskBuilder.datedTask()
+                .title("Préparer la réunion")
+                .description("Ordre du jour et compte rendu")
+                .createdBy(user)
+                .dueDate(dueDate)
+                .build();
+    }
+
+    // Date saisie dans un formulaire, analysée par le builder
+    @Benchmark
+    public Task buildDatedTaskFromText() {
+        return TaskBuilder.datedTask()
+                .title("Préparer la réunion")
+                .description("Ordre du jour et compte rendu")
+                .createdBy(user)
+                .dueDate("2026-12-31")
+                .build();
+    }
+}
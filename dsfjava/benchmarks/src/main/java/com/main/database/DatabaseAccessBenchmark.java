@@ -0,0 +1,92 @@
+package com.main.database;
+
+import com.main.bench.Dataset;
+import com.main.exception.ElementNotFoundException;
+import com.main.model.Task;
+import com.main.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lectures de DatabaseAccess : recherches par ID, tâches d'un utilisateur, listes complètes et compteurs
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class DatabaseAccessBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private Dataset dataset;
+    private DatabaseAccess database;
+
+    @Setup
+    public void setUp() {
+        dataset = Dataset.load(tasks);
+        database = DatabaseAccess.getInstance();
+    }
+
+    @Benchmark
+    public Task findTaskById() throws ElementNotFoundException {
+        return database.findTaskById(dataset.taskId(ThreadLocalRandom.current().nextInt(dataset.taskCount())));
+    }
+
+    @Benchmark
+    public User findUserById() throws ElementNotFoundException {
+        return database.findUserById(dataset.userId(ThreadLocalRandom.current().nextInt(dataset.userCount())));
+    }
+
+    // Liste obtenue puis parcourue : le coût dépend du nombre de tâches de l'utilisateur (environ 100)
+    @Benchmark
+    public void getTasksByUser(Blackhole blackhole) {
+        List<Task> userTasks = database.getTasksByUser(dataset.user(ThreadLocalRandom.current().nextInt(dataset.userCount())));
+        for (Task task : userTasks) {
+            blackhole.consume(task);
+        }
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() {
+        return database.getAllTasks();
+    }
+
+    @Benchmark
+    public void globalCounts(Blackhole blackhole) {
+        blackhole.consume(database.getUserCount());
+        blackhole.consume(database.getTaskCount());
+        blackhole.consume(database.getCompletedTaskCount());
+        blackhole.consume(database.getPendingTaskCount());
+    }
+
+    @Benchmark
+    public int getOverdueTaskCount() {
+        return database.getOverdueTaskCount();
+    }
+
+    @Benchmark
+    public int getUpcomingTaskCount() {
+        return database.getUpcomingTaskCount();
+    }
+
+    @Benchmark
+    public void userCounts(Blackhole blackhole) {
+        User user = dataset.user(ThreadLocalRandom.current().nextInt(dataset.userCount()));
+        blackhole.consume(database.getTaskCountByUser(user));
+        blackhole.consume(database.getCompletedTaskCountByUser(user));
+    }
+}
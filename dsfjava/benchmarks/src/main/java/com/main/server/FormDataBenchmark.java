@@ -0,0 +1,40 @@
+package com.main.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Décodage des formulaires et chaînes de requête (FormData), tels que reçus par TodoServer
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormDataBenchmark {
+    // Formulaire de création de tâche avec accents encodés
+    private final byte[] createTaskBody = ("title=Pr%C3%A9parer+la+r%C3%A9union&description=Ordre+du+jour+et+compte+rendu"
+            + "&userId=3f1c2a9e-8d4b-4c1e-9f7a-2b6d5e8c1a04&dueDate=2026-12-31").getBytes(StandardCharsets.US_ASCII);
+    private final String listQuery = "sort=due&order=desc&size=50&after=ZHVlOjE3NjQ1NDQwMDA6MTIzNDU2";
+
+    @Benchmark
+    public String decodeCreateTaskForm() {
+        FormData form = FormData.decode(createTaskBody);
+        return form.get("title");
+    }
+
+    @Benchmark
+    public String decodeListQuery() {
+        FormData form = FormData.decode(listQuery);
+        return form.get("after");
+    }
+}
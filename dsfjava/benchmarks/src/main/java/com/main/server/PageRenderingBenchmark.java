@@ -0,0 +1,128 @@
+package com.main.server;
+
+import com.main.bench.Dataset;
+import com.main.database.DatabaseAccess;
+import com.main.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Génération des pages HTML de TodoServer, de la requête jusqu'au dernier octet de la réponse.
+// Le cache des pages et la compression sont désactivés : chaque appel régénère la page.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class PageRenderingBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private Dataset dataset;
+    private TodoServer server;
+
+    @Setup
+    public void setUp() {
+        dataset = Dataset.load(tasks);
+        server = new TodoServer(new ServerConfig().responseCacheMegabytes(0).compressionThreshold(-1));
+    }
+
+    @Benchmark
+    public long tasksPage() throws IOException {
+        return get("/tasks?size=50");
+    }
+
+    @Benchmark
+    public long tasksPageSortedByDueDate() throws IOException {
+        return get("/tasks?sort=due&order=desc&size=50");
+    }
+
+    @Benchmark
+    public long usersPage() throws IOException {
+        return get("/users?size=50");
+    }
+
+    @Benchmark
+    public long userTasksPage() throws IOException {
+        return get("/user/" + dataset.userId(ThreadLocalRandom.current().nextInt(dataset.userCount())));
+    }
+
+    @Benchmark
+    public long searchPage() throws IOException {
+        return get("/search?q=r%C3%A9union+pr%C3%A9");
+    }
+
+    @Benchmark
+    public long statsPage() throws IOException {
+        return get("/stats");
+    }
+
+    @Benchmark
+    public long createTaskForm() throws IOException {
+        return get("/create-task-form");
+    }
+
+    @Benchmark
+    public long errorPage() throws IOException {
+        return get("/page-inconnue");
+    }
+
+    // Formulaires POST et leurs pages de confirmation (generateSuccessPage) : la tâche créée est aussitôt
+    // supprimée pour que le jeu de données garde sa taille d'une invocation à l'autre
+    @Benchmark
+    public long createThenDeleteTask() throws IOException {
+        String userId = dataset.userId(ThreadLocalRandom.current().nextInt(dataset.userCount()));
+        long size = post("/create-task", "title=Nouvelle+t%C3%A2che&description=Cr%C3%A9%C3%A9e+par+le+benchmark&userId="
+                + userId);
+        List<Task> tasks = DatabaseAccess.getInstance().getAllTasks();
+        return size + post("/delete-task", "taskId=" + tasks.get(tasks.size() - 1).getId());
+    }
+
+    private long get(String path) throws IOException {
+        return send("GET", path, new byte[0]);
+    }
+
+    private long post(String path, String form) throws IOException {
+        return send("POST", path, form.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Taille de la réponse écrite, en-têtes compris, pour que JMH ne puisse pas éliminer la génération
+    private long send(String method, String path, byte[] body) throws IOException {
+        HttpResponse response = server.handle(new HttpRequest(method, path, "HTTP/1.1",
+                Collections.<String, String>emptyMap(), body));
+        CountingOutputStream out = new CountingOutputStream();
+        response.writeTo(out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
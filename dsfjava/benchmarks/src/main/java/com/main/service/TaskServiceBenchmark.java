@@ -0,0 +1,68 @@
+package com.main.service;
+
+import com.main.bench.Dataset;
+import com.main.exception.ElementNotFoundException;
+import com.main.model.DatedTask;
+import com.main.model.SearchResult;
+import com.main.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Méthodes de TaskService appelées par l'interface console et le serveur, validation comprise
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private Dataset dataset;
+    private TaskService taskService;
+
+    @Setup
+    public void setUp() {
+        dataset = Dataset.load(tasks);
+        taskService = new TaskService();
+    }
+
+    @Benchmark
+    public Task getTaskById() throws ElementNotFoundException {
+        return taskService.getTaskById(dataset.taskId(ThreadLocalRandom.current().nextInt(dataset.taskCount())));
+    }
+
+    @Benchmark
+    public List<Task> getTasksByUser() {
+        return taskService.getTasksByUser(dataset.user(ThreadLocalRandom.current().nextInt(dataset.userCount())));
+    }
+
+    @Benchmark
+    public List<DatedTask> getTasksDueInNextDays() {
+        return taskService.getTasksDueInNextDays(7);
+    }
+
+    @Benchmark
+    public int getOverdueTaskCount() {
+        return taskService.getOverdueTaskCount();
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return taskService.search("réunion pré", 20);
+    }
+}
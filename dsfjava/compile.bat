@@ -4,14 +4,74 @@ javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/User.
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/Task.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/DatedTask.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/Student.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/Page.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/TaskSort.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/UserSort.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/TaskImportRow.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/ImportResult.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/model/SearchResult.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/exception/ElementNotFoundException.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/exception/HttpParseException.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/exception/JsonParseException.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/json/JsonWriter.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/json/JsonReader.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/metrics/Histogram.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/metrics/MetricsRegistry.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/io/DataFormat.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/io/TaskImportReader.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/io/DataExporter.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/DueDateIndex.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/OperationLog.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/Operations.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/SnapshotFile.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/Pagination.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/SortIndex.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/SearchIndex.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/StringArena.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/ColumnarTaskStore.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/PersistentTree.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/DatabaseView.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/DatabaseMetrics.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/database/DatabaseAccess.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/builder/TaskBuilder.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/service/UserService.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/service/TaskService.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/ui/TodoListUI.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ServerConfig.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/WorkerPool.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/HttpRequest.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ChunkedOutputStream.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/HttpResponse.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ApiHandler.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/HtmlWriter.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/Template.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/Pages.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ContentCoding.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/DeflaterPool.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ResponseCompressor.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ResponseCache.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ResponsePipe.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/HttpRequestParser.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/FormData.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ConnectionStats.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/KeepAlivePolicy.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/CountingOutputStream.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/ServerMetrics.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/RotatingLogFile.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/AccessLog.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/Transport.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/BlockingTransport.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/NioTransport.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/server/TodoServer.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/Main.java
 javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/StudentMain.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/ExportMain.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/StartupBenchmark.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/TaskStoreFootprintBenchmark.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/LatencyHistogram.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/LoadGenerator.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/ConcurrencyStress.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/PersistenceRoundTrip.java
+javac -source 8 -target 8 -cp "src/main/java" src/main/java/com/main/bench/ViewConsistencyCheck.java
 echo Compilation terminee !
 pause
\ No newline at end of file
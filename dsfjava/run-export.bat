@@ -0,0 +1,4 @@
+@echo off
+rem Usage : run-export.bat tasks^|users [fichier^|-] [ndjson^|csv]
+rem Répertoire des données dans la variable TODO_DATA_DIR (données d'exemple sinon)
+java -Dtodo.data.dir=%TODO_DATA_DIR% -cp "src/main/java" com.main.ExportMain %*
@@ -0,0 +1,65 @@
+package com.main;
+
+import com.main.database.DatabaseAccess;
+import com.main.io.DataExporter;
+import com.main.io.DataFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+// Export en ligne de commande : ExportMain tasks|users [fichier] [ndjson|csv]
+// Sans fichier (ou avec "-"), l'export est écrit sur la sortie standard. Le format est déduit
+// de l'extension du fichier à défaut d'être précisé, et un fichier en .gz est compressé à la volée.
+// Les données sont celles du répertoire désigné par -Dtodo.data.dir.
+public class ExportMain {
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 3 || (!args[0].equals("tasks") && !args[0].equals("users"))) {
+            System.err.println("Usage : ExportMain tasks|users [fichier|-] [ndjson|csv]");
+            System.exit(2);
+        }
+        String collection = args[0];
+        String file = args.length > 1 && !args[1].equals("-") ? args[1] : null;
+        String name = file == null ? "" : file.toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        DataFormat format;
+        try {
+            format = DataFormat.detect(args.length > 2 ? args[2] : null,
+                    name.endsWith(".csv") || name.endsWith(".csv.gz") ? "text/csv" : null);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        // Les messages de chargement de la base ne doivent pas se mêler à un export sur la sortie standard
+        PrintStream console = System.out;
+        System.setOut(System.err);
+        long start = System.nanoTime();
+        long count;
+        try (OutputStream out = open(file, gzip)) {
+            DatabaseAccess database = DatabaseAccess.getInstance();
+            count = collection.equals("tasks")
+                    ? DataExporter.exportTasks(database.getAllTasks(), format, out)
+                    : DataExporter.exportUsers(database.getAllUsers(), format, out);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'export : " + e.getMessage());
+            System.exit(1);
+            return;
+        } finally {
+            System.setOut(console);
+        }
+        System.err.printf("%d ligne(s) exportée(s) en %d ms%n", count, (System.nanoTime() - start) / 1_000_000);
+        System.exit(0);
+    }
+
+    private static OutputStream open(String file, boolean gzip) throws IOException {
+        OutputStream out = file == null ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(file);
+        return gzip ? new GZIPOutputStream(out, 64 * 1024) : new BufferedOutputStream(out, 64 * 1024);
+    }
+}
@@ -0,0 +1,313 @@
+package com.main.bench;
+
+import com.main.database.DatabaseAccess;
+import com.main.exception.ElementNotFoundException;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+// Test de charge concurrente de DatabaseAccess en mémoire : des écrivains ajoutent, suppriment et terminent
+// des tâches (les leurs et celles d'un utilisateur partagé) pendant que des lecteurs parcourent les listes.
+// Vérifie ensuite les compteurs, les index par utilisateur, la suppression en cascade et l'absence de
+// ConcurrentModificationException. Une seconde phase ajoute des tâches à des utilisateurs que d'autres threads
+// suppriment : aucune tâche ne doit survivre à son créateur, et un instantané doit pouvoir être écrit.
+// Les données sont persistées dans un répertoire temporaire neuf (todo.data.dir), supprimé à la fin.
+// Code de sortie 1 si une vérification échoue.
+//
+// Usage : java -cp <classes> com.main.bench.ConcurrencyStress [nbÉcrivains] [nbLecteurs] [opérationsParÉcrivain]
+//         [duréeSuppressionsMs]
+public class ConcurrencyStress {
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int operations = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int raceMillis = args.length > 3 ? Integer.parseInt(args[3]) : 3000;
+
+        Path directory = Files.createTempDirectory("todo-concurrency-stress");
+        System.setProperty("todo.data.dir", directory.toString());
+        System.setProperty("todo.data.snapshotInterval", "0");
+        DatabaseAccess database = DatabaseAccess.getInstance();
+        int initialTasks = database.getTaskCount();
+        User common = new User("Partagé");
+        database.addUser(common);
+
+        System.out.println("=== Test de charge concurrente : " + writers + " écrivains, " + readers + " lecteurs, "
+                + (long) writers * operations + " opérations ===");
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong reads = new AtomicLong();
+        List<Future<?>> readerResults = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            readerResults.add(executor.submit(() -> {
+                while (!stop.get()) {
+                    for (Task task : database.getAllTasks()) {
+                        task.getTitle();
+                    }
+                    for (Task task : database.getTasksByUser(common)) {
+                        task.isDone();
+                    }
+                    database.getCompletedTaskCount();
+                    reads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // Tâches de l'utilisateur partagé encore présentes, toutes issues des écrivains
+        Set<String> shared = ConcurrentHashMap.newKeySet();
+        List<Future<List<String>>> writerResults = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            writerResults.add(executor.submit(() -> write(database, common, shared, seed, operations)));
+        }
+
+        List<String> own = new ArrayList<>();
+        for (Future<List<String>> result : writerResults) {
+            List<String> mine = get(result, "écrivain");
+            if (mine != null) {
+                own.addAll(mine);
+            }
+        }
+        long writeMillis = (System.nanoTime() - start) / 1_000_000;
+        stop.set(true);
+        for (Future<?> result : readerResults) {
+            get(result, "lecteur");
+        }
+        executor.shutdown();
+        System.out.printf("Écritures terminées en %d ms, %d parcours des lecteurs%n", writeMillis, reads.get());
+
+        int expected = initialTasks + own.size() + shared.size();
+        check("nombre de tâches", expected, database.getTaskCount());
+        check("taille de la liste des tâches", expected, database.getAllTasks().size());
+
+        int perUser = 0;
+        for (User user : database.getAllUsers()) {
+            List<Task> tasks = database.getTasksByUser(user);
+            perUser += tasks.size();
+            check("compteur de " + user.getFirstName(), tasks.size(), database.getTaskCountByUser(user));
+            for (Task task : tasks) {
+                if (task.getCreatedBy() != user) {
+                    failures.add("tâche " + task.getId() + " indexée sous " + user.getFirstName());
+                }
+            }
+        }
+        check("somme des tâches par utilisateur", expected, perUser);
+        check("tâches de l'utilisateur partagé", shared.size(), database.getTasksByUser(common).size());
+
+        Set<String> present = new HashSet<>();
+        for (Task task : database.getAllTasks()) {
+            present.add(task.getId());
+            try {
+                database.findTaskById(task.getId());
+            } catch (Exception e) {
+                failures.add("tâche " + task.getId() + " absente de l'index par identifiant");
+            }
+        }
+        for (String id : own) {
+            if (!present.contains(id)) {
+                failures.add("tâche " + id + " perdue");
+            }
+        }
+        check("tâches terminées", countDone(database), database.getCompletedTaskCount());
+
+        // Suppression en cascade : l'utilisateur partagé emporte toutes ses tâches
+        database.deleteUser(common.getId());
+        check("tâches après suppression en cascade", initialTasks + own.size(), database.getTaskCount());
+        check("liste après suppression en cascade", initialTasks + own.size(), database.getAllTasks().size());
+        check("tâches terminées après suppression en cascade", countDone(database), database.getCompletedTaskCount());
+        for (String id : shared) {
+            try {
+                database.findTaskById(id);
+                failures.add("tâche partagée " + id + " encore présente après la cascade");
+            } catch (Exception e) {
+                // Attendu
+            }
+        }
+
+        race(database, writers, raceMillis);
+
+        if (failures.isEmpty()) {
+            System.out.println("OK : " + database.getTaskCount() + " tâches, " + database.getUserCount() + " utilisateurs");
+            delete(directory);
+            return;
+        }
+        System.out.println("Répertoire conservé : " + directory);
+        for (String failure : failures) {
+            System.out.println("ÉCHEC : " + failure);
+        }
+        System.exit(1);
+    }
+
+    // Renvoie les identifiants des tâches de l'écrivain encore présentes
+    private static List<String> write(DatabaseAccess database, User common, Set<String> shared, int seed,
+                                      int operations) throws Exception {
+        Random random = new Random(seed);
+        User user = new User("Écrivain " + seed);
+        database.addUser(user);
+        List<String> mine = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                boolean own = random.nextBoolean();
+                Task task = new Task("Tâche " + seed + "-" + i, "Description", own ? user : common);
+                database.addTask(task);
+                if (own) {
+                    mine.add(task.getId());
+                } else {
+                    shared.add(task.getId());
+                }
+            } else if (operation < 7 && !mine.isEmpty()) {
+                database.deleteTask(mine.remove(mine.size() - 1));
+            } else if (operation < 8 && !shared.isEmpty()) {
+                Iterator<String> iterator = shared.iterator();
+                if (iterator.hasNext()) {
+                    String id = iterator.next();
+                    // Un seul écrivain gagne la suppression d'une tâche partagée
+                    if (shared.remove(id)) {
+                        database.deleteTask(id);
+                    }
+                }
+            } else if (!mine.isEmpty()) {
+                database.markTaskAsDone(mine.get(random.nextInt(mine.size())));
+            }
+        }
+        return mine;
+    }
+
+    // Ajouts de tâches pendant la suppression de leurs créateurs : la moitié des threads ajoute des tâches
+    // à des utilisateurs pris au hasard parmi quelques-uns, l'autre moitié les supprime et les remplace
+    private static void race(DatabaseAccess database, int threads, int durationMillis) throws Exception {
+        System.out.println("=== Ajouts pendant les suppressions : " + threads + " threads, " + durationMillis + " ms ===");
+        AtomicReferenceArray<User> users = new AtomicReferenceArray<>(8);
+        for (int i = 0; i < users.length(); i++) {
+            users.set(i, new User("Cible " + i));
+            database.addUser(users.get(i));
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong added = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong deleted = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, threads));
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < Math.max(2, threads); t++) {
+            boolean deleter = t % 2 == 1;
+            int seed = 100 + t;
+            results.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                while (!stop.get()) {
+                    int slot = random.nextInt(users.length());
+                    User user = users.get(slot);
+                    try {
+                        if (deleter) {
+                            database.deleteUser(user.getId());
+                            deleted.incrementAndGet();
+                            User replacement = new User("Cible " + slot);
+                            database.addUser(replacement);
+                            users.compareAndSet(slot, user, replacement);
+                        } else {
+                            database.addTask(new Task("Tâche disputée", "Description", user));
+                            added.incrementAndGet();
+                        }
+                    } catch (ElementNotFoundException e) {
+                        // Utilisateur déjà supprimé : refus attendu
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        Thread.sleep(durationMillis);
+        stop.set(true);
+        for (Future<?> result : results) {
+            get(result, "thread de la seconde phase");
+        }
+        executor.shutdown();
+        System.out.printf("%d tâches ajoutées, %d refusées, %d utilisateurs supprimés%n",
+                added.get(), rejected.get(), deleted.get());
+
+        Set<String> userIds = new HashSet<>();
+        for (User user : database.getAllUsers()) {
+            userIds.add(user.getId());
+        }
+        int perUser = 0;
+        for (User user : database.getAllUsers()) {
+            perUser += database.getTasksByUser(user).size();
+        }
+        int orphans = 0;
+        for (Task task : database.getAllTasks()) {
+            if (!userIds.contains(task.getCreatedBy().getId())) {
+                orphans++;
+            }
+        }
+        check("tâches sans créateur", 0, orphans);
+        check("somme des tâches par utilisateur", database.getAllTasks().size(), perUser);
+        check("nombre de tâches", database.getAllTasks().size(), database.getTaskCount());
+        try {
+            database.createSnapshot();
+        } catch (Exception e) {
+            failures.add("instantané impossible : " + e);
+        }
+    }
+
+    private static <T> T get(Future<T> result, String role) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ConcurrentModificationException) {
+                failures.add("ConcurrentModificationException dans un " + role);
+            } else {
+                failures.add("exception dans un " + role + " : " + cause);
+            }
+            cause.printStackTrace();
+            return null;
+        }
+    }
+
+    private static int countDone(DatabaseAccess database) {
+        int done = 0;
+        for (Task task : database.getAllTasks()) {
+            if (task.isDone()) {
+                done++;
+            }
+        }
+        return done;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Object file : files.sorted(Comparator.reverseOrder()).toArray()) {
+                Files.deleteIfExists((Path) file);
+            }
+        }
+    }
+
+    private static void check(String what, long expected, long actual) {
+        if (expected != actual) {
+            failures.add(what + " : attendu " + expected + ", obtenu " + actual);
+        }
+    }
+}
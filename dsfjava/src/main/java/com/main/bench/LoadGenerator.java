@@ -0,0 +1,512 @@
+package com.main.bench;
+
+import com.main.server.ServerConfig;
+import com.main.server.TodoServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Test de charge de bout en bout : des clients HTTP/1.1 (connexions persistantes, une par thread) envoient
+// un mélange de requêtes à débit fixe, en boucle ouverte. La requête n°i est prévue à start + i / débit ;
+// sa latence est mesurée depuis cette heure prévue et non depuis l'envoi effectif, pour que les retards
+// accumulés quand le serveur ne suit plus soient comptés (correction de l'omission coordonnée).
+// La latence depuis l'envoi effectif est affichée à titre de comparaison.
+//
+// Sans load.target, le serveur est démarré dans la même JVM sur l'adresse de bouclage, configuré par les
+// propriétés habituelles (todo.server.transport, todo.data.dir...) : on compare ainsi transports et stockage.
+//
+// Usage : java [-Dload.xxx=...] -cp <classes> com.main.bench.LoadGenerator
+//   load.rate         requêtes par seconde visées (défaut 500)
+//   load.duration     durée mesurée en secondes (défaut 30), précédée de load.warmup secondes (défaut 5)
+//   load.connections  connexions simultanées (défaut 16)
+//   load.mix          poids des opérations (défaut tasks=60,stats=20,create=10,delete=10)
+//   load.preload      tâches importées avant la mesure (défaut 10000)
+//   load.target       hôte:port d'un serveur déjà lancé (défaut : serveur intégré)
+public class LoadGenerator {
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final int USERS = 20;
+    private static final int IMPORT_BATCH = 10_000;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private enum Operation {
+        TASKS("GET /tasks"), STATS("GET /stats"), CREATE("POST /create-task"), DELETE("POST /delete-task");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final int rate;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final int connections;
+    private final Map<Operation, Integer> mix;
+    private final List<String> userIds = new ArrayList<>();
+    // Tâches créées pendant le test, à supprimer ensuite
+    private final ConcurrentLinkedQueue<String> createdTaskIds = new ConcurrentLinkedQueue<>();
+
+    private LoadGenerator(String host, int port, int rate, long durationNanos, long warmupNanos, int connections,
+                          Map<Operation, Integer> mix) {
+        this.host = host;
+        this.port = port;
+        this.rate = rate;
+        this.durationNanos = durationNanos;
+        this.warmupNanos = warmupNanos;
+        this.connections = connections;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("load.rate", 500);
+        int duration = Integer.getInteger("load.duration", 30);
+        int warmup = Integer.getInteger("load.warmup", 5);
+        int connections = Integer.getInteger("load.connections", 16);
+        int preload = Integer.getInteger("load.preload", 10_000);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", "tasks=60,stats=20,create=10,delete=10"));
+        if (rate <= 0 || duration <= 0 || warmup < 0 || connections <= 0) {
+            throw new IllegalArgumentException("load.rate, load.duration et load.connections doivent être positifs");
+        }
+
+        String target = System.getProperty("load.target");
+        String host;
+        int port;
+        String description;
+        if (target == null || target.trim().isEmpty()) {
+            ServerConfig config = ServerConfig.fromSystemProperties();
+            host = "127.0.0.1";
+            port = config.getPort();
+            startEmbeddedServer(config);
+            String dataDirectory = System.getProperty("todo.data.dir");
+            description = "serveur intégré, " + config + ", "
+                    + (dataDirectory == null ? "données en mémoire" : "persistance dans " + dataDirectory);
+        } else {
+            int colon = target.lastIndexOf(':');
+            host = target.substring(0, colon);
+            port = Integer.parseInt(target.substring(colon + 1));
+            description = "serveur " + target;
+        }
+
+        LoadGenerator generator = new LoadGenerator(host, port, rate, duration * 1_000_000_000L,
+                warmup * 1_000_000_000L, connections, mix);
+        generator.prepare(preload);
+        System.out.println("=== Charge : " + rate + " req/s visées pendant " + duration + " s (+" + warmup
+                + " s de chauffe), " + connections + " connexions, mélange " + mix + " ===");
+        System.out.println(description);
+        generator.run();
+        // Le serveur intégré n'a pas d'arrêt : ses threads ne sont pas des démons
+        System.exit(0);
+    }
+
+    private static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : text.split(",")) {
+            String[] weight = part.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Mélange invalide : " + text + " (exemple : tasks=60,stats=20,create=10,delete=10)");
+            }
+            try {
+                int value = Integer.parseInt(weight[1].trim());
+                if (value > 0) {
+                    mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), value);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Mélange invalide : " + part + " (opérations : tasks, stats, create, delete)");
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Le mélange ne contient aucune opération");
+        }
+        return mix;
+    }
+
+    private static void startEmbeddedServer(ServerConfig config) throws InterruptedException {
+        Thread server = new Thread(() -> new TodoServer(config).start(), "todo-server");
+        server.setDaemon(true);
+        server.start();
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (true) {
+            try (Socket probe = new Socket()) {
+                probe.connect(new InetSocketAddress("127.0.0.1", config.getPort()), 1000);
+                return;
+            } catch (IOException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Le serveur intégré n'a pas démarré sur le port " + config.getPort());
+                }
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    // Utilisateurs créés par l'API JSON, puis tâches importées en lots NDJSON
+    private void prepare(int preload) throws IOException {
+        long start = System.nanoTime();
+        try (Connection connection = new Connection(host, port)) {
+            for (int i = 0; i < USERS; i++) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                int status = connection.execute(request("POST", "/api/v1/users", "application/json",
+                        "{\"firstName\": \"Charge " + i + "\"}"), body);
+                Matcher id = UUID_PATTERN.matcher(body.toString("UTF-8"));
+                if (status != 201 || !id.find()) {
+                    throw new IllegalStateException("Création d'utilisateur refusée (" + status + ") : " + body.toString("UTF-8"));
+                }
+                userIds.add(id.group());
+            }
+            Random random = new Random(42);
+            for (int done = 0; done < preload; done += IMPORT_BATCH) {
+                StringBuilder lines = new StringBuilder();
+                for (int i = done; i < Math.min(preload, done + IMPORT_BATCH); i++) {
+                    lines.append("{\"title\": \"Tâche préchargée ").append(i)
+                            .append("\", \"description\": \"Description ").append(i)
+                            .append("\", \"userId\": \"").append(userIds.get(random.nextInt(userIds.size()))).append("\"}\n");
+                }
+                int status = connection.execute(request("POST", "/api/v1/tasks/import", "application/x-ndjson",
+                        lines.toString()), null);
+                if (status != 200) {
+                    throw new IllegalStateException("Import refusé (" + status + ")");
+                }
+            }
+        }
+        System.out.printf("Préparation : %d utilisateurs, %d tâches importées en %d ms%n",
+                USERS, preload, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void run() throws InterruptedException {
+        long start = System.nanoTime() + 100_000_000L;
+        long interval = 1_000_000_000L / rate;
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        AtomicLong next = new AtomicLong();
+        Worker[] workers = new Worker[connections];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i, start, interval, measureFrom, end, next);
+            workers[i].start();
+        }
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        // Le débit obtenu se mesure jusqu'à la dernière réponse : il baisse si le serveur prend du retard
+        long lastCompletion = end;
+        for (Worker worker : workers) {
+            lastCompletion = Math.max(lastCompletion, worker.lastCompletion);
+        }
+        report(workers, (lastCompletion - measureFrom) / 1e9);
+    }
+
+    private void report(Worker[] workers, double seconds) {
+        Map<Operation, LatencyHistogram> byOperation = new LinkedHashMap<>();
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram uncorrected = new LatencyHistogram();
+        long errors = 0;
+        for (Operation operation : mix.keySet()) {
+            byOperation.put(operation, new LatencyHistogram());
+        }
+        for (Worker worker : workers) {
+            for (Operation operation : Operation.values()) {
+                LatencyHistogram histogram = worker.latencies[operation.ordinal()];
+                if (histogram.getTotalCount() > 0) {
+                    byOperation.computeIfAbsent(operation, key -> new LatencyHistogram()).add(histogram);
+                    total.add(histogram);
+                }
+            }
+            uncorrected.add(worker.serviceTimes);
+            errors += worker.errors;
+        }
+
+        System.out.printf("Requêtes : %d mesurées, %d erreur(s), débit %.1f req/s (%d visées)%n",
+                total.getTotalCount(), errors, total.getTotalCount() / seconds, rate);
+        System.out.println("Latences en ms, depuis l'heure d'envoi prévue :");
+        System.out.printf("  %-22s %9s %8s %8s %8s %8s %8s %8s%n", "Opération", "Nombre", "Moyenne",
+                "p50", "p90", "p99", "p99.9", "Max");
+        for (Map.Entry<Operation, LatencyHistogram> entry : byOperation.entrySet()) {
+            printLine(entry.getKey().label, entry.getValue());
+        }
+        printLine("Total", total);
+        System.out.println("Sans correction (depuis l'envoi effectif, sous-estime les files d'attente) :");
+        printLine("Total", uncorrected);
+    }
+
+    private static void printLine(String label, LatencyHistogram histogram) {
+        StringBuilder line = new StringBuilder(String.format("  %-22s %9d %8.2f", label, histogram.getTotalCount(),
+                histogram.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %8.2f", histogram.percentile(percentile) / 1000.0));
+        }
+        line.append(String.format(" %8.2f", histogram.getMax() / 1000.0));
+        System.out.println(line);
+    }
+
+    private Operation pick(Random random) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        int choice = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static byte[] request(String method, String path, String contentType, String body) {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = method + " " + path + " HTTP/1.1\r\nHost: localhost\r\n"
+                + (contentType == null ? "" : "Content-Type: " + contentType + "\r\nContent-Length: " + content.length + "\r\n")
+                + "\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] result = new byte[headBytes.length + content.length];
+        System.arraycopy(headBytes, 0, result, 0, headBytes.length);
+        System.arraycopy(content, 0, result, headBytes.length, content.length);
+        return result;
+    }
+
+    private static String formValue(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class Worker extends Thread {
+        private final long start;
+        private final long interval;
+        private final long measureFrom;
+        private final long end;
+        private final AtomicLong next;
+        private final Random random;
+        private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+        private final LatencyHistogram serviceTimes = new LatencyHistogram();
+        private final byte[] tasksRequest = request("GET", "/tasks", null, "");
+        private final byte[] statsRequest = request("GET", "/stats", null, "");
+        private long errors;
+        private long lastCompletion;
+        private Connection connection;
+
+        private Worker(int index, long start, long interval, long measureFrom, long end, AtomicLong next) {
+            super("load-" + index);
+            this.start = start;
+            this.interval = interval;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.next = next;
+            this.random = new Random(index);
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long intended = start + next.getAndIncrement() * interval;
+                if (intended >= end) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                Operation operation = pick(random);
+                boolean ok = execute(operation);
+                if (connection != null && connection.isClosed()) {
+                    connection.close();
+                    connection = null;
+                }
+                long finished = System.nanoTime();
+                if (intended >= measureFrom) {
+                    lastCompletion = Math.max(lastCompletion, finished);
+                    latencies[operation.ordinal()].record((finished - intended) / 1000);
+                    serviceTimes.record((finished - now) / 1000);
+                    if (!ok) {
+                        errors++;
+                    }
+                }
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        private boolean execute(Operation operation) {
+            try {
+                if (connection == null) {
+                    connection = new Connection(host, port);
+                }
+                switch (operation) {
+                    case TASKS:
+                        return connection.execute(tasksRequest, null) == 200;
+                    case STATS:
+                        return connection.execute(statsRequest, null) == 200;
+                    case DELETE:
+                        String taskId = createdTaskIds.poll();
+                        if (taskId != null) {
+                            return connection.execute(request("POST", "/delete-task", "application/x-www-form-urlencoded",
+                                    "taskId=" + taskId), null) == 200;
+                        }
+                        // Rien à supprimer encore : la requête devient une création
+                        return create();
+                    default:
+                        return create();
+                }
+            } catch (IOException e) {
+                if (connection != null) {
+                    connection.close();
+                    connection = null;
+                }
+                return false;
+            }
+        }
+
+        private boolean create() throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            String form = "title=" + formValue("Tâche de charge " + random.nextInt(1_000_000))
+                    + "&description=" + formValue("Créée par " + getName())
+                    + "&userId=" + userIds.get(random.nextInt(userIds.size()));
+            int status = connection.execute(request("POST", "/create-task", "application/x-www-form-urlencoded", form), body);
+            // La page de succès affiche la tâche créée, dont le seul UUID est son identifiant
+            Matcher id = UUID_PATTERN.matcher(body.toString("UTF-8"));
+            if (status == 200 && id.find()) {
+                createdTaskIds.add(id.group());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // Connexion HTTP/1.1 persistante minimale : corps en Content-Length, en chunks ou jusqu'à la fermeture
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final StringBuilder line = new StringBuilder();
+        private final byte[] skipBuffer = new byte[8192];
+        private boolean closed;
+
+        private Connection(String host, int port) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port), 5000);
+            socket.setSoTimeout(60_000);
+            in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            out = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024);
+        }
+
+        // Renvoie le statut ; le corps est recopié dans body s'il n'est pas null
+        int execute(byte[] request, ByteArrayOutputStream body) throws IOException {
+            out.write(request);
+            out.flush();
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            long contentLength = -1;
+            boolean chunked = false;
+            boolean close = false;
+            String header;
+            while (!(header = readLine()).isEmpty()) {
+                int colon = header.indexOf(':');
+                String name = header.substring(0, colon).trim().toLowerCase();
+                String value = header.substring(colon + 1).trim();
+                if (name.equals("content-length")) {
+                    contentLength = Long.parseLong(value);
+                } else if (name.equals("transfer-encoding")) {
+                    chunked = value.equalsIgnoreCase("chunked");
+                } else if (name.equals("connection")) {
+                    close = value.equalsIgnoreCase("close");
+                }
+            }
+            if (chunked) {
+                long size;
+                while ((size = Long.parseLong(stripExtensions(readLine()), 16)) > 0) {
+                    copy(size, body);
+                    readLine();
+                }
+                while (!readLine().isEmpty()) {
+                    // Trailers ignorés
+                }
+            } else if (contentLength >= 0) {
+                copy(contentLength, body);
+            } else if (status != 204 && status != 304) {
+                copy(Long.MAX_VALUE, body);
+                close = true;
+            }
+            closed = close;
+            return status;
+        }
+
+        private void copy(long length, ByteArrayOutputStream body) throws IOException {
+            long remaining = length;
+            while (remaining > 0) {
+                int read = in.read(skipBuffer, 0, (int) Math.min(skipBuffer.length, remaining));
+                if (read < 0) {
+                    if (length == Long.MAX_VALUE) {
+                        return;
+                    }
+                    throw new EOFException("Réponse tronquée");
+                }
+                if (body != null) {
+                    body.write(skipBuffer, 0, read);
+                }
+                remaining -= read;
+            }
+        }
+
+        // Le serveur a annoncé la fermeture (Connection: close) : la réponse est valide mais il faut se reconnecter
+        boolean isClosed() {
+            return closed;
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException("Connexion fermée par le serveur");
+                }
+                if (b != '\r') {
+                    line.append((char) b);
+                }
+            }
+            return line.toString();
+        }
+
+        private static String stripExtensions(String chunkHeader) {
+            int semicolon = chunkHeader.indexOf(';');
+            return (semicolon < 0 ? chunkHeader : chunkHeader.substring(0, semicolon)).trim();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Fermeture best effort
+            }
+        }
+    }
+}
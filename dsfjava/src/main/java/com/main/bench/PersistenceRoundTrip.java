@@ -0,0 +1,177 @@
+package com.main.bench;
+
+import com.main.database.DatabaseAccess;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// Vérification de la persistance de DatabaseAccess : une JVM écrit en parallèle (ajouts, renommages,
+// tâches terminées, suppressions en cascade) pendant que des instantanés sont pris, puis une seconde JVM
+// recharge le répertoire. L'état relu (compteurs et empreinte ordonnée des utilisateurs et des tâches) doit
+// être celui de la fin de l'écriture. Code de sortie 1 si les états diffèrent.
+// Le répertoire de données est un répertoire temporaire neuf, supprimé en cas de succès.
+//
+// Usage : java -cp <classes> com.main.bench.PersistenceRoundTrip [nbÉcrivains] [duréeMs] [nbInstantanés]
+public class PersistenceRoundTrip {
+    private static final String STATE_PREFIX = "Empreinte : ";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("--")) {
+            runPhase(args[0], Paths.get(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                    Integer.parseInt(args[4]));
+            return;
+        }
+
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int durationMillis = args.length > 1 ? Integer.parseInt(args[1]) : 1500;
+        int snapshots = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Path directory = Files.createTempDirectory("todo-persistence-check");
+
+        System.out.println("=== Aller-retour de persistance : " + writers + " écrivains, " + durationMillis + " ms, "
+                + snapshots + " instantanés ===");
+        System.out.println("Répertoire : " + directory);
+        String written = fork("--write", directory, writers, durationMillis, snapshots);
+        String read = fork("--read", directory, 0, 0, 0);
+        String reread = fork("--read", directory, 0, 0, 0);
+        if (!written.equals(read) || !read.equals(reread)) {
+            System.out.println("ÉCHEC : état relu différent de l'état écrit, répertoire conservé");
+            System.out.println("  écrit   : " + written);
+            System.out.println("  relu    : " + read);
+            System.out.println("  relu x2 : " + reread);
+            System.exit(1);
+        }
+        delete(directory);
+        System.out.println("OK : " + written);
+    }
+
+    private static void runPhase(String phase, Path directory, int writers, int durationMillis, int snapshots)
+            throws Exception {
+        System.setProperty("todo.data.dir", directory.toString());
+        System.setProperty("todo.data.snapshotInterval", "0");
+        DatabaseAccess database = DatabaseAccess.getInstance();
+        if (phase.equals("--write")) {
+            write(database, writers, durationMillis, snapshots);
+        }
+        System.out.println(STATE_PREFIX + describe(database));
+    }
+
+    private static void write(DatabaseAccess database, int writers, int durationMillis, int snapshots)
+            throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread[] threads = new Thread[writers];
+        Throwable[] failure = new Throwable[1];
+        LocalDate today = LocalDate.now();
+        for (int t = 0; t < writers; t++) {
+            String prefix = "e" + t + "-";
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; !stop.get(); i++) {
+                        User user = new User(prefix + "u" + i, "Utilisateur " + i);
+                        database.addUser(user);
+                        database.addTask(new DatedTask(prefix + "d" + i, "Échéance " + i, "Description", false, user,
+                                today.plusDays(i % 10 - 5)));
+                        database.addTask(new Task(prefix + "t" + i, "Tâche " + i, "Description", false, user));
+                        if (i % 2 == 0) {
+                            database.markTaskAsDone(prefix + "d" + i);
+                        }
+                        if (i % 3 == 0) {
+                            database.updateUser(user.getId(), "Renommé " + i);
+                        }
+                        if (i % 5 == 0) {
+                            database.deleteTask(prefix + "t" + i);
+                        }
+                        if (i % 7 == 0 && i > 0) {
+                            database.deleteUser(prefix + "u" + (i - 1));
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                    stop.set(true);
+                }
+            });
+            threads[t].start();
+        }
+        for (int s = 0; s < snapshots; s++) {
+            Thread.sleep(durationMillis / Math.max(1, snapshots));
+            database.createSnapshot();
+        }
+        if (snapshots == 0) {
+            Thread.sleep(durationMillis);
+        }
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw new IllegalStateException("Échec d'un écrivain", failure[0]);
+            }
+        }
+    }
+
+    // Compteurs et empreinte des utilisateurs et des tâches, dans l'ordre d'insertion
+    private static String describe(DatabaseAccess database) {
+        long users = 0;
+        for (User user : database.getAllUsers()) {
+            users = users * 31 + (user.getId() + '|' + user.getFirstName()).hashCode();
+        }
+        long tasks = 0;
+        for (Task task : database.getAllTasks()) {
+            String dueDate = task instanceof DatedTask ? String.valueOf(((DatedTask) task).getDueDate()) : "";
+            tasks = tasks * 31 + (task.getId() + '|' + task.getTitle() + '|' + task.getDescription() + '|'
+                    + task.isDone() + '|' + task.getCreatedBy().getId() + '|' + dueDate).hashCode();
+        }
+        return "utilisateurs=" + database.getUserCount() + " tâches=" + database.getTaskCount()
+                + " terminées=" + database.getCompletedTaskCount() + " en retard=" + database.getOverdueTaskCount()
+                + " empreinte=" + Long.toHexString(users) + "/" + Long.toHexString(tasks);
+    }
+
+    // Lance une phase dans une JVM séparée (DatabaseAccess est un singleton) et renvoie l'état qu'elle affiche
+    private static String fork(String phase, Path directory, int writers, int durationMillis, int snapshots)
+            throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                PersistenceRoundTrip.class.getName(), phase, directory.toString(), String.valueOf(writers),
+                String.valueOf(durationMillis), String.valueOf(snapshots));
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        String state = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(STATE_PREFIX)) {
+                    state = line.substring(STATE_PREFIX.length());
+                } else {
+                    System.out.println(line);
+                }
+            }
+        }
+        int status = process.waitFor();
+        if (status != 0 || state == null) {
+            throw new IllegalStateException("La phase " + phase + " a échoué (code " + status + ")");
+        }
+        System.out.println(phase.substring(2) + " : " + state);
+        return state;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Object file : files.sorted(Comparator.reverseOrder()).toArray()) {
+                Files.deleteIfExists((Path) file);
+            }
+        }
+    }
+}
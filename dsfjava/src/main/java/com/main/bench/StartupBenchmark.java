@@ -0,0 +1,152 @@
+package com.main.bench;
+
+import com.main.database.DatabaseAccess;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Mesure du temps de démarrage à froid de DatabaseAccess avec persistance :
+// rejeu complet du journal puis chargement depuis un instantané.
+// Chaque démarrage a lieu dans une JVM séparée (DatabaseAccess est un singleton).
+//
+// Usage : java -cp <classes> com.main.bench.StartupBenchmark [nbTâches] [nbUtilisateurs] [répertoire]
+// Les données sont écrites dans un sous-répertoire temporaire neuf du répertoire donné, supprimé à la fin.
+// La propriété -Dbench.heap=<taille> fixe la mémoire des JVM filles (défaut 3g).
+public class StartupBenchmark {
+    private static final int WRITER_THREADS = 64;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("--")) {
+            runPhase(args[0], Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 0,
+                    args.length > 3 ? Integer.parseInt(args[3]) : 0);
+            return;
+        }
+
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Path directory;
+        if (args.length > 2) {
+            Path parent = Files.createDirectories(Paths.get(args[2]));
+            directory = Files.createTempDirectory(parent, "todo-startup-bench");
+        } else {
+            directory = Files.createTempDirectory("todo-startup-bench");
+        }
+
+        System.out.println("=== Benchmark de démarrage : " + tasks + " tâches, " + users + " utilisateurs ===");
+        System.out.println("Répertoire : " + directory);
+        fork("--generate", directory, tasks, users);
+        fork("--start", directory, 0, 0);
+        fork("--snapshot", directory, 0, 0);
+        fork("--start", directory, 0, 0);
+        delete(directory);
+    }
+
+    private static void runPhase(String phase, Path directory, int tasks, int users) throws Exception {
+        System.setProperty("todo.data.dir", directory.toString());
+        System.setProperty("todo.data.snapshotInterval", "0");
+        long start = System.nanoTime();
+        DatabaseAccess database = DatabaseAccess.getInstance();
+        long startupMillis = (System.nanoTime() - start) / 1_000_000;
+
+        switch (phase) {
+            case "--generate":
+                generate(database, tasks, users);
+                break;
+            case "--snapshot":
+                long snapshotStart = System.nanoTime();
+                database.createSnapshot();
+                System.out.printf("Instantané écrit en %d ms (%s)%n",
+                        (System.nanoTime() - snapshotStart) / 1_000_000, describeFiles(directory));
+                break;
+            default:
+                System.out.printf("Démarrage à froid : %d ms pour %d tâches (%s)%n",
+                        startupMillis, database.getTaskCount(), describeFiles(directory));
+        }
+    }
+
+    // Écritures en parallèle pour profiter du regroupement des fsync
+    private static void generate(DatabaseAccess database, int tasks, int users) throws InterruptedException {
+        List<User> created = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User("Utilisateur " + i);
+            database.addUser(user);
+            created.add(user);
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger next = new AtomicInteger();
+        LocalDate today = LocalDate.now();
+        Thread[] writers = new Thread[WRITER_THREADS];
+        for (int t = 0; t < writers.length; t++) {
+            writers[t] = new Thread(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < tasks) {
+                    User user = created.get(i % created.size());
+                    Task task = i % 2 == 0
+                            ? new Task("Tâche " + i, "Description de la tâche " + i, user)
+                            : new DatedTask("Tâche " + i, "Description de la tâche " + i, user, today.plusDays(i % 365 - 180));
+                    try {
+                        database.addTask(task);
+                        if (i % 3 == 0) {
+                            database.markTaskAsDone(task.getId());
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        System.out.printf("Génération : %d tâches écrites en %d ms%n", database.getTaskCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void fork(String phase, Path directory, int tasks, int users) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String heap = System.getProperty("bench.heap", "3g");
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xms" + heap, "-Xmx" + heap,
+                "-cp", System.getProperty("java.class.path"), StartupBenchmark.class.getName(),
+                phase, directory.toString(), String.valueOf(tasks), String.valueOf(users));
+        builder.inheritIO();
+        int status = builder.start().waitFor();
+        if (status != 0) {
+            throw new IllegalStateException("La phase " + phase + " a échoué (code " + status + ")");
+        }
+    }
+
+    private static String describeFiles(Path directory) throws IOException {
+        StringBuilder description = new StringBuilder();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.sorted().forEach(file -> {
+                if (description.length() > 0) {
+                    description.append(", ");
+                }
+                description.append(file.getFileName()).append(' ').append(file.toFile().length() / 1024).append(" Ko");
+            });
+        }
+        return description.toString();
+    }
+
+    // Supprime le répertoire créé par le benchmark et son contenu
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Object file : files.sorted(Comparator.reverseOrder()).toArray()) {
+                Files.deleteIfExists((Path) file);
+            }
+        }
+    }
+}
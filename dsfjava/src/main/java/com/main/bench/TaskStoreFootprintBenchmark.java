@@ -0,0 +1,128 @@
+package com.main.bench;
+
+import com.main.database.ColumnarTaskStore;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Comparaison de l'empreinte mémoire d'une liste d'objets Task (ArrayList<Task>, comme les index actuels)
+// et du stockage en colonnes ColumnarTaskStore, pour les mêmes tâches : mémoire retenue après GC,
+// durée d'un GC complet (proportionnelle au nombre d'objets vivants) et durée d'un parcours des tâches.
+// Chaque représentation est mesurée dans une JVM séparée.
+//
+// Usage : java -cp <classes> com.main.bench.TaskStoreFootprintBenchmark [nbTâches] [nbUtilisateurs]
+// La propriété -Dbench.heap=<taille> fixe la mémoire des JVM filles (défaut 3g).
+public class TaskStoreFootprintBenchmark {
+    private static final int SCAN_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("--")) {
+            runPhase(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        System.out.println("=== Empreinte mémoire : " + tasks + " tâches, " + users + " utilisateurs ===");
+        fork("--objects", tasks, users);
+        fork("--columnar", tasks, users);
+    }
+
+    private static void runPhase(String phase, int count, int userCount) {
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new User("Utilisateur " + i));
+        }
+        LocalDate today = LocalDate.now();
+        long baseline = usedHeapAfterGc();
+
+        long start = System.nanoTime();
+        List<Task> list = null;
+        ColumnarTaskStore store = null;
+        if (phase.equals("--objects")) {
+            list = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                list.add(generate(i, users, today));
+            }
+        } else {
+            store = new ColumnarTaskStore();
+            for (int i = 0; i < count; i++) {
+                store.add(generate(i, users, today));
+            }
+        }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long gcStart = System.nanoTime();
+        long retained = usedHeapAfterGc() - baseline;
+        long gcMillis = (System.nanoTime() - gcStart) / 1_000_000 / 3;
+
+        long bestScan = Long.MAX_VALUE;
+        int overdue = 0;
+        for (int round = 0; round < SCAN_ROUNDS; round++) {
+            long scanStart = System.nanoTime();
+            overdue = list != null ? countOverdue(list, today) : store.countOverdue(today);
+            bestScan = Math.min(bestScan, System.nanoTime() - scanStart);
+        }
+
+        System.out.printf("%-22s mémoire retenue %,d Ko (%d octets/tâche), chargement %d ms, GC complet %d ms, "
+                        + "parcours %d ms (%d en retard)%n",
+                list != null ? "ArrayList<Task>" : "ColumnarTaskStore", retained / 1024, retained / count,
+                loadMillis, gcMillis, bestScan / 1_000_000, overdue);
+        if (store != null) {
+            System.out.printf("%-22s dont colonnes, arène et table des ID : %,d Ko%n", "", store.getAllocatedBytes() / 1024);
+        }
+    }
+
+    // Mêmes tâches que StartupBenchmark : une sur deux avec échéance, une sur trois terminée,
+    // titres et descriptions tous distincts (cas le moins favorable au partage des chaînes)
+    private static Task generate(int i, List<User> users, LocalDate today) {
+        User user = users.get(i % users.size());
+        Task task = i % 2 == 0
+                ? new Task("Tâche " + i, "Description de la tâche " + i, user)
+                : new DatedTask("Tâche " + i, "Description de la tâche " + i, user, today.plusDays(i % 365 - 180));
+        task.setDone(i % 3 == 0);
+        return task;
+    }
+
+    private static int countOverdue(List<Task> tasks, LocalDate today) {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task instanceof DatedTask && !task.isDone()) {
+                LocalDate dueDate = ((DatedTask) task).getDueDate();
+                if (dueDate != null && dueDate.isBefore(today)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void fork(String phase, int tasks, int users) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String heap = System.getProperty("bench.heap", "3g");
+        ProcessBuilder builder = new ProcessBuilder(java, "-Xms" + heap, "-Xmx" + heap,
+                "-cp", System.getProperty("java.class.path"), TaskStoreFootprintBenchmark.class.getName(),
+                phase, String.valueOf(tasks), String.valueOf(users));
+        builder.inheritIO();
+        int status = builder.start().waitFor();
+        if (status != 0) {
+            throw new IllegalStateException("La phase " + phase + " a échoué (code " + status + ")");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.main.bench;
+
+import com.main.database.DatabaseAccess;
+import com.main.database.DatabaseView;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Vérification des vues publiées par DatabaseAccess : des écrivains ajoutent des utilisateurs et des lots de
+// tâches puis suppriment des tâches, toutes les tâches d'un utilisateur ou l'utilisateur lui-même, pendant que
+// des lecteurs contrôlent chaque vue obtenue par getView : aucune tâche sans son créateur, mêmes tâches dans
+// la liste complète et dans les listes par utilisateur, compteurs égaux aux tailles des listes.
+// Code de sortie 1 si une vérification échoue.
+//
+// Usage : java -cp <classes> com.main.bench.ViewConsistencyCheck [nbÉcrivains] [nbLecteurs] [duréeMs]
+public class ViewConsistencyCheck {
+    private static final AtomicBoolean stop = new AtomicBoolean();
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int durationMillis = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+
+        DatabaseAccess database = DatabaseAccess.getInstance();
+        System.out.println("=== Cohérence des vues : " + writers + " écrivains, " + readers + " lecteurs, "
+                + durationMillis + " ms ===");
+        AtomicLong checks = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            threads.add(start(() -> write(database, seed)));
+        }
+        for (int r = 0; r < readers; r++) {
+            threads.add(start(() -> {
+                while (!stop.get()) {
+                    check(database.getView());
+                    checks.incrementAndGet();
+                }
+            }));
+        }
+        Thread.sleep(durationMillis);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Une fois les écritures terminées, la vue publiée est à jour
+        DatabaseView view = database.getView();
+        check(view);
+        compare("tâches de la vue et de la base", view.getTaskCount(), database.getTaskCount());
+        compare("utilisateurs de la vue et de la base", view.getUserCount(), database.getUserCount());
+
+        // Une vue prise avant une suppression la conserve
+        User user = new User("Vérification");
+        database.addUser(user);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new Task("Tâche " + i, "Description", user));
+        }
+        database.addTasks(batch);
+        DatabaseView before = database.getView();
+        database.deleteUser(user.getId());
+        compare("tâches de la vue antérieure à la suppression", batch.size(), before.getTasksByUser(user).size());
+        compare("tâches après la suppression", 0, database.getView().getTasksByUser(user).size());
+        compare("taille de la vue antérieure", before.getTaskCount(), database.getView().getTaskCount() + batch.size());
+
+        synchronized (failures) {
+            if (failures.isEmpty()) {
+                System.out.println("OK : " + checks.get() + " vues vérifiées, " + view.getTaskCount() + " tâches, "
+                        + view.getUserCount() + " utilisateurs");
+                return;
+            }
+            for (String failure : failures) {
+                System.out.println("ÉCHEC : " + failure);
+            }
+        }
+        System.exit(1);
+    }
+
+    private static void write(DatabaseAccess database, int seed) {
+        Random random = new Random(seed);
+        try {
+            while (!stop.get()) {
+                User user = new User("Écrivain " + seed + "-" + random.nextInt(1000));
+                database.addUser(user);
+                List<Task> batch = new ArrayList<>();
+                int size = 1 + random.nextInt(20);
+                for (int i = 0; i < size; i++) {
+                    batch.add(new Task("Tâche " + i, "Description", user));
+                }
+                database.addTasks(batch);
+                if (random.nextInt(3) == 0) {
+                    database.deleteTask(batch.get(0).getId());
+                }
+                if (random.nextInt(2) == 0) {
+                    database.deleteUser(user.getId());
+                } else if (random.nextInt(2) == 0) {
+                    database.deleteAllTasksByUser(user);
+                }
+            }
+        } catch (Exception e) {
+            fail("exception dans un écrivain : " + e);
+        }
+    }
+
+    private static void check(DatabaseView view) {
+        Set<String> users = new HashSet<>();
+        for (User user : view.getUsers()) {
+            users.add(user.getId());
+        }
+        int tasks = 0;
+        for (Task task : view.getTasks()) {
+            tasks++;
+            if (!users.contains(task.getCreatedBy().getId())) {
+                fail("tâche " + task.getId() + " sans son créateur dans la vue");
+            }
+        }
+        int byUser = 0;
+        for (User user : view.getUsers()) {
+            for (Task task : view.getTasksByUser(user)) {
+                byUser++;
+                if (!task.getCreatedBy().getId().equals(user.getId())) {
+                    fail("tâche " + task.getId() + " listée sous " + user.getId());
+                }
+            }
+        }
+        compare("taille de la liste des tâches", view.getTaskCount(), tasks);
+        compare("somme des tâches par utilisateur", tasks, byUser);
+        compare("taille de la liste des utilisateurs", view.getUserCount(), users.size());
+    }
+
+    private static Thread start(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.start();
+        return thread;
+    }
+
+    private static void compare(String what, long expected, long actual) {
+        if (expected != actual) {
+            fail(what + " : attendu " + expected + ", obtenu " + actual);
+        }
+    }
+
+    // Le premier échec arrête les écrivains et les lecteurs
+    private static void fail(String failure) {
+        synchronized (failures) {
+            if (failures.size() < 20) {
+                failures.add(failure);
+            }
+        }
+        stop.set(true);
+    }
+}
@@ -0,0 +1,413 @@
+package com.main.database;
+
+import com.main.exception.ElementNotFoundException;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Stockage des tâches en colonnes de types primitifs, une ligne par tâche, au lieu d'un objet Task par tâche :
+// identifiant UUID en deux long, titre et description en adresses dans une arène de chaînes partagée,
+// créateur en indice dans la table des utilisateurs, échéance en jour (epoch day) et état en bit.
+// Les tâches ne sont pas conservées : findById et forEach construisent à la demande une copie de la ligne,
+// qui ne suit pas les modifications ultérieures. Les modifications passent par les méthodes du stockage.
+// Une suppression déplace la dernière ligne dans le trou : l'ordre des lignes n'est pas l'ordre d'insertion.
+// Lectures concurrentes, écritures exclusives.
+public class ColumnarTaskStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int EMPTY = -1;
+    // Colonne d'échéance d'une tâche simple, et d'une tâche avec échéance sans date
+    private static final int NOT_DATED = Integer.MIN_VALUE;
+    private static final int NO_DUE_DATE = Integer.MIN_VALUE + 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private int[] titles = new int[INITIAL_CAPACITY];
+    private int[] descriptions = new int[INITIAL_CAPACITY];
+    private int[] creators = new int[INITIAL_CAPACITY];
+    private int[] dueDays = new int[INITIAL_CAPACITY];
+    private long[] done = new long[INITIAL_CAPACITY / 64];
+    private int doneCount;
+    private StringArena strings = new StringArena();
+
+    // Utilisateurs référencés par au moins une tâche, jamais retirés : leur nombre reste faible
+    private final List<User> users = new ArrayList<>();
+    private final Map<String, Integer> userIndexes = new HashMap<>();
+
+    // Table de hachage à adressage ouvert des lignes, par identifiant
+    private int[] rowsById = emptyTable(2 * INITIAL_CAPACITY);
+
+    // L'identifiant doit être un UUID sous sa forme canonique (celle de UUID.toString)
+    public void add(Task task) {
+        UUID id = parseId(task.getId());
+        int dueDay = dueDayOf(task);
+        lock.writeLock().lock();
+        try {
+            if (findRow(id.getMostSignificantBits(), id.getLeastSignificantBits()) >= 0) {
+                throw new IllegalArgumentException("La tâche avec l'ID '" + task.getId() + "' existe déjà");
+            }
+            int creator = userIndex(task.getCreatedBy());
+            if (size == idHigh.length) {
+                grow();
+            }
+            int row = size++;
+            idHigh[row] = id.getMostSignificantBits();
+            idLow[row] = id.getLeastSignificantBits();
+            titles[row] = strings.intern(task.getTitle());
+            descriptions[row] = strings.intern(task.getDescription());
+            creators[row] = creator;
+            dueDays[row] = dueDay;
+            setDoneBit(row, task.isDone());
+            insertRow(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Task findById(String id) throws ElementNotFoundException {
+        lock.readLock().lock();
+        try {
+            return view(rowOf(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String id) {
+        UUID uuid = toUuid(id);
+        if (uuid == null) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return findRow(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void update(String id, String title, String description, boolean done) throws ElementNotFoundException {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            titles[row] = strings.intern(title);
+            descriptions[row] = strings.intern(description);
+            setDoneBit(row, done);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setDone(String id, boolean done) throws ElementNotFoundException {
+        lock.writeLock().lock();
+        try {
+            setDoneBit(rowOf(id), done);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setDueDate(String id, LocalDate dueDate) throws ElementNotFoundException {
+        int dueDay = dueDate == null ? NO_DUE_DATE : toDueDay(dueDate);
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            if (dueDays[row] == NOT_DATED) {
+                throw new ElementNotFoundException("La tâche avec l'ID '" + id + "' n'est pas une tâche avec échéance");
+            }
+            dueDays[row] = dueDay;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) throws ElementNotFoundException {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            deleteFromTable(row);
+            setDoneBit(row, false);
+            int last = --size;
+            if (row != last) {
+                // La dernière ligne prend la place de la ligne supprimée
+                deleteFromTable(last);
+                idHigh[row] = idHigh[last];
+                idLow[row] = idLow[last];
+                titles[row] = titles[last];
+                descriptions[row] = descriptions[last];
+                creators[row] = creators[last];
+                dueDays[row] = dueDays[last];
+                boolean lastDone = isDoneBit(last);
+                setDoneBit(last, false);
+                setDoneBit(row, lastDone);
+                insertRow(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getCompletedCount() {
+        lock.readLock().lock();
+        try {
+            return doneCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Tâches non terminées dont l'échéance est passée, comptées sur les colonnes sans construire de tâche
+    public int countOverdue(LocalDate today) {
+        int todayDay = toDueDay(today);
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                int dueDay = dueDays[row];
+                if (dueDay > NO_DUE_DATE && dueDay < todayDay && !isDoneBit(row)) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Parcours de toutes les tâches sous le verrou de lecture : l'action ne doit pas modifier le stockage
+    public void forEach(Consumer<? super Task> action) {
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                action.accept(view(row));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reconstruit l'arène avec les seules chaînes encore référencées, après de nombreuses modifications
+    public void compactStrings() {
+        lock.writeLock().lock();
+        try {
+            StringArena compacted = new StringArena();
+            for (int row = 0; row < size; row++) {
+                titles[row] = compacted.intern(strings.get(titles[row]));
+                descriptions[row] = compacted.intern(strings.get(descriptions[row]));
+            }
+            strings = compacted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Octets alloués par les colonnes, l'arène et la table des identifiants (hors utilisateurs)
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return 8L * (idHigh.length + idLow.length + done.length)
+                    + 4L * (titles.length + descriptions.length + creators.length + dueDays.length + rowsById.length)
+                    + strings.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Task view(int row) {
+        String id = new UUID(idHigh[row], idLow[row]).toString();
+        String title = strings.get(titles[row]);
+        String description = strings.get(descriptions[row]);
+        User creator = users.get(creators[row]);
+        int dueDay = dueDays[row];
+        if (dueDay == NOT_DATED) {
+            return new Task(id, title, description, isDoneBit(row), creator);
+        }
+        LocalDate dueDate = dueDay == NO_DUE_DATE ? null : LocalDate.ofEpochDay(dueDay);
+        return new DatedTask(id, title, description, isDoneBit(row), creator, dueDate);
+    }
+
+    private int rowOf(String id) throws ElementNotFoundException {
+        UUID uuid = toUuid(id);
+        int row = uuid == null ? -1 : findRow(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (row < 0) {
+            throw new ElementNotFoundException("Tâche avec l'ID '" + id + "' non trouvée");
+        }
+        return row;
+    }
+
+    private int userIndex(User user) {
+        Integer index = userIndexes.get(user.getId());
+        if (index == null) {
+            index = users.size();
+            users.add(user);
+            userIndexes.put(user.getId(), index);
+        }
+        return index;
+    }
+
+    private boolean isDoneBit(int row) {
+        return (done[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void setDoneBit(int row, boolean value) {
+        long mask = 1L << row;
+        long word = done[row >>> 6];
+        if (value == ((word & mask) != 0)) {
+            return;
+        }
+        done[row >>> 6] = word ^ mask;
+        doneCount += value ? 1 : -1;
+    }
+
+    private void grow() {
+        int capacity = idHigh.length + (idHigh.length >> 1);
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        creators = Arrays.copyOf(creators, capacity);
+        dueDays = Arrays.copyOf(dueDays, capacity);
+        done = Arrays.copyOf(done, (capacity + 63) >>> 6);
+        // Table des identifiants remplie au plus à moitié
+        int[] old = rowsById;
+        rowsById = emptyTable(Integer.highestOneBit(capacity - 1) << 2);
+        for (int row : old) {
+            if (row != EMPTY) {
+                insertRow(row);
+            }
+        }
+    }
+
+    private int findRow(long high, long low) {
+        int mask = rowsById.length - 1;
+        for (int slot = slotOf(high, low, mask); ; slot = (slot + 1) & mask) {
+            int row = rowsById[slot];
+            if (row == EMPTY) {
+                return -1;
+            }
+            if (idHigh[row] == high && idLow[row] == low) {
+                return row;
+            }
+        }
+    }
+
+    private void insertRow(int row) {
+        int mask = rowsById.length - 1;
+        int slot = slotOf(idHigh[row], idLow[row], mask);
+        while (rowsById[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        rowsById[slot] = row;
+    }
+
+    // Suppression par décalage arrière : les lignes qui suivent dans la même séquence de sondage
+    // remontent pour qu'aucune recherche ne s'arrête sur une case vidée
+    private void deleteFromTable(int row) {
+        int mask = rowsById.length - 1;
+        int slot = slotOf(idHigh[row], idLow[row], mask);
+        while (rowsById[slot] != row) {
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; rowsById[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slotOf(idHigh[rowsById[next]], idLow[rowsById[next]], mask);
+            // La ligne peut remonter si sa case d'origine n'est pas entre le trou (exclu) et sa position
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                rowsById[hole] = rowsById[next];
+                hole = next;
+            }
+        }
+        rowsById[hole] = EMPTY;
+    }
+
+    private static int slotOf(long high, long low, int mask) {
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static int dueDayOf(Task task) {
+        if (!(task instanceof DatedTask)) {
+            return NOT_DATED;
+        }
+        LocalDate dueDate = ((DatedTask) task).getDueDate();
+        return dueDate == null ? NO_DUE_DATE : toDueDay(dueDate);
+    }
+
+    private static int toDueDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay <= NO_DUE_DATE || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date d'échéance hors limites : " + date);
+        }
+        return (int) epochDay;
+    }
+
+    private static UUID parseId(String id) {
+        UUID uuid = toUuid(id);
+        if (uuid == null) {
+            throw new IllegalArgumentException("L'ID de tâche '" + id + "' n'est pas un UUID");
+        }
+        return uuid;
+    }
+
+    // Null si l'identifiant n'est pas un UUID canonique (minuscules, tirets aux positions 8, 13, 18 et 23) :
+    // une autre forme ne serait pas restituée à l'identique par UUID.toString
+    private static UUID toUuid(String id) {
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                value = c - 'a' + 10;
+            } else {
+                return null;
+            }
+            if (digits++ < 16) {
+                high = high << 4 | value;
+            } else {
+                low = low << 4 | value;
+            }
+        }
+        return new UUID(high, low);
+    }
+
+    private static int[] emptyTable(int size) {
+        int[] table = new int[size];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
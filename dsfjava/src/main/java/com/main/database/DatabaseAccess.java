@@ -4,22 +4,134 @@ import com.main.model.User;
 import com.main.model.Task;
 import com.main.model.DatedTask;
 import com.main.exception.ElementNotFoundException;
+import com.main.model.Page;
+import com.main.model.SearchResult;
+import com.main.model.TaskSort;
+import com.main.model.UserSort;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 public class DatabaseAccess {
+    private static final int LOCK_STRIPES = 64;
+    // Répertoire de persistance ; sans cette propriété les données restent en mémoire
+    private static final String DATA_DIRECTORY_PROPERTY = "todo.data.dir";
+    private static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+    // Intervalle entre deux instantanés (secondes, 0 pour désactiver) et nombre minimal d'opérations journalisées
+    private static final String SNAPSHOT_INTERVAL_PROPERTY = "todo.data.snapshotInterval";
+    private static final String SNAPSHOT_MIN_OPERATIONS_PROPERTY = "todo.data.snapshotMinOperations";
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_SECONDS = 300;
+    private static final long DEFAULT_SNAPSHOT_MIN_OPERATIONS = 1000;
+    // Taille maximale d'une page ; une taille supérieure est ramenée à cette valeur
+    public static final int MAX_PAGE_SIZE = 500;
+    // Clé d'échéance des tâches sans date : après toutes les dates dans l'ordre croissant
+    private static final String NO_DUE_DATE_KEY = "~";
+    private static final long DUE_DAY_OFFSET = 1_000_000_000_000L;
+
     private static DatabaseAccess instance;
-    private List<User> users;
-    private List<Task> tasks;
+
+    // Accès concurrent : les lectures ne prennent aucun verrou (collections concurrentes),
+    // les écritures sont sérialisées par utilisateur grâce à des verrous répartis (lock striping).
+    // Une tâche relève toujours du verrou de son créateur, ce qui rend atomiques les suppressions en cascade.
+    private final ReentrantLock[] stripes;
+    private final AtomicLong sequence;
+
+    // Index primaires par ID ; l'ordre d'insertion est conservé via un numéro de séquence
+    private final ConcurrentMap<String, Entry<User>> usersById;
+    private final ConcurrentMap<String, Entry<Task>> tasksById;
+    private final ConcurrentNavigableMap<Long, User> usersInOrder;
+    private final ConcurrentNavigableMap<Long, Task> tasksInOrder;
+    // Index secondaires : tâches par ID d'utilisateur, utilisateurs par prénom
+    private final ConcurrentMap<String, ConcurrentNavigableMap<Long, Task>> tasksByUserId;
+    private final ConcurrentMap<String, ConcurrentNavigableMap<Long, User>> usersByFirstName;
+    private final DueDateIndex dueDateIndex;
+    // Index triés pour la pagination ; l'ordre de création utilise directement tasksInOrder et usersInOrder
+    private final Map<TaskSort, SortIndex<Task>> taskSortIndexes;
+    private final SortIndex<User> usersByName;
+    // Index plein texte des titres et descriptions
+    private final SearchIndex searchIndex;
+    // Dernier état publié des collections, remplacé en bloc par chaque écriture sous publishLock :
+    // les lecteurs de listes complètes le lisent sans copie ni verrou
+    private final AtomicReference<DatabaseView> view;
+    private final Object publishLock = new Object();
+    // Journal des écritures, null quand la persistance est désactivée
+    private volatile OperationLog operationLog;
+    private Path dataDirectory;
+    private ScheduledExecutorService snapshotScheduler;
+    private final Object snapshotMonitor = new Object();
+    private volatile long operationsAtLastSnapshot;
+    // Compteurs tenus à jour à chaque écriture : les statistiques ne parcourent plus les tâches.
+    // L'état "terminée" d'une tâche ne doit donc être modifié qu'au travers de DatabaseAccess.
+    private final AtomicInteger userCount;
+    private final TaskCounters taskCounters;
+    private final ConcurrentMap<String, TaskCounters> taskCountersByUserId;
+    // Version des données, incrémentée après chaque écriture une fois celle-ci visible : un résultat
+    // calculé après avoir lu la version N reste valable tant que la version vaut N.
+    // Chaque utilisateur garde la version de la dernière écriture qui le concerne, lui ou ses tâches.
+    private final AtomicLong dataVersion;
+    private final ConcurrentMap<String, Long> userVersions;
 
     // Constructeur privé pour le pattern Singleton
     private DatabaseAccess() {
-        this.users = new ArrayList<>();
-        this.tasks = new ArrayList<>();
-        initializeWithSampleData();
+        this.stripes = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.sequence = new AtomicLong();
+        this.usersById = new ConcurrentHashMap<>();
+        this.tasksById = new ConcurrentHashMap<>();
+        this.usersInOrder = new ConcurrentSkipListMap<>();
+        this.tasksInOrder = new ConcurrentSkipListMap<>();
+        this.tasksByUserId = new ConcurrentHashMap<>();
+        this.usersByFirstName = new ConcurrentHashMap<>();
+        this.dueDateIndex = new DueDateIndex();
+        this.taskSortIndexes = new EnumMap<>(TaskSort.class);
+        taskSortIndexes.put(TaskSort.TITLE, new SortIndex<>(TaskSort.TITLE.getParameter(),
+                task -> SortIndex.normalize(task.getTitle())));
+        taskSortIndexes.put(TaskSort.DUE_DATE, new SortIndex<>(TaskSort.DUE_DATE.getParameter(), DatabaseAccess::dueDateKey));
+        taskSortIndexes.put(TaskSort.STATUS, new SortIndex<>(TaskSort.STATUS.getParameter(),
+                task -> task.isDone() ? "1" : "0"));
+        taskSortIndexes.put(TaskSort.CREATOR, new SortIndex<>(TaskSort.CREATOR.getParameter(),
+                task -> SortIndex.normalize(task.getCreatedBy().getFirstName()) + '\u0000' + task.getCreatedBy().getId()));
+        this.usersByName = new SortIndex<>(UserSort.NAME.getParameter(), user -> SortIndex.normalize(user.getFirstName()));
+        this.searchIndex = new SearchIndex();
+        this.view = new AtomicReference<>(DatabaseView.EMPTY);
+        this.userCount = new AtomicInteger();
+        this.taskCounters = new TaskCounters();
+        this.taskCountersByUserId = new ConcurrentHashMap<>();
+        this.dataVersion = new AtomicLong();
+        this.userVersions = new ConcurrentHashMap<>();
+
+        String dataDirectory = System.getProperty(DATA_DIRECTORY_PROPERTY);
+        if (dataDirectory != null && !dataDirectory.trim().isEmpty()) {
+            openStore(Paths.get(dataDirectory.trim()));
+        } else {
+            initializeWithSampleData();
+        }
     }
 
     // Méthode pour obtenir l'instance unique (Singleton)
@@ -37,9 +149,9 @@ public class DatabaseAccess {
         User user2 = new User("Bob");
         User user3 = new User("Charlie");
 
-        users.add(user1);
-        users.add(user2);
-        users.add(user3);
+        addUser(user1);
+        addUser(user2);
+        addUser(user3);
 
         // Créer quelques tâches d'exemple
         Task task1 = new Task("Apprendre Java", "Étudier les concepts de base de Java", user1);
@@ -47,166 +159,874 @@ public class DatabaseAccess {
         DatedTask task3 = new DatedTask("Rendre le projet", "Terminer le projet TODO List", user1, LocalDate.now().plusDays(7));
         DatedTask task4 = new DatedTask("Réunion équipe", "Préparer la présentation", user3, LocalDate.now().plusDays(2));
 
-        tasks.add(task1);
-        tasks.add(task2);
-        tasks.add(task3);
-        tasks.add(task4);
+        try {
+            addTask(task1);
+            addTask(task2);
+            addTask(task3);
+            addTask(task4);
+        } catch (ElementNotFoundException e) {
+            // Les créateurs viennent d'être ajoutés
+            throw new IllegalStateException(e);
+        }
     }
 
     // === MÉTHODES POUR LES UTILISATEURS ===
 
+    // Ensemble des utilisateurs et des tâches à l'instant de l'appel, sans copie : à utiliser pour plusieurs
+    // lectures qui doivent concorder (utilisateurs puis tâches de chacun, par exemple). Seuls les ajouts et
+    // suppressions sont figés : updateUser, updateTask, updateDatedTask, patchTask et markTaskAsDone/Undone
+    // modifient sur place les objets User et Task partagés, dont les champs lus à travers la vue peuvent
+    // donc être plus récents que l'appel.
+    public DatabaseView getView() {
+        return view.get();
+    }
+
+    // Liste en lecture seule obtenue sans copie ; sa composition est figée à l'instant de l'appel (voir getView)
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        return view.get().getUsers();
+    }
+
+    // Page d'utilisateurs commençant après le curseur (null pour la première page)
+    public Page<User> getUsersPage(UserSort sort, boolean descending, String cursor, int size) {
+        long start = System.nanoTime();
+        int pageSize = Pagination.checkPageSize(size);
+        Page<User> page = sort == UserSort.NAME
+                ? usersByName.page(cursor, pageSize, descending)
+                : pageBySequence(usersInOrder, UserSort.CREATION.getParameter(), descending, cursor, pageSize);
+        DatabaseMetrics.USERS_PAGE.recordSince(start);
+        return page;
     }
 
     public User findUserById(String id) throws ElementNotFoundException {
-        Optional<User> user = users.stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst();
-        
-        if (user.isPresent()) {
-            return user.get();
+        long start = System.nanoTime();
+        Entry<User> entry = usersById.get(id);
+        DatabaseMetrics.FIND_USER.recordSince(start);
+        if (entry != null) {
+            return entry.value;
         } else {
             throw new ElementNotFoundException("Utilisateur avec l'ID '" + id + "' non trouvé");
         }
     }
 
     public User findUserByFirstName(String firstName) throws ElementNotFoundException {
-        Optional<User> user = users.stream()
-                .filter(u -> u.getFirstName().equals(firstName))
-                .findFirst();
-        
-        if (user.isPresent()) {
-            return user.get();
+        ConcurrentNavigableMap<Long, User> users = usersByFirstName.get(firstName);
+        Map.Entry<Long, User> first = users == null ? null : users.firstEntry();
+        if (first != null) {
+            return first.getValue();
         } else {
             throw new ElementNotFoundException("Utilisateur avec le prénom '" + firstName + "' non trouvé");
         }
     }
 
     public void addUser(User user) {
-        users.add(user);
+        long start = System.nanoTime();
+        insertUser(user, 0);
+        DatabaseMetrics.ADD_USER.recordSince(start);
+    }
+
+    // Rechargement depuis le journal ou un instantané : l'utilisateur reprend son rang d'origine
+    void restoreUser(User user, long restoredSequence) {
+        insertUser(user, restoredSequence);
+    }
+
+    private void insertUser(User user, long restoredSequence) {
+        long ticket;
+        ReentrantLock lock = lockFor(user.getId());
+        lock.lock();
+        try {
+            Entry<User> entry = new Entry<>(nextSequence(restoredSequence), user);
+            Entry<User> previous = usersById.put(user.getId(), entry);
+            if (previous != null) {
+                usersInOrder.remove(previous.sequence);
+                unindexFirstName(previous);
+                usersByName.remove(previous.sequence, previous.value);
+            } else {
+                userCount.incrementAndGet();
+            }
+            usersInOrder.put(entry.sequence, user);
+            indexFirstName(entry);
+            usersByName.add(entry.sequence, user);
+            publish(current -> (previous == null ? current : current.withoutUser(previous.sequence))
+                    .withUser(entry.sequence, user));
+            dataChanged(user.getId());
+            ticket = journal(() -> Operations.addUser(user, entry.sequence));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(ticket);
     }
 
     public void updateUser(String id, String newFirstName) throws ElementNotFoundException {
-        User user = findUserById(id);
-        user.setFirstName(newFirstName);
+        long start = System.nanoTime();
+        long ticket;
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry<User> entry = usersById.get(id);
+            if (entry == null) {
+                throw new ElementNotFoundException("Utilisateur avec l'ID '" + id + "' non trouvé");
+            }
+            unindexFirstName(entry);
+            usersByName.remove(entry.sequence, entry.value);
+            // Les tâches de l'utilisateur changent de place dans le tri par créateur
+            SortIndex<Task> byCreator = taskSortIndexes.get(TaskSort.CREATOR);
+            ConcurrentNavigableMap<Long, Task> userTasks = tasksByUserId.get(id);
+            Collection<Map.Entry<Long, Task>> tasks = userTasks == null
+                    ? Collections.<Map.Entry<Long, Task>>emptyList() : userTasks.entrySet();
+            for (Map.Entry<Long, Task> task : tasks) {
+                byCreator.remove(task.getKey(), task.getValue());
+            }
+            entry.value.setFirstName(newFirstName);
+            for (Map.Entry<Long, Task> task : tasks) {
+                byCreator.add(task.getKey(), task.getValue());
+            }
+            indexFirstName(entry);
+            usersByName.add(entry.sequence, entry.value);
+            dataChanged(id);
+            ticket = journal(() -> Operations.updateUser(id, newFirstName));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.UPDATE_USER.recordSince(start);
     }
 
     public void deleteUser(String id) throws ElementNotFoundException {
-        User user = findUserById(id);
-        users.remove(user);
-        
-        // Supprimer aussi toutes les tâches de cet utilisateur
-        tasks.removeIf(task -> task.getCreatedBy().getId().equals(id));
+        long start = System.nanoTime();
+        long ticket;
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry<User> entry = usersById.remove(id);
+            if (entry == null) {
+                throw new ElementNotFoundException("Utilisateur avec l'ID '" + id + "' non trouvé");
+            }
+            usersInOrder.remove(entry.sequence);
+            unindexFirstName(entry);
+            usersByName.remove(entry.sequence, entry.value);
+            userCount.decrementAndGet();
+
+            // Supprimer aussi toutes les tâches de cet utilisateur
+            removeTasksOfUser(id);
+            publish(current -> current.withoutTasksOfUser(id).withoutUser(entry.sequence));
+            dataChanged(id);
+            ticket = journal(() -> Operations.deleteUser(id));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.DELETE_USER.recordSince(start);
     }
 
     // === MÉTHODES POUR LES TÂCHES ===
 
+    // Liste en lecture seule obtenue sans copie ; sa composition est figée à l'instant de l'appel (voir getView)
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks);
+        return view.get().getTasks();
+    }
+
+    // Page de tâches commençant après le curseur (null pour la première page)
+    public Page<Task> getTasksPage(TaskSort sort, boolean descending, String cursor, int size) {
+        long start = System.nanoTime();
+        int pageSize = Pagination.checkPageSize(size);
+        Page<Task> page = sort == TaskSort.CREATION
+                ? pageBySequence(tasksInOrder, TaskSort.CREATION.getParameter(), descending, cursor, pageSize)
+                : taskSortIndexes.get(sort).page(cursor, pageSize, descending);
+        DatabaseMetrics.TASKS_PAGE.recordSince(start);
+        return page;
+    }
+
+    // Recherche plein texte dans les titres et descriptions : tous les mots de la requête doivent être
+    // présents (ou commencer un mot de la tâche), les tâches sont classées par pertinence
+    public SearchResult searchTasks(String query, int limit) {
+        long start = System.nanoTime();
+        int[] matches = new int[1];
+        long[] sequences = searchIndex.search(query, Pagination.checkPageSize(limit), taskCounters.total.get(), matches);
+        List<Task> tasks = new ArrayList<>(sequences.length);
+        for (long taskSequence : sequences) {
+            // Absente si elle vient d'être supprimée
+            Task task = tasksInOrder.get(taskSequence);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        DatabaseMetrics.SEARCH_TASKS.recordSince(start);
+        return new SearchResult(tasks, matches[0]);
     }
 
     public List<Task> getTasksByUser(User user) {
-        return tasks.stream()
-                .filter(task -> task.getCreatedBy().getId().equals(user.getId()))
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return view.get().getTasksByUser(user);
     }
 
     public List<DatedTask> getAllDatedTasks() {
-        return tasks.stream()
+        return view.get().getTasks().stream()
                 .filter(task -> task instanceof DatedTask)
                 .map(task -> (DatedTask) task)
                 .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
     }
 
     public Task findTaskById(String id) throws ElementNotFoundException {
-        Optional<Task> task = tasks.stream()
-                .filter(t -> t.getId().equals(id))
-                .findFirst();
-        
-        if (task.isPresent()) {
-            return task.get();
+        long start = System.nanoTime();
+        Entry<Task> entry = tasksById.get(id);
+        DatabaseMetrics.FIND_TASK.recordSince(start);
+        if (entry != null) {
+            return entry.value;
         } else {
             throw new ElementNotFoundException("Tâche avec l'ID '" + id + "' non trouvée");
         }
     }
 
-    public void addTask(Task task) {
-        tasks.add(task);
+    // Le créateur est vérifié sous son verrou : supprimé entre la recherche de l'appelant et l'ajout,
+    // il n'aurait plus de tâche orpheline à emporter
+    public void addTask(Task task) throws ElementNotFoundException {
+        long start = System.nanoTime();
+        if (!insertTask(task, 0, true)) {
+            throw new ElementNotFoundException("Utilisateur avec l'ID '" + task.getCreatedBy().getId() + "' non trouvé");
+        }
+        DatabaseMetrics.ADD_TASK.recordSince(start);
+    }
+
+    // Le rejeu écarte déjà les tâches dont le créateur n'existe plus (Operations.apply)
+    void restoreTask(Task task, long restoredSequence) {
+        insertTask(task, restoredSequence, false);
+    }
+
+    // Renvoie false, sans rien modifier, si checkCreator et que le créateur n'existe plus
+    private boolean insertTask(Task task, long restoredSequence, boolean checkCreator) {
+        long ticket;
+        ReentrantLock lock = lockFor(task.getCreatedBy().getId());
+        lock.lock();
+        try {
+            if (checkCreator && !usersById.containsKey(task.getCreatedBy().getId())) {
+                return false;
+            }
+            Entry<Task> entry = new Entry<>(nextSequence(restoredSequence), task);
+            Entry<Task> previous = putTask(entry);
+            publish(current -> withTask(current, previous, entry));
+            dataChanged(task.getCreatedBy().getId());
+            ticket = journal(() -> Operations.addTask(task, entry.sequence));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(ticket);
+        return true;
+    }
+
+    // Ajout groupé : les verrous de tous les créateurs concernés sont pris une seule fois, dans l'ordre
+    // des index pour éviter tout interblocage, et le lot est journalisé en une seule écriture (un seul fsync).
+    // La validation des tâches est faite en amont (TaskService.createTasks) ; les tâches dont le créateur
+    // a été supprimé entre-temps ne sont pas ajoutées et sont renvoyées.
+    public List<Task> addTasks(Collection<? extends Task> tasks) {
+        long start = System.nanoTime();
+        List<Task> rejected = new ArrayList<>();
+        if (tasks.isEmpty()) {
+            return rejected;
+        }
+        boolean[] needed = new boolean[LOCK_STRIPES];
+        for (Task task : tasks) {
+            needed[stripeOf(task.getCreatedBy().getId())] = true;
+        }
+        long ticket;
+        lockStripes(needed);
+        try {
+            List<Task> added = new ArrayList<>(tasks.size());
+            List<Entry<Task>> entries = new ArrayList<>(tasks.size());
+            List<Entry<Task>> replaced = new ArrayList<>(tasks.size());
+            long[] sequences = new long[tasks.size()];
+            for (Task task : tasks) {
+                // Sous le verrou du créateur, sa suppression ne peut pas survenir pendant l'ajout
+                if (!usersById.containsKey(task.getCreatedBy().getId())) {
+                    rejected.add(task);
+                    continue;
+                }
+                Entry<Task> entry = new Entry<>(nextSequence(0), task);
+                replaced.add(putTask(entry));
+                entries.add(entry);
+                sequences[added.size()] = entry.sequence;
+                added.add(task);
+            }
+            if (!added.isEmpty()) {
+                // Le lot entier devient visible d'un coup
+                publish(current -> {
+                    for (int i = 0; i < entries.size(); i++) {
+                        current = withTask(current, replaced.get(i), entries.get(i));
+                    }
+                    return current;
+                });
+                long version = dataVersion.incrementAndGet();
+                for (Task task : added) {
+                    userVersions.put(task.getCreatedBy().getId(), version);
+                }
+            }
+            OperationLog log = operationLog;
+            ticket = log == null || added.isEmpty() ? 0 : log.appendAll(Operations.addTasks(added, sequences));
+        } finally {
+            unlockStripes(needed);
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.ADD_TASKS.recordSince(start);
+        return rejected;
     }
 
     public void updateTask(String id, String title, String description, boolean done) throws ElementNotFoundException {
-        Task task = findTaskById(id);
-        task.setTitle(title);
-        task.setDescription(description);
-        task.setDone(done);
+        long start = System.nanoTime();
+        long ticket;
+        Entry<Task> entry = lockTask(id);
+        try {
+            Task task = entry.value;
+            removeFromSortIndexes(entry.sequence, task);
+            task.setTitle(title);
+            task.setDescription(description);
+            setDone(task, done);
+            addToSortIndexes(entry.sequence, task);
+            dataChanged(task.getCreatedBy().getId());
+            ticket = journal(() -> Operations.updateTask(id, title, description, done));
+        } finally {
+            unlockTask(entry);
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.UPDATE_TASK.recordSince(start);
     }
 
     public void updateDatedTask(String id, String title, String description, boolean done, LocalDate dueDate) throws ElementNotFoundException {
-        Task task = findTaskById(id);
-        if (task instanceof DatedTask) {
-            DatedTask datedTask = (DatedTask) task;
-            datedTask.setTitle(title);
-            datedTask.setDescription(description);
-            datedTask.setDone(done);
-            datedTask.setDueDate(dueDate);
-        } else {
-            throw new ElementNotFoundException("La tâche avec l'ID '" + id + "' n'est pas une tâche avec échéance");
+        long start = System.nanoTime();
+        long ticket;
+        Entry<Task> entry = lockTask(id);
+        try {
+            Task task = entry.value;
+            if (task instanceof DatedTask) {
+                DatedTask datedTask = (DatedTask) task;
+                removeFromSortIndexes(entry.sequence, datedTask);
+                datedTask.setTitle(title);
+                datedTask.setDescription(description);
+                setDone(datedTask, done);
+                // La tâche change de jour dans l'index des échéances
+                dueDateIndex.remove(entry.sequence, datedTask);
+                datedTask.setDueDate(dueDate);
+                dueDateIndex.add(entry.sequence, datedTask);
+                addToSortIndexes(entry.sequence, datedTask);
+                dataChanged(datedTask.getCreatedBy().getId());
+                ticket = journal(() -> Operations.updateDatedTask(id, title, description, done, dueDate));
+            } else {
+                throw new ElementNotFoundException("La tâche avec l'ID '" + id + "' n'est pas une tâche avec échéance");
+            }
+        } finally {
+            unlockTask(entry);
         }
+        awaitDurable(ticket);
+        DatabaseMetrics.UPDATE_TASK.recordSince(start);
+    }
+
+    // Mise à jour partielle : les champs null gardent leur valeur. La fusion est faite sous le verrou du créateur,
+    // si bien qu'une écriture concurrente sur un autre champ n'est pas écrasée par une valeur relue plus tôt.
+    // dueDate n'est pris en compte que si updateDueDate, et seulement pour une tâche avec échéance.
+    public Task patchTask(String id, String title, String description, Boolean done, boolean updateDueDate,
+                          LocalDate dueDate) throws ElementNotFoundException {
+        long start = System.nanoTime();
+        long ticket;
+        Entry<Task> entry = lockTask(id);
+        Task task = entry.value;
+        try {
+            if (updateDueDate && !(task instanceof DatedTask)) {
+                throw new IllegalArgumentException("La tâche avec l'ID '" + id + "' n'est pas une tâche avec échéance");
+            }
+            String newTitle = title == null ? task.getTitle() : title;
+            String newDescription = description == null ? task.getDescription() : description;
+            boolean newDone = done == null ? task.isDone() : done;
+            removeFromSortIndexes(entry.sequence, task);
+            task.setTitle(newTitle);
+            task.setDescription(newDescription);
+            setDone(task, newDone);
+            if (task instanceof DatedTask) {
+                DatedTask datedTask = (DatedTask) task;
+                LocalDate newDueDate = updateDueDate ? dueDate : datedTask.getDueDate();
+                dueDateIndex.remove(entry.sequence, datedTask);
+                datedTask.setDueDate(newDueDate);
+                dueDateIndex.add(entry.sequence, datedTask);
+                ticket = journal(() -> Operations.updateDatedTask(id, newTitle, newDescription, newDone, newDueDate));
+            } else {
+                ticket = journal(() -> Operations.updateTask(id, newTitle, newDescription, newDone));
+            }
+            addToSortIndexes(entry.sequence, task);
+            dataChanged(task.getCreatedBy().getId());
+        } finally {
+            unlockTask(entry);
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.UPDATE_TASK.recordSince(start);
+        return task;
     }
 
     public void markTaskAsDone(String id) throws ElementNotFoundException {
-        Task task = findTaskById(id);
-        task.setDone(true);
+        long start = System.nanoTime();
+        long ticket;
+        Entry<Task> entry = lockTask(id);
+        try {
+            changeDone(entry, true);
+            dataChanged(entry.value.getCreatedBy().getId());
+            ticket = journal(() -> Operations.markDone(id, true));
+        } finally {
+            unlockTask(entry);
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.SET_TASK_DONE.recordSince(start);
     }
 
     public void markTaskAsUndone(String id) throws ElementNotFoundException {
-        Task task = findTaskById(id);
-        task.setDone(false);
+        long start = System.nanoTime();
+        long ticket;
+        Entry<Task> entry = lockTask(id);
+        try {
+            changeDone(entry, false);
+            dataChanged(entry.value.getCreatedBy().getId());
+            ticket = journal(() -> Operations.markDone(id, false));
+        } finally {
+            unlockTask(entry);
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.SET_TASK_DONE.recordSince(start);
     }
 
     public void deleteTask(String id) throws ElementNotFoundException {
-        Task task = findTaskById(id);
-        tasks.remove(task);
+        long start = System.nanoTime();
+        long ticket;
+        Entry<Task> entry = lockTask(id);
+        try {
+            tasksById.remove(id, entry);
+            unindexTask(entry);
+            publish(current -> current.withoutTask(entry.sequence, entry.value));
+            dataChanged(entry.value.getCreatedBy().getId());
+            ticket = journal(() -> Operations.deleteTask(id));
+        } finally {
+            unlockTask(entry);
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.DELETE_TASK.recordSince(start);
     }
 
     public void deleteAllTasksByUser(User user) {
-        tasks.removeIf(task -> task.getCreatedBy().getId().equals(user.getId()));
+        long start = System.nanoTime();
+        long ticket;
+        ReentrantLock lock = lockFor(user.getId());
+        lock.lock();
+        try {
+            removeTasksOfUser(user.getId());
+            publish(current -> current.withoutTasksOfUser(user.getId()));
+            dataChanged(user.getId());
+            ticket = journal(() -> Operations.deleteTasksOfUser(user.getId()));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(ticket);
+        DatabaseMetrics.DELETE_USER_TASKS.recordSince(start);
+    }
+
+    // === PERSISTANCE ===
+
+    // Charge le dernier instantané puis rejoue les segments du journal écrits depuis,
+    // et enregistre ensuite chaque écriture. Les données d'exemple ne sont créées qu'au premier démarrage.
+    private void openStore(Path dataDirectory) {
+        try {
+            Files.createDirectories(dataDirectory);
+            long start = System.nanoTime();
+            Path snapshot = dataDirectory.resolve(SNAPSHOT_FILE_NAME);
+            boolean hasSnapshot = Files.exists(snapshot);
+            long firstSegment = hasSnapshot ? SnapshotFile.load(snapshot, this) : 1;
+            long loaded = System.nanoTime();
+
+            OperationLog log = new OperationLog(dataDirectory);
+            int replayed = log.replay(firstSegment, payload -> Operations.apply(payload, this));
+            // Segments couverts par l'instantané mais non supprimés (arrêt juste après l'instantané)
+            log.deleteSegmentsBefore(firstSegment);
+            long end = System.nanoTime();
+            System.out.println("Données chargées depuis " + dataDirectory + " : "
+                    + (hasSnapshot ? "instantané lu en " + (loaded - start) / 1_000_000 + " ms, " : "")
+                    + replayed + " opération(s) rejouée(s) en " + (end - loaded) / 1_000_000 + " ms");
+
+            log.start();
+            this.dataDirectory = dataDirectory;
+            this.operationLog = log;
+            Runtime.getRuntime().addShutdownHook(new Thread(this::closeStore, "todo-oplog-shutdown"));
+            if (!hasSnapshot && replayed == 0) {
+                initializeWithSampleData();
+            }
+            scheduleSnapshots();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'ouvrir les données dans " + dataDirectory, e);
+        }
+    }
+
+    // Instantané périodique, seulement si assez d'opérations ont été journalisées depuis le précédent
+    private void scheduleSnapshots() {
+        long interval = Long.getLong(SNAPSHOT_INTERVAL_PROPERTY, DEFAULT_SNAPSHOT_INTERVAL_SECONDS);
+        long minOperations = Long.getLong(SNAPSHOT_MIN_OPERATIONS_PROPERTY, DEFAULT_SNAPSHOT_MIN_OPERATIONS);
+        if (interval <= 0) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            if (operationLog.getAppendedCount() - operationsAtLastSnapshot >= minOperations) {
+                try {
+                    createSnapshot();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Échec de l'instantané : " + e.getMessage());
+                }
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Écrit un instantané sans bloquer les écritures puis supprime les segments du journal qu'il couvre.
+    // Seul le basculement vers un nouveau segment est fait sous le verrou du journal.
+    public void createSnapshot() throws IOException {
+        long start = System.nanoTime();
+        OperationLog log = operationLog;
+        if (log == null) {
+            throw new IllegalStateException("Persistance désactivée : propriété " + DATA_DIRECTORY_PROPERTY + " absente");
+        }
+        synchronized (snapshotMonitor) {
+            long operations = log.getAppendedCount();
+            long firstSegment = log.rotate();
+            SnapshotFile.write(dataDirectory.resolve(SNAPSHOT_FILE_NAME), firstSegment, view.get());
+            log.deleteSegmentsBefore(firstSegment);
+            operationsAtLastSnapshot = operations;
+        }
+        DatabaseMetrics.SNAPSHOT.recordSince(start);
+    }
+
+    private void closeStore() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        try {
+            operationLog.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture du journal : " + e.getMessage());
+        }
+    }
+
+    // Appelé sous verrou : l'ordre du journal suit celui des écritures en mémoire pour un même utilisateur
+    // L'opération n'est encodée que si la persistance est active
+    private long journal(Supplier<byte[]> operation) {
+        OperationLog log = operationLog;
+        return log == null ? 0 : log.append(operation.get());
+    }
+
+    // Appelé hors verrou : l'attente du fsync ne bloque pas les autres écritures (group commit)
+    private void awaitDurable(long ticket) {
+        if (ticket > 0) {
+            long start = System.nanoTime();
+            operationLog.awaitDurable(ticket);
+            DatabaseMetrics.DURABILITY_WAIT.recordSince(start);
+        }
+    }
+
+    // === VERROUS ET MAINTENANCE DES INDEX ===
+
+    // Le numéro de séquence est journalisé : l'ordre d'insertion survit au redémarrage même quand
+    // des écritures concurrentes sur des verrous différents atteignent le journal dans un autre ordre
+    private long nextSequence(long restoredSequence) {
+        if (restoredSequence > 0) {
+            sequence.accumulateAndGet(restoredSequence, Math::max);
+            return restoredSequence;
+        }
+        return sequence.incrementAndGet();
+    }
+
+    private ReentrantLock lockFor(String userId) {
+        return stripes[stripeOf(userId)];
+    }
+
+    private static int stripeOf(String userId) {
+        int hash = userId.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (LOCK_STRIPES - 1);
+    }
+
+    // Les autres écritures ne prennent qu'un verrou à la fois : l'ordre croissant suffit à éviter l'interblocage
+    private void lockStripes(boolean[] needed) {
+        for (int i = 0; i < needed.length; i++) {
+            if (needed[i]) {
+                stripes[i].lock();
+            }
+        }
+    }
+
+    private void unlockStripes(boolean[] needed) {
+        for (int i = needed.length - 1; i >= 0; i--) {
+            if (needed[i]) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    // Appelé sous le verrou de l'utilisateur, après la modification : un lecteur qui voit la nouvelle
+    // version voit aussi les nouvelles données. Un utilisateur supprimé garde sa version pour qu'une page
+    // calculée avant sa création ne redevienne pas valide.
+    private void dataChanged(String userId) {
+        userVersions.put(userId, dataVersion.incrementAndGet());
+    }
+
+    // Verrouille la tâche via son créateur puis vérifie qu'elle n'a pas été supprimée entre-temps
+    private Entry<Task> lockTask(String id) throws ElementNotFoundException {
+        while (true) {
+            Entry<Task> entry = tasksById.get(id);
+            if (entry == null) {
+                throw new ElementNotFoundException("Tâche avec l'ID '" + id + "' non trouvée");
+            }
+            ReentrantLock lock = lockFor(entry.value.getCreatedBy().getId());
+            lock.lock();
+            if (tasksById.get(id) == entry) {
+                return entry;
+            }
+            lock.unlock();
+        }
+    }
+
+    private void unlockTask(Entry<Task> entry) {
+        lockFor(entry.value.getCreatedBy().getId()).unlock();
+    }
+
+    // Appelé sous le verrou du créateur de la tâche ; seul l'index trié par statut dépend de l'état
+    private void changeDone(Entry<Task> entry, boolean done) {
+        SortIndex<Task> byStatus = taskSortIndexes.get(TaskSort.STATUS);
+        byStatus.remove(entry.sequence, entry.value);
+        setDone(entry.value, done);
+        byStatus.add(entry.sequence, entry.value);
+    }
+
+    // Appelé sous le verrou du créateur de la tâche
+    private void setDone(Task task, boolean done) {
+        if (task.isDone() != done) {
+            task.setDone(done);
+            int delta = done ? 1 : -1;
+            taskCounters.done.addAndGet(delta);
+            TaskCounters userCounters = taskCountersByUserId.get(task.getCreatedBy().getId());
+            if (userCounters != null) {
+                userCounters.done.addAndGet(delta);
+            }
+            if (task instanceof DatedTask) {
+                dueDateIndex.doneChanged((DatedTask) task);
+            }
+        }
+    }
+
+    // Appelé sous le verrou de l'utilisateur ; sign vaut 1 à l'ajout et -1 à la suppression
+    private void countTask(String userId, boolean done, int sign) {
+        taskCounters.total.addAndGet(sign);
+        TaskCounters userCounters = taskCountersByUserId.computeIfAbsent(userId, key -> new TaskCounters());
+        userCounters.total.addAndGet(sign);
+        if (done) {
+            taskCounters.done.addAndGet(sign);
+            userCounters.done.addAndGet(sign);
+        }
+    }
+
+    private void indexFirstName(Entry<User> entry) {
+        usersByFirstName.compute(entry.value.getFirstName(), (firstName, users) -> {
+            ConcurrentNavigableMap<Long, User> result = users != null ? users : new ConcurrentSkipListMap<>();
+            result.put(entry.sequence, entry.value);
+            return result;
+        });
+    }
+
+    private void unindexFirstName(Entry<User> entry) {
+        usersByFirstName.computeIfPresent(entry.value.getFirstName(), (firstName, users) -> {
+            users.remove(entry.sequence);
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    // Appelé sous le verrou du créateur de la tâche ; une tâche de même ID est remplacée et renvoyée.
+    // La vue publiée n'est pas modifiée ici : l'appelant publie l'ajout (avec celui des autres tâches d'un lot)
+    private Entry<Task> putTask(Entry<Task> entry) {
+        Task task = entry.value;
+        String userId = task.getCreatedBy().getId();
+        Entry<Task> previous = tasksById.put(task.getId(), entry);
+        if (previous != null) {
+            unindexTask(previous);
+        }
+        // Une seule instance de la clé pour les index par séquence
+        Long sequence = entry.sequence;
+        tasksInOrder.put(sequence, task);
+        tasksByUserId.computeIfAbsent(userId, key -> new ConcurrentSkipListMap<>())
+                .put(sequence, task);
+        if (task instanceof DatedTask) {
+            dueDateIndex.add(entry.sequence, (DatedTask) task);
+        }
+        addToSortIndexes(entry.sequence, task);
+        countTask(userId, task.isDone(), 1);
+        return previous;
+    }
+
+    private static DatabaseView withTask(DatabaseView current, Entry<Task> previous, Entry<Task> entry) {
+        if (previous != null) {
+            current = current.withoutTask(previous.sequence, previous.value);
+        }
+        return current.withTask(entry.sequence, entry.value);
+    }
+
+    // Publication d'un nouvel état, appelée sous les verrous des utilisateurs concernés. Les écritures sur
+    // d'autres utilisateurs sont sérialisées par un verrou court plutôt que par compare-and-set : chaque
+    // modification est appliquée une seule fois, sans être rejouée quand un import en lot est en concurrence
+    private void publish(UnaryOperator<DatabaseView> change) {
+        synchronized (publishLock) {
+            view.set(change.apply(view.get()));
+        }
+    }
+
+    // Appelé sous le verrou du créateur de la tâche
+    private void unindexTask(Entry<Task> entry) {
+        tasksInOrder.remove(entry.sequence);
+        String userId = entry.value.getCreatedBy().getId();
+        countTask(userId, entry.value.isDone(), -1);
+        if (entry.value instanceof DatedTask) {
+            dueDateIndex.remove(entry.sequence, (DatedTask) entry.value);
+        }
+        removeFromSortIndexes(entry.sequence, entry.value);
+        ConcurrentNavigableMap<Long, Task> userTasks = tasksByUserId.get(userId);
+        if (userTasks != null) {
+            userTasks.remove(entry.sequence);
+            if (userTasks.isEmpty()) {
+                tasksByUserId.remove(userId, userTasks);
+            }
+        }
+    }
+
+    // Appelé sous le verrou de l'utilisateur
+    private void removeTasksOfUser(String userId) {
+        ConcurrentNavigableMap<Long, Task> userTasks = tasksByUserId.remove(userId);
+        if (userTasks != null) {
+            for (Map.Entry<Long, Task> task : userTasks.entrySet()) {
+                tasksById.remove(task.getValue().getId());
+                tasksInOrder.remove(task.getKey());
+                if (task.getValue() instanceof DatedTask) {
+                    dueDateIndex.remove(task.getKey(), (DatedTask) task.getValue());
+                }
+                removeFromSortIndexes(task.getKey(), task.getValue());
+            }
+        }
+        TaskCounters userCounters = taskCountersByUserId.remove(userId);
+        if (userCounters != null) {
+            taskCounters.total.addAndGet(-userCounters.total.get());
+            taskCounters.done.addAndGet(-userCounters.done.get());
+        }
+    }
+
+    // Appelés sous le verrou du créateur, avant et après toute modification d'un champ trié ou recherché
+    private void addToSortIndexes(long sequence, Task task) {
+        for (SortIndex<Task> index : taskSortIndexes.values()) {
+            index.add(sequence, task);
+        }
+        searchIndex.add(sequence, task);
+    }
+
+    private void removeFromSortIndexes(long sequence, Task task) {
+        for (SortIndex<Task> index : taskSortIndexes.values()) {
+            index.remove(sequence, task);
+        }
+        searchIndex.remove(sequence, task);
+    }
+
+    // Jour d'échéance sur 13 chiffres pour que l'ordre des chaînes suive celui des dates
+    private static String dueDateKey(Task task) {
+        LocalDate dueDate = task instanceof DatedTask ? ((DatedTask) task).getDueDate() : null;
+        if (dueDate == null) {
+            return NO_DUE_DATE_KEY;
+        }
+        return String.valueOf(dueDate.toEpochDay() + DUE_DAY_OFFSET);
+    }
+
+    // Tri par ordre d'insertion : le curseur ne contient que le numéro de séquence
+    private static <T> Page<T> pageBySequence(NavigableMap<Long, T> inOrder, String sortName, boolean descending,
+                                              String cursor, int size) {
+        Long after = null;
+        if (cursor != null) {
+            after = Pagination.decodeSequence(Pagination.decodeCursor(sortName, cursor)[1]);
+        }
+        return Pagination.page(inOrder, after, size, descending,
+                sequence -> Pagination.encodeCursor(sortName, "", sequence));
     }
 
     // === MÉTHODES DE STATISTIQUES ===
 
+    // Version globale des données, à lire avant de calculer un résultat à mettre en cache
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    // Version des données d'un utilisateur (prénom et tâches), 0 s'il n'a jamais été modifié
+    public long getUserVersion(String userId) {
+        Long version = userVersions.get(userId);
+        return version == null ? 0 : version;
+    }
+
     public int getUserCount() {
-        return users.size();
+        return userCount.get();
     }
 
     public int getTaskCount() {
-        return tasks.size();
+        return taskCounters.total.get();
     }
 
     public int getCompletedTaskCount() {
-        return (int) tasks.stream().filter(Task::isDone).count();
+        return taskCounters.done.get();
     }
 
     public int getPendingTaskCount() {
-        return (int) tasks.stream().filter(task -> !task.isDone()).count();
+        return taskCounters.total.get() - taskCounters.done.get();
     }
 
+    public int getTaskCountByUser(User user) {
+        TaskCounters counters = taskCountersByUserId.get(user.getId());
+        return counters == null ? 0 : counters.total.get();
+    }
+
+    public int getCompletedTaskCountByUser(User user) {
+        TaskCounters counters = taskCountersByUserId.get(user.getId());
+        return counters == null ? 0 : counters.done.get();
+    }
+
+    // Tâches non terminées dont l'échéance est passée, triées par échéance
     public List<DatedTask> getOverdueTasks() {
-        LocalDate today = LocalDate.now();
-        return tasks.stream()
-                .filter(task -> task instanceof DatedTask)
-                .map(task -> (DatedTask) task)
-                .filter(task -> !task.isDone() && task.getDueDate().isBefore(today))
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return dueDateIndex.pendingBefore(LocalDate.now());
     }
 
+    // Tâches non terminées dont l'échéance est à venir, triées par échéance
     public List<DatedTask> getUpcomingTasks() {
-        LocalDate today = LocalDate.now();
-        return tasks.stream()
-                .filter(task -> task instanceof DatedTask)
-                .map(task -> (DatedTask) task)
-                .filter(task -> !task.isDone() && task.getDueDate().isAfter(today))
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return dueDateIndex.pendingAfter(LocalDate.now());
+    }
+
+    // Tâches dont l'échéance est comprise entre from et to inclus, triées par échéance
+    public List<DatedTask> getTasksDueBetween(LocalDate from, LocalDate to, boolean pendingOnly) {
+        return dueDateIndex.between(from, to, pendingOnly);
+    }
+
+    public int getOverdueTaskCount() {
+        return dueDateIndex.countPendingBefore(LocalDate.now());
+    }
+
+    public int getUpcomingTaskCount() {
+        return dueDateIndex.countPendingAfter(LocalDate.now());
+    }
+
+    // Nombre de tâches et de tâches terminées, global ou par utilisateur
+    private static final class TaskCounters {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger done = new AtomicInteger();
+    }
+
+    // Élément indexé avec son numéro d'ordre d'insertion
+    private static final class Entry<T> {
+        private final long sequence;
+        private final T value;
+
+        private Entry(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.main.database;
+
+import com.main.metrics.Histogram;
+import com.main.metrics.MetricsRegistry;
+
+// Durée des opérations publiques de DatabaseAccess qui aboutissent, attente du journal (fsync) comprise.
+// Le rechargement au démarrage (restoreUser, restoreTask) n'est pas compté.
+final class DatabaseMetrics {
+    static final Histogram FIND_USER = operation("findUserById");
+    static final Histogram ADD_USER = operation("addUser");
+    static final Histogram UPDATE_USER = operation("updateUser");
+    static final Histogram DELETE_USER = operation("deleteUser");
+    static final Histogram USERS_PAGE = operation("getUsersPage");
+    static final Histogram FIND_TASK = operation("findTaskById");
+    static final Histogram ADD_TASK = operation("addTask");
+    static final Histogram ADD_TASKS = operation("addTasks");
+    static final Histogram UPDATE_TASK = operation("updateTask");
+    static final Histogram SET_TASK_DONE = operation("setTaskDone");
+    static final Histogram DELETE_TASK = operation("deleteTask");
+    static final Histogram DELETE_USER_TASKS = operation("deleteAllTasksByUser");
+    static final Histogram TASKS_PAGE = operation("getTasksPage");
+    static final Histogram SEARCH_TASKS = operation("searchTasks");
+    static final Histogram SNAPSHOT = operation("createSnapshot");
+    // Part de l'attente du fsync du journal dans les écritures
+    static final Histogram DURABILITY_WAIT = MetricsRegistry.getInstance().latencyHistogram(
+            "todo_database_durability_wait_seconds", "Attente de l'écriture sur disque du journal par une opération");
+
+    private DatabaseMetrics() {
+    }
+
+    private static Histogram operation(String name) {
+        return MetricsRegistry.getInstance().latencyHistogram("todo_database_operation_duration_seconds",
+                "Durée des opérations de DatabaseAccess qui aboutissent", "operation", name);
+    }
+}
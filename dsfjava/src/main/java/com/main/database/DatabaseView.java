@@ -0,0 +1,102 @@
+package com.main.database;
+
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.util.Collections;
+import java.util.List;
+
+// État des collections d'utilisateurs et de tâches à un instant donné, publié par DatabaseAccess après
+// chaque écriture. Immuable : les listes renvoyées ne sont ni copiées ni verrouillées, et restent
+// cohérentes entre elles (une tâche listée a son créateur dans getUsers) même si des écritures ont lieu
+// pendant le parcours. Les objets User et Task sont partagés : leurs champs, eux, suivent les modifications.
+public final class DatabaseView {
+    static final DatabaseView EMPTY = new DatabaseView(PersistentTree.<Long, User>empty(),
+            PersistentTree.<Long, Task>empty(), PersistentTree.<String, PersistentTree<Long, Task>>empty());
+
+    // Clés : numéros de séquence, donc ordre d'insertion
+    private final PersistentTree<Long, User> users;
+    private final PersistentTree<Long, Task> tasks;
+    private final PersistentTree<String, PersistentTree<Long, Task>> tasksByUserId;
+
+    private DatabaseView(PersistentTree<Long, User> users, PersistentTree<Long, Task> tasks,
+                         PersistentTree<String, PersistentTree<Long, Task>> tasksByUserId) {
+        this.users = users;
+        this.tasks = tasks;
+        this.tasksByUserId = tasksByUserId;
+    }
+
+    public List<User> getUsers() {
+        return users.values();
+    }
+
+    public List<Task> getTasks() {
+        return tasks.values();
+    }
+
+    public List<Task> getTasksByUser(User user) {
+        PersistentTree<Long, Task> userTasks = tasksByUserId.get(user.getId());
+        return userTasks == null ? Collections.<Task>emptyList() : userTasks.values();
+    }
+
+    // Numéros de séquence dans l'ordre de getUsers et getTasks, pour SnapshotFile
+    List<Long> getUserSequences() {
+        return users.keys();
+    }
+
+    List<Long> getTaskSequences() {
+        return tasks.keys();
+    }
+
+    public int getUserCount() {
+        return users.size();
+    }
+
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    // Les méthodes suivantes renvoient une nouvelle vue ; elles sont appelées par DatabaseAccess sous les verrous
+    // des utilisateurs concernés
+
+    DatabaseView withUser(Long sequence, User user) {
+        return new DatabaseView(users.put(sequence, user), tasks, tasksByUserId);
+    }
+
+    // Les tâches de l'utilisateur ne sont pas retirées
+    DatabaseView withoutUser(Long sequence) {
+        return new DatabaseView(users.remove(sequence), tasks, tasksByUserId);
+    }
+
+    DatabaseView withTask(Long sequence, Task task) {
+        String userId = task.getCreatedBy().getId();
+        PersistentTree<Long, Task> userTasks = tasksByUserId.get(userId);
+        if (userTasks == null) {
+            userTasks = PersistentTree.empty();
+        }
+        return new DatabaseView(users, tasks.put(sequence, task), tasksByUserId.put(userId, userTasks.put(sequence, task)));
+    }
+
+    DatabaseView withoutTask(Long sequence, Task task) {
+        String userId = task.getCreatedBy().getId();
+        PersistentTree<String, PersistentTree<Long, Task>> byUser = tasksByUserId;
+        PersistentTree<Long, Task> userTasks = byUser.get(userId);
+        if (userTasks != null) {
+            userTasks = userTasks.remove(sequence);
+            byUser = userTasks.isEmpty() ? byUser.remove(userId) : byUser.put(userId, userTasks);
+        }
+        return new DatabaseView(users, tasks.remove(sequence), byUser);
+    }
+
+    DatabaseView withoutTasksOfUser(String userId) {
+        PersistentTree<Long, Task> userTasks = tasksByUserId.get(userId);
+        if (userTasks == null) {
+            return this;
+        }
+        PersistentTree<Long, Task> remaining = tasks;
+        for (Long sequence : userTasks.keys()) {
+            remaining = remaining.remove(sequence);
+        }
+        return new DatabaseView(users, remaining, tasksByUserId.remove(userId));
+    }
+}
@@ -0,0 +1,103 @@
+package com.main.database;
+
+import com.main.model.DatedTask;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Index des tâches avec échéance, trié par jour d'échéance (epoch day) puis par ordre d'insertion.
+// Les requêtes "en retard", "à venir" et "entre deux dates" deviennent des parcours de plage.
+class DueDateIndex {
+    private final ConcurrentNavigableMap<Long, DayBucket> days = new ConcurrentSkipListMap<>();
+
+    // Les écritures sont faites par DatabaseAccess sous le verrou du créateur de la tâche
+    void add(long sequence, DatedTask task) {
+        if (task.getDueDate() == null) {
+            return;
+        }
+        DayBucket bucket = days.computeIfAbsent(task.getDueDate().toEpochDay(), day -> new DayBucket());
+        bucket.tasks.put(sequence, task);
+        if (!task.isDone()) {
+            bucket.pending.incrementAndGet();
+        }
+    }
+
+    void remove(long sequence, DatedTask task) {
+        if (task.getDueDate() == null) {
+            return;
+        }
+        // Les jours vides sont conservés : leur nombre est borné par la plage de dates utilisée
+        DayBucket bucket = days.get(task.getDueDate().toEpochDay());
+        if (bucket != null && bucket.tasks.remove(sequence) != null && !task.isDone()) {
+            bucket.pending.decrementAndGet();
+        }
+    }
+
+    // À appeler après la modification de l'état "terminée" d'une tâche indexée
+    void doneChanged(DatedTask task) {
+        if (task.getDueDate() == null) {
+            return;
+        }
+        DayBucket bucket = days.get(task.getDueDate().toEpochDay());
+        if (bucket != null) {
+            bucket.pending.addAndGet(task.isDone() ? -1 : 1);
+        }
+    }
+
+    List<DatedTask> pendingBefore(LocalDate date) {
+        return collect(days.headMap(date.toEpochDay(), false), true);
+    }
+
+    List<DatedTask> pendingAfter(LocalDate date) {
+        return collect(days.tailMap(date.toEpochDay(), false), true);
+    }
+
+    // Bornes incluses
+    List<DatedTask> between(LocalDate from, LocalDate to, boolean pendingOnly) {
+        if (from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+        return collect(days.subMap(from.toEpochDay(), true, to.toEpochDay(), true), pendingOnly);
+    }
+
+    int countPendingBefore(LocalDate date) {
+        return count(days.headMap(date.toEpochDay(), false));
+    }
+
+    int countPendingAfter(LocalDate date) {
+        return count(days.tailMap(date.toEpochDay(), false));
+    }
+
+    private List<DatedTask> collect(NavigableMap<Long, DayBucket> range, boolean pendingOnly) {
+        List<DatedTask> result = new ArrayList<>();
+        for (DayBucket bucket : range.values()) {
+            if (pendingOnly && bucket.pending.get() == 0) {
+                continue;
+            }
+            for (DatedTask task : bucket.tasks.values()) {
+                if (!pendingOnly || !task.isDone()) {
+                    result.add(task);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int count(NavigableMap<Long, DayBucket> range) {
+        int total = 0;
+        for (DayBucket bucket : range.values()) {
+            total += bucket.pending.get();
+        }
+        return total;
+    }
+
+    private static final class DayBucket {
+        private final ConcurrentNavigableMap<Long, DatedTask> tasks = new ConcurrentSkipListMap<>();
+        private final AtomicInteger pending = new AtomicInteger();
+    }
+}
@@ -0,0 +1,348 @@
+package com.main.database;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+// Journal des opérations en ajout seul, découpé en segments numérotés (operations-000001.log, ...).
+// Chaque enregistrement est encadré ainsi : [longueur int][CRC32 int][contenu].
+// Les écritures sont regroupées par un thread dédié : un seul fsync couvre toutes les opérations
+// arrivées pendant le fsync précédent (group commit).
+class OperationLog implements Closeable {
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "operations-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Marqueur placé dans la file d'attente : les enregistrements suivants vont dans un nouveau segment
+    private static final byte[] ROTATE = new byte[0];
+
+    // Reçoit le contenu de chaque enregistrement lors du rejeu
+    interface RecordHandler {
+        void handle(byte[] payload) throws IOException;
+    }
+
+    private final Path directory;
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private long segment;
+    // Segment réellement ouvert en écriture, en retard sur "segment" tant qu'une rotation est en attente
+    private long writingSegment;
+    private List<byte[]> pending = new ArrayList<>();
+    private long appended;
+    private long durable;
+    private IOException failure;
+    private boolean closed;
+    private Thread writer;
+
+    OperationLog(Path directory) {
+        this.directory = directory;
+    }
+
+    // Relit les segments à partir de firstSegment, dans l'ordre ; une fin d'enregistrement tronquée
+    // ou corrompue (arrêt brutal pendant une écriture) est coupée dans le dernier segment.
+    // Renvoie le nombre d'enregistrements rejoués.
+    int replay(long firstSegment, RecordHandler handler) throws IOException {
+        TreeMap<Long, Path> segments = listSegments();
+        int count = 0;
+        Path last = null;
+        long lastValidLength = 0;
+        for (Map.Entry<Long, Path> entry : segments.tailMap(firstSegment, true).entrySet()) {
+            if (last != null && lastValidLength < Files.size(last)) {
+                throw new IOException("Segment " + last + " corrompu avant la fin du journal");
+            }
+            last = entry.getValue();
+            segment = entry.getKey();
+            long[] validLength = new long[1];
+            count += replaySegment(last, handler, validLength);
+            lastValidLength = validLength[0];
+        }
+
+        if (last == null) {
+            segment = Math.max(firstSegment, 1);
+            writingSegment = segment;
+            channel = openSegment(segment);
+            return count;
+        }
+        writingSegment = segment;
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (lastValidLength < channel.size()) {
+            System.err.println("Journal " + last + " : fin corrompue ignorée à partir de l'octet " + lastValidLength);
+            channel.truncate(lastValidLength);
+            channel.force(true);
+        }
+        channel.position(lastValidLength);
+        return count;
+    }
+
+    private int replaySegment(Path file, RecordHandler handler, long[] validLength) throws IOException {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 0 || length > MAX_RECORD_SIZE) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload, 0, payload.length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                handler.handle(payload);
+                validLength[0] += HEADER_SIZE + length;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Démarre le thread d'écriture ; à appeler après le rejeu
+    void start() {
+        long openSegment = segment;
+        writer = new Thread(() -> writeLoop(openSegment), "todo-oplog-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Ajoute un enregistrement et renvoie son numéro, à passer à awaitDurable
+    long append(byte[] payload) {
+        byte[] record = frame(payload);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal des opérations fermé");
+            }
+            pending.add(record);
+            appended++;
+            lock.notifyAll();
+            return appended;
+        }
+    }
+
+    // Ajoute plusieurs enregistrements d'un coup : ils sont écrits ensemble, dans le même segment,
+    // et couverts par le même fsync. Renvoie le numéro du dernier.
+    long appendAll(List<byte[]> payloads) {
+        List<byte[]> records = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            records.add(frame(payload));
+        }
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal des opérations fermé");
+            }
+            pending.addAll(records);
+            appended += records.size();
+            lock.notifyAll();
+            return appended;
+        }
+    }
+
+    private static byte[] frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        byte[] record = new byte[HEADER_SIZE + payload.length];
+        ByteBuffer.wrap(record).putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return record;
+    }
+
+    // Les enregistrements ajoutés après cet appel iront dans un nouveau segment, dont le numéro est renvoyé.
+    // Tout ce qui a été ajouté avant est déjà appliqué en mémoire (les écritures journalisent sous verrou).
+    long rotate() {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Journal des opérations fermé");
+            }
+            pending.add(ROTATE);
+            lock.notifyAll();
+            segment++;
+            return segment;
+        }
+    }
+
+    // Nombre d'enregistrements ajoutés depuis l'ouverture
+    long getAppendedCount() {
+        synchronized (lock) {
+            return appended;
+        }
+    }
+
+    // Supprime les segments entièrement couverts par un instantané, une fois que le thread
+    // d'écriture les a refermés
+    void deleteSegmentsBefore(long firstSegment) throws IOException {
+        synchronized (lock) {
+            while (writingSegment < firstSegment && failure == null && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (writingSegment < firstSegment) {
+                return;
+            }
+        }
+        for (Path file : listSegments().headMap(firstSegment, false).values()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Bloque jusqu'à ce que l'enregistrement soit écrit et synchronisé sur disque
+    void awaitDurable(long ticket) {
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (durable < ticket && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durable < ticket) {
+                throw new UncheckedIOException("Échec d'écriture du journal des opérations", failure);
+            }
+        }
+    }
+
+    // Le numéro du segment ouvert n'est connu que du thread d'écriture :
+    // celui de "segment" peut déjà être en avance si une rotation est en attente
+    private void writeLoop(long current) {
+        while (true) {
+            List<byte[]> batch;
+            long batchEnd;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                batchEnd = appended;
+            }
+
+            try {
+                int start = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i) == ROTATE) {
+                        write(batch.subList(start, i));
+                        channel.force(false);
+                        channel.close();
+                        current++;
+                        channel = openSegment(current);
+                        start = i + 1;
+                        synchronized (lock) {
+                            writingSegment = current;
+                            lock.notifyAll();
+                        }
+                    }
+                }
+                write(batch.subList(start, batch.size()));
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("Erreur d'écriture du journal des opérations : " + e.getMessage());
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                durable = batchEnd;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void write(List<byte[]> batch) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(batch.get(i));
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel opened = FileChannel.open(directory.resolve(segmentName(number)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        opened.position(opened.size());
+        return opened;
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    segments.put(Long.parseLong(number), file);
+                } catch (NumberFormatException e) {
+                    // Fichier étranger au journal
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static String segmentName(long number) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    // Écrit les enregistrements en attente puis ferme le fichier
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+}
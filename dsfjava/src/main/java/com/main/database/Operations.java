@@ -0,0 +1,327 @@
+package com.main.database;
+
+import com.main.exception.ElementNotFoundException;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Encodage binaire des opérations du journal et leur rejeu sur DatabaseAccess.
+// Toutes les opérations sont idempotentes : rejouer un enregistrement déjà appliqué est sans effet.
+final class Operations {
+    private static final byte ADD_USER = 1;
+    private static final byte UPDATE_USER = 2;
+    private static final byte DELETE_USER = 3;
+    private static final byte ADD_TASK = 4;
+    private static final byte UPDATE_TASK = 5;
+    private static final byte UPDATE_DATED_TASK = 6;
+    private static final byte MARK_DONE = 7;
+    private static final byte MARK_UNDONE = 8;
+    private static final byte DELETE_TASK = 9;
+    private static final byte DELETE_TASKS_OF_USER = 10;
+    private static final byte ADD_TASKS = 11;
+    // Taille visée d'un enregistrement de lot, bien en dessous de la limite du journal
+    private static final int BATCH_RECORD_SIZE = 1024 * 1024;
+
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private Operations() {
+    }
+
+    static byte[] addUser(User user, long sequence) {
+        Encoder encoder = new Encoder(ADD_USER);
+        encoder.writeLong(sequence);
+        encoder.writeString(user.getId());
+        encoder.writeString(user.getFirstName());
+        return encoder.toByteArray();
+    }
+
+    static byte[] updateUser(String id, String firstName) {
+        Encoder encoder = new Encoder(UPDATE_USER);
+        encoder.writeString(id);
+        encoder.writeString(firstName);
+        return encoder.toByteArray();
+    }
+
+    // La suppression d'un utilisateur entraîne celle de ses tâches lors du rejeu
+    static byte[] deleteUser(String id) {
+        return idOnly(DELETE_USER, id);
+    }
+
+    static byte[] addTask(Task task, long sequence) {
+        Encoder encoder = new Encoder(ADD_TASK);
+        writeTask(encoder, task, sequence);
+        return encoder.toByteArray();
+    }
+
+    // Lot de tâches découpé en enregistrements d'environ BATCH_RECORD_SIZE octets : [nombre][tâche]...
+    static List<byte[]> addTasks(Collection<? extends Task> tasks, long[] sequences) {
+        List<byte[]> records = new ArrayList<>();
+        Encoder tasksEncoder = new Encoder();
+        int count = 0;
+        int i = 0;
+        for (Task task : tasks) {
+            writeTask(tasksEncoder, task, sequences[i++]);
+            count++;
+            if (tasksEncoder.size() >= BATCH_RECORD_SIZE || i == tasks.size()) {
+                Encoder encoder = new Encoder(ADD_TASKS);
+                encoder.writeInt(count);
+                encoder.writeBytes(tasksEncoder);
+                records.add(encoder.toByteArray());
+                tasksEncoder = new Encoder();
+                count = 0;
+            }
+        }
+        return records;
+    }
+
+    private static void writeTask(Encoder encoder, Task task, long sequence) {
+        encoder.writeLong(sequence);
+        encoder.writeString(task.getId());
+        encoder.writeString(task.getTitle());
+        encoder.writeString(task.getDescription());
+        encoder.writeBoolean(task.isDone());
+        encoder.writeString(task.getCreatedBy().getId());
+        encoder.writeLong(dueDayOf(task));
+    }
+
+    static byte[] updateTask(String id, String title, String description, boolean done) {
+        Encoder encoder = new Encoder(UPDATE_TASK);
+        encoder.writeString(id);
+        encoder.writeString(title);
+        encoder.writeString(description);
+        encoder.writeBoolean(done);
+        return encoder.toByteArray();
+    }
+
+    static byte[] updateDatedTask(String id, String title, String description, boolean done, LocalDate dueDate) {
+        Encoder encoder = new Encoder(UPDATE_DATED_TASK);
+        encoder.writeString(id);
+        encoder.writeString(title);
+        encoder.writeString(description);
+        encoder.writeBoolean(done);
+        encoder.writeLong(dueDate == null ? NO_DUE_DATE : dueDate.toEpochDay());
+        return encoder.toByteArray();
+    }
+
+    static byte[] markDone(String id, boolean done) {
+        return idOnly(done ? MARK_DONE : MARK_UNDONE, id);
+    }
+
+    static byte[] deleteTask(String id) {
+        return idOnly(DELETE_TASK, id);
+    }
+
+    static byte[] deleteTasksOfUser(String userId) {
+        return idOnly(DELETE_TASKS_OF_USER, userId);
+    }
+
+    static void apply(byte[] payload, DatabaseAccess database) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        try {
+            switch (type) {
+                case ADD_USER:
+                    applyAddUser(in.readLong(), readString(in), readString(in), database);
+                    break;
+                case UPDATE_USER:
+                    database.updateUser(readString(in), readString(in));
+                    break;
+                case DELETE_USER:
+                    database.deleteUser(readString(in));
+                    break;
+                case ADD_TASK:
+                    applyAddTask(in, database);
+                    break;
+                case ADD_TASKS:
+                    for (int count = in.readInt(); count > 0; count--) {
+                        try {
+                            applyAddTask(in, database);
+                        } catch (ElementNotFoundException e) {
+                            // Créateur supprimé depuis : seule cette tâche est ignorée
+                        }
+                    }
+                    break;
+                case UPDATE_TASK:
+                    database.updateTask(readString(in), readString(in), readString(in), in.readBoolean());
+                    break;
+                case UPDATE_DATED_TASK: {
+                    String id = readString(in);
+                    String title = readString(in);
+                    String description = readString(in);
+                    boolean done = in.readBoolean();
+                    database.updateDatedTask(id, title, description, done, toDate(in.readLong()));
+                    break;
+                }
+                case MARK_DONE:
+                    database.markTaskAsDone(readString(in));
+                    break;
+                case MARK_UNDONE:
+                    database.markTaskAsUndone(readString(in));
+                    break;
+                case DELETE_TASK:
+                    database.deleteTask(readString(in));
+                    break;
+                case DELETE_TASKS_OF_USER:
+                    database.deleteAllTasksByUser(database.findUserById(readString(in)));
+                    break;
+                default:
+                    throw new IOException("Type d'opération inconnu dans le journal : " + type);
+            }
+        } catch (ElementNotFoundException e) {
+            // Élément déjà supprimé : l'opération n'a plus d'effet
+        }
+    }
+
+    // Un utilisateur déjà présent est renommé et non remplacé : ses tâches gardent la même instance
+    private static void applyAddUser(long sequence, String id, String firstName, DatabaseAccess database) {
+        try {
+            database.findUserById(id);
+            database.updateUser(id, firstName);
+        } catch (ElementNotFoundException e) {
+            database.restoreUser(new User(id, firstName), sequence);
+        }
+    }
+
+    private static void applyAddTask(DataInputStream in, DatabaseAccess database) throws IOException, ElementNotFoundException {
+        long sequence = in.readLong();
+        String id = readString(in);
+        String title = readString(in);
+        String description = readString(in);
+        boolean done = in.readBoolean();
+        String createdById = readString(in);
+        LocalDate dueDate = toDate(in.readLong());
+        // Tous les champs sont lus avant la recherche : un lot reste aligné si le créateur n'existe plus
+        User createdBy = database.findUserById(createdById);
+        if (isPresent(id, database)) {
+            // Tâche déjà présente (chargée depuis un instantané) : mise à jour sur place pour garder son rang
+            if (dueDate != null) {
+                database.updateDatedTask(id, title, description, done, dueDate);
+            } else {
+                database.updateTask(id, title, description, done);
+            }
+        } else if (dueDate != null) {
+            database.restoreTask(new DatedTask(id, title, description, done, createdBy, dueDate), sequence);
+        } else {
+            database.restoreTask(new Task(id, title, description, done, createdBy), sequence);
+        }
+    }
+
+    private static boolean isPresent(String taskId, DatabaseAccess database) {
+        try {
+            database.findTaskById(taskId);
+            return true;
+        } catch (ElementNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static byte[] idOnly(byte type, String id) {
+        Encoder encoder = new Encoder(type);
+        encoder.writeString(id);
+        return encoder.toByteArray();
+    }
+
+    private static long dueDayOf(Task task) {
+        if (task instanceof DatedTask && ((DatedTask) task).getDueDate() != null) {
+            return ((DatedTask) task).getDueDate().toEpochDay();
+        }
+        return NO_DUE_DATE;
+    }
+
+    private static LocalDate toDate(long epochDay) {
+        return epochDay == NO_DUE_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    // Chaînes encodées en UTF-8 précédé de la longueur, -1 pour null
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Encoder() {
+        }
+
+        Encoder(byte type) {
+            writeByte(type);
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        void writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeBytes(Encoder other) {
+            try {
+                other.bytes.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeByte(byte value) {
+            try {
+                out.writeByte(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeBoolean(boolean value) {
+            writeByte(value ? (byte) 1 : (byte) 0);
+        }
+
+        void writeLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeString(String value) {
+            try {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(encoded.length);
+                    out.write(encoded);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.main.database;
+
+import com.main.model.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.Function;
+
+// Pagination par curseur (keyset) sur une map triée : une page coûte O(log n + taille de page),
+// quelle que soit sa position dans la liste.
+final class Pagination {
+    // Le curseur est opaque pour le client : tri, valeur de la clé et séquence du dernier élément rendu
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private Pagination() {
+    }
+
+    static int checkPageSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+        return Math.min(size, DatabaseAccess.MAX_PAGE_SIZE);
+    }
+
+    // Éléments strictement après la clé "after" dans l'ordre demandé, puis au plus "size" d'entre eux
+    static <K, T> Page<T> page(NavigableMap<K, T> map, K after, int size, boolean descending, Function<K, String> cursorOf) {
+        NavigableMap<K, T> view = map;
+        if (descending) {
+            view = after == null ? map.descendingMap() : map.headMap(after, false).descendingMap();
+        } else if (after != null) {
+            view = map.tailMap(after, false);
+        }
+
+        List<T> items = new ArrayList<>(Math.min(size, 64));
+        K last = null;
+        Iterator<Map.Entry<K, T>> entries = view.entrySet().iterator();
+        while (entries.hasNext() && items.size() < size) {
+            Map.Entry<K, T> entry = entries.next();
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page<>(items, entries.hasNext() ? cursorOf.apply(last) : null);
+    }
+
+    static String encodeCursor(String sort, String value, long sequence) {
+        String raw = sort + '\n' + value + '\n' + sequence;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Renvoie {valeur, séquence} ; un curseur produit pour un autre tri est refusé
+    static String[] decodeCursor(String sort, String cursor) {
+        String raw;
+        try {
+            raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+        int first = raw.indexOf('\n');
+        int last = raw.lastIndexOf('\n');
+        if (first < 0 || first == last || !raw.substring(0, first).equals(sort)) {
+            throw new IllegalArgumentException("Curseur de pagination invalide pour ce tri");
+        }
+        return new String[] {raw.substring(first + 1, last), raw.substring(last + 1)};
+    }
+
+    static long decodeSequence(String sequence) {
+        try {
+            return Long.parseLong(sequence);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+}
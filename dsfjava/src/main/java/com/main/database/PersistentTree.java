@@ -0,0 +1,231 @@
+package com.main.database;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Arbre AVL immuable trié par clé : chaque modification renvoie un nouvel arbre qui partage avec l'ancien
+// tous les nœuds hors du chemin modifié (O(log n) nœuds recopiés). Un arbre déjà obtenu ne change jamais,
+// il peut être lu par plusieurs threads sans verrou. Chaque nœud connaît la taille de son sous-arbre,
+// ce qui donne l'accès par position en O(log n).
+final class PersistentTree<K extends Comparable<? super K>, V> {
+    private static final PersistentTree<?, ?> EMPTY = new PersistentTree<>(null);
+
+    private final Node<K, V> root;
+
+    private PersistentTree(Node<K, V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentTree<K, V> empty() {
+        return (PersistentTree<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.value;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    // Ajoute ou remplace la valeur de la clé
+    PersistentTree<K, V> put(K key, V value) {
+        return new PersistentTree<>(put(root, key, value));
+    }
+
+    PersistentTree<K, V> remove(K key) {
+        Node<K, V> newRoot = remove(root, key);
+        return newRoot == root ? this : new PersistentTree<>(newRoot);
+    }
+
+    // Valeurs dans l'ordre des clés, sans copie
+    List<V> values() {
+        return new Elements<>(root, false);
+    }
+
+    List<K> keys() {
+        return new Elements<>(root, true);
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return new Node<>(key, value, node.left, node.right);
+        }
+        if (comparison < 0) {
+            return balance(node.key, node.value, put(node.left, key, value), node.right);
+        }
+        return balance(node.key, node.value, node.left, put(node.right, key, value));
+    }
+
+    // Renvoie le même nœud si la clé est absente
+    private static <K extends Comparable<? super K>, V> Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = key.compareTo(node.key);
+        if (comparison < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (comparison > 0) {
+            Node<K, V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        // Le successeur remplace le nœud retiré
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, remove(node.right, successor.key));
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int difference = height(left) - height(right);
+        if (difference > 1) {
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left.key, left.value, left.left, left.right);
+            }
+            return rotateRight(key, value, left, right);
+        }
+        if (difference < -1) {
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right.key, right.value, right.left, right.right);
+            }
+            return rotateLeft(key, value, left, right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> rotateRight(K key, V value, Node<K, V> left, Node<K, V> right) {
+        return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> rotateLeft(K key, V value, Node<K, V> left, Node<K, V> right) {
+        return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final int size;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    // Liste en lecture seule des clés ou des valeurs d'un arbre figé : get(i) en O(log n), parcours complet en O(n)
+    private static final class Elements<E> extends AbstractList<E> {
+        private final Node<?, ?> root;
+        private final boolean keys;
+
+        private Elements(Node<?, ?> root, boolean keys) {
+            this.root = root;
+            this.keys = keys;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E element(Node<?, ?> node) {
+            return (E) (keys ? node.key : node.value);
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= PersistentTree.size(root)) {
+                throw new IndexOutOfBoundsException("Index " + index + " hors de la liste de taille " + PersistentTree.size(root));
+            }
+            Node<?, ?> node = root;
+            while (true) {
+                int leftSize = PersistentTree.size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index > leftSize) {
+                    index -= leftSize + 1;
+                    node = node.right;
+                } else {
+                    return element(node);
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return PersistentTree.size(root);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private final Deque<Node<?, ?>> path = new ArrayDeque<>();
+
+                {
+                    pushLeft(root);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !path.isEmpty();
+                }
+
+                @Override
+                public E next() {
+                    if (path.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node<?, ?> node = path.pop();
+                    pushLeft(node.right);
+                    return element(node);
+                }
+
+                private void pushLeft(Node<?, ?> node) {
+                    for (; node != null; node = node.left) {
+                        path.push(node);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package com.main.database;
+
+import com.main.model.Task;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Index inversé des titres et descriptions : chaque mot (en minuscules, sans accents) renvoie à la liste
+// triée des séquences des tâches qui le contiennent. Une recherche intersecte les listes de ses mots
+// (un mot de la requête désigne aussi tous les mots qui commencent par lui) puis garde les k meilleurs
+// résultats, sans parcourir les tâches.
+// Les écritures sont faites par DatabaseAccess sous le verrou du créateur, en retirant la tâche avant
+// de modifier son titre ou sa description puis en la réindexant ; les lectures ne prennent aucun verrou.
+final class SearchIndex {
+    // Un mot plus court ne désigne que lui-même : "a" ou "d" couvriraient presque tout l'index
+    static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final int MAX_QUERY_TERMS = 8;
+    // Poids des champs, stockés dans les deux bits de poids faible de chaque entrée : 0 marque une entrée retirée
+    private static final int DESCRIPTION = 1;
+    private static final int TITLE = 2;
+    // Un mot trouvé par préfixe compte moins qu'un mot exact
+    private static final float PREFIX_FACTOR = 0.6f;
+    // Précision des scores combinés à la séquence pour trier les correspondances d'un préfixe
+    private static final int SCORE_BITS = 20;
+    private static final float SCORE_SCALE = 1000;
+
+    // Mots trop fréquents pour distinguer une tâche d'une autre, ignorés à l'indexation comme à la recherche
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "elle", "en", "et", "il", "je", "la",
+            "le", "les", "leur", "ma", "mes", "mon", "ne", "nous", "on", "ou", "par", "pas", "pour", "qu", "que",
+            "qui", "sa", "se", "ses", "son", "sur", "ta", "te", "tes", "ton", "tu", "un", "une", "vos", "votre",
+            "vous"));
+
+    // Équivalent sans accent de chaque caractère latin accentué (U+00C0 à U+024F), calculé une fois
+    private static final String[] FOLDED = new String[0x250];
+
+    static {
+        for (char c = 0xC0; c < FOLDED.length; c++) {
+            String folded = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).replaceAll("\\p{M}+", "")
+                    .toLowerCase(Locale.ROOT);
+            FOLDED[c] = folded;
+        }
+        FOLDED['œ'] = "oe";
+        FOLDED['Œ'] = "oe";
+        FOLDED['æ'] = "ae";
+        FOLDED['Æ'] = "ae";
+        FOLDED['ß'] = "ss";
+    }
+
+    // Dictionnaire trié pour les recherches par préfixe, doublé d'une table pour l'accès direct à un mot
+    private final ConcurrentNavigableMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Postings> termsByName = new ConcurrentHashMap<>();
+
+    void add(long sequence, Task task) {
+        for (Map.Entry<String, Integer> term : termsOf(task).entrySet()) {
+            Postings postings = termsByName.get(term.getKey());
+            if (postings == null) {
+                postings = termsByName.computeIfAbsent(term.getKey(), key -> new Postings());
+                terms.putIfAbsent(term.getKey(), postings);
+            }
+            postings.add(sequence, term.getValue());
+        }
+    }
+
+    // Les mots devenus sans tâche restent dans le dictionnaire, vides : leur nombre est borné par le vocabulaire
+    void remove(long sequence, Task task) {
+        for (String term : termsOf(task).keySet()) {
+            Postings postings = termsByName.get(term);
+            if (postings != null) {
+                postings.remove(sequence);
+            }
+        }
+    }
+
+    // Séquences des meilleures tâches, par score décroissant puis de la plus récente à la plus ancienne.
+    // totalCount sert au calcul de la rareté des mots ; matches[0] reçoit le nombre total de correspondances.
+    long[] search(String query, int limit, int totalCount, int[] matches) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+        matches[0] = 0;
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+        List<Matches> perTerm = new ArrayList<>(queryTerms.size());
+        for (String term : new HashSet<>(queryTerms)) {
+            Matches found = match(term, totalCount);
+            if (found.size == 0) {
+                return new long[0];
+            }
+            perTerm.add(found);
+        }
+        // Les listes les plus courtes d'abord : chaque intersection ne peut que réduire le résultat
+        perTerm.sort((a, b) -> Integer.compare(a.size, b.size));
+        Matches result = perTerm.get(0);
+        for (int i = 1; i < perTerm.size() && result.size > 0; i++) {
+            result = result.intersect(perTerm.get(i));
+        }
+        matches[0] = result.size;
+        return result.top(limit);
+    }
+
+    // Mots d'une tâche avec les champs où ils apparaissent
+    private static Map<String, Integer> termsOf(Task task) {
+        Map<String, Integer> result = new HashMap<>();
+        for (String term : tokenize(task.getTitle())) {
+            result.merge(term, TITLE, (a, b) -> a | b);
+        }
+        for (String term : tokenize(task.getDescription())) {
+            result.merge(term, DESCRIPTION, (a, b) -> a | b);
+        }
+        return result;
+    }
+
+    // Découpe sur tout ce qui n'est ni lettre ni chiffre, en minuscules sans accents, en une passe.
+    // Les lettres isolées (l', d', j'...) et les mots vides sont ignorés.
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder(MAX_TOKEN_LENGTH);
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    token.append((char) (c + ('a' - 'A')));
+                } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    token.append(c);
+                } else {
+                    endToken(token, tokens);
+                }
+            } else if (c < FOLDED.length && FOLDED[c] != null) {
+                token.append(FOLDED[c]);
+            } else if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                endToken(token, tokens);
+            }
+        }
+        return tokens;
+    }
+
+    private static void endToken(StringBuilder token, List<String> tokens) {
+        int length = Math.min(token.length(), MAX_TOKEN_LENGTH);
+        if (length > 1 || (length == 1 && Character.isDigit(token.charAt(0)))) {
+            String value = token.substring(0, length);
+            if (!STOP_WORDS.contains(value)) {
+                tokens.add(value);
+            }
+        }
+        token.setLength(0);
+    }
+
+    // Tâches contenant le mot ou, pour un mot assez long, un mot qui commence par lui
+    private Matches match(String term, int totalCount) {
+        NavigableMap<String, Postings> candidates = term.length() >= MIN_PREFIX_LENGTH
+                ? terms.subMap(term, true, term + Character.MAX_VALUE, false)
+                : exact(term);
+        if (candidates.size() == 1) {
+            Map.Entry<String, Postings> only = candidates.firstEntry();
+            return only.getValue().matches(weight(only.getKey(), term, only.getValue(), totalCount));
+        }
+        // Plusieurs mots : les entrées sont combinées à leur score, triées, puis fusionnées par tâche
+        // en gardant le meilleur score
+        long[] combined = new long[16];
+        int count = 0;
+        for (Map.Entry<String, Postings> candidate : candidates.entrySet()) {
+            Postings postings = candidate.getValue();
+            float weight = weight(candidate.getKey(), term, postings, totalCount);
+            int size = postings.size;
+            AtomicLongArray entries = postings.entries;
+            size = Math.min(size, entries.length());
+            if (count + size > combined.length) {
+                combined = Arrays.copyOf(combined, Math.max(combined.length * 2, count + size));
+            }
+            for (int i = 0; i < size; i++) {
+                long entry = entries.get(i);
+                int fields = (int) (entry & 3);
+                if (fields != 0) {
+                    int score = Math.min((int) (weight * fields * SCORE_SCALE), (1 << SCORE_BITS) - 1);
+                    combined[count++] = (entry >>> 2) << SCORE_BITS | score;
+                }
+            }
+        }
+        Arrays.sort(combined, 0, count);
+        Matches result = new Matches(count);
+        for (int i = 0; i < count; i++) {
+            long sequence = combined[i] >>> SCORE_BITS;
+            float score = (combined[i] & ((1 << SCORE_BITS) - 1)) / SCORE_SCALE;
+            if (result.size > 0 && result.sequences[result.size - 1] == sequence) {
+                result.scores[result.size - 1] = Math.max(result.scores[result.size - 1], score);
+            } else {
+                result.sequences[result.size] = sequence;
+                result.scores[result.size++] = score;
+            }
+        }
+        return result;
+    }
+
+    private NavigableMap<String, Postings> exact(String term) {
+        Postings postings = termsByName.get(term);
+        NavigableMap<String, Postings> result = new ConcurrentSkipListMap<>();
+        if (postings != null) {
+            result.put(term, postings);
+        }
+        return result;
+    }
+
+    // Rareté du mot dans l'ensemble des tâches (idf), réduite s'il n'est trouvé que par préfixe
+    private static float weight(String indexed, String term, Postings postings, int totalCount) {
+        float rarity = (float) Math.log(1 + (double) Math.max(totalCount, 1) / Math.max(postings.liveCount(), 1));
+        return indexed.equals(term) ? rarity : rarity * PREFIX_FACTOR;
+    }
+
+    // Séquences triées des tâches contenant un mot. Un seul écrivain à la fois (synchronized) ; les lecteurs
+    // lisent la taille puis le tableau et ignorent les entrées retirées ou pas encore publiées (valeur 0).
+    private static final class Postings {
+        private volatile AtomicLongArray entries = new AtomicLongArray(4);
+        private volatile int size;
+        private volatile int removed;
+
+        synchronized void add(long sequence, int fields) {
+            long entry = sequence << 2 | fields;
+            int count = size;
+            AtomicLongArray current = entries;
+            if (count == 0 || current.get(count - 1) >>> 2 < sequence) {
+                // Cas courant : les nouvelles tâches ont les plus grandes séquences
+                if (count == current.length()) {
+                    current = copy(current, count, count * 2);
+                    entries = current;
+                }
+                current.set(count, entry);
+                size = count + 1;
+                return;
+            }
+            int position = find(current, count, sequence);
+            if (position >= 0) {
+                if ((current.get(position) & 3) == 0) {
+                    removed--;
+                }
+                current.set(position, entry);
+                return;
+            }
+            // Séquence plus ancienne (rechargement, écritures concurrentes) : insertion dans une copie
+            int insertion = -position - 1;
+            AtomicLongArray larger = new AtomicLongArray(Math.max(current.length(), count + 1));
+            for (int i = 0; i < insertion; i++) {
+                larger.set(i, current.get(i));
+            }
+            larger.set(insertion, entry);
+            for (int i = insertion; i < count; i++) {
+                larger.set(i + 1, current.get(i));
+            }
+            entries = larger;
+            size = count + 1;
+        }
+
+        synchronized void remove(long sequence) {
+            int count = size;
+            AtomicLongArray current = entries;
+            int position = find(current, count, sequence);
+            if (position < 0 || (current.get(position) & 3) == 0) {
+                return;
+            }
+            current.set(position, sequence << 2);
+            removed++;
+            if (removed > 16 && removed * 2 > count) {
+                compact(current, count);
+            }
+        }
+
+        int liveCount() {
+            return size - removed;
+        }
+
+        Matches matches(float weight) {
+            int count = size;
+            AtomicLongArray current = entries;
+            count = Math.min(count, current.length());
+            Matches result = new Matches(count);
+            for (int i = 0; i < count; i++) {
+                long entry = current.get(i);
+                int fields = (int) (entry & 3);
+                if (fields != 0) {
+                    result.sequences[result.size] = entry >>> 2;
+                    result.scores[result.size++] = weight * fields;
+                }
+            }
+            return result;
+        }
+
+        private void compact(AtomicLongArray current, int count) {
+            AtomicLongArray compacted = new AtomicLongArray(Math.max(4, count - removed));
+            int live = 0;
+            for (int i = 0; i < count; i++) {
+                long entry = current.get(i);
+                if ((entry & 3) != 0) {
+                    compacted.set(live++, entry);
+                }
+            }
+            entries = compacted;
+            size = live;
+            removed = 0;
+        }
+
+        private static AtomicLongArray copy(AtomicLongArray source, int count, int capacity) {
+            AtomicLongArray copy = new AtomicLongArray(capacity);
+            for (int i = 0; i < count; i++) {
+                copy.set(i, source.get(i));
+            }
+            return copy;
+        }
+
+        // Recherche dichotomique sur la séquence ; -(point d'insertion) - 1 si absente
+        private static int find(AtomicLongArray entries, int count, long sequence) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long value = entries.get(middle) >>> 2;
+                if (value < sequence) {
+                    low = middle + 1;
+                } else if (value > sequence) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    // Correspondances d'un mot de la requête : séquences croissantes et score de chacune
+    private static final class Matches {
+        private final long[] sequences;
+        private final float[] scores;
+        private int size;
+
+        Matches(int capacity) {
+            this.sequences = new long[capacity];
+            this.scores = new float[capacity];
+        }
+
+        // Tâches présentes dans les deux listes, scores additionnés ; recherche dichotomique dans la liste
+        // la plus longue quand elle l'est beaucoup plus
+        Matches intersect(Matches other) {
+            Matches result = new Matches(Math.min(size, other.size));
+            boolean gallop = other.size > size * 16;
+            int j = 0;
+            for (int i = 0; i < size && j < other.size; i++) {
+                long sequence = sequences[i];
+                if (gallop) {
+                    int found = Arrays.binarySearch(other.sequences, j, other.size, sequence);
+                    j = found >= 0 ? found : -found - 1;
+                } else {
+                    while (j < other.size && other.sequences[j] < sequence) {
+                        j++;
+                    }
+                }
+                if (j < other.size && other.sequences[j] == sequence) {
+                    result.sequences[result.size] = sequence;
+                    result.scores[result.size++] = scores[i] + other.scores[j];
+                }
+            }
+            return result;
+        }
+
+        // Les limit meilleurs, par tas minimal : le plus faible des meilleurs est à la racine
+        long[] top(int limit) {
+            int k = Math.min(limit, size);
+            int[] heap = new int[k];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < k) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (better(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+            long[] result = new long[heapSize];
+            for (int n = heapSize - 1; n >= 0; n--) {
+                result[n] = sequences[heap[0]];
+                heap[0] = heap[n];
+                siftDown(heap, n);
+            }
+            return result;
+        }
+
+        // Score plus élevé, puis tâche plus récente
+        private boolean better(int a, int b) {
+            return scores[a] != scores[b] ? scores[a] > scores[b] : sequences[a] > sequences[b];
+        }
+
+        private void siftUp(int[] heap, int position) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!better(heap[parent], heap[position])) {
+                    break;
+                }
+                swap(heap, parent, position);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && better(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!better(heap[position], heap[child])) {
+                    break;
+                }
+                swap(heap, position, child);
+                position = child;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int value = heap[a];
+            heap[a] = heap[b];
+            heap[b] = value;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.main.database;
+
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Instantané binaire de l'état de DatabaseAccess.
+// Format : [magic][version][premier segment du journal à rejouer] puis des enregistrements
+// utilisateur ('U') et tâche ('T') terminés par 'E' et le CRC32 de tout ce qui précède.
+// Chaque enregistrement conserve le numéro de séquence (ordre d'insertion) de l'élément ;
+// les tâches désignent leur créateur par son rang dans l'instantané plutôt que par son ID.
+final class SnapshotFile {
+    private static final int MAGIC = 0x5444534E;
+    private static final int VERSION = 1;
+    private static final byte USER = 'U';
+    private static final byte TASK = 'T';
+    private static final byte END = 'E';
+    private static final int DONE = 1;
+    private static final int DATED = 2;
+
+    private SnapshotFile() {
+    }
+
+    // Écrit l'instantané dans un fichier temporaire puis le renomme : un instantané est complet ou absent.
+    // La vue est prise juste après le basculement du journal : toute écriture journalisée dans les segments
+    // précédents y est déjà publiée, et les suivantes figurent dans les segments à partir de firstSegment,
+    // rejoués par-dessus. L'ensemble des utilisateurs et des tâches est celui de la vue, sans tâche orpheline ;
+    // les champs modifiés sur place (titre, état, prénom) peuvent déjà refléter une écriture rejouée ensuite.
+    static void write(Path file, long firstSegment, DatabaseView view) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(stream, 256 * 1024), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(firstSegment);
+
+            Map<String, Integer> ordinals = new HashMap<>();
+            Iterator<Long> userSequences = view.getUserSequences().iterator();
+            for (User user : view.getUsers()) {
+                writeUser(out, userSequences.next(), user, ordinals);
+            }
+            Iterator<Long> taskSequences = view.getTaskSequences().iterator();
+            for (Task task : view.getTasks()) {
+                long sequence = taskSequences.next();
+                Integer ordinal = ordinals.get(task.getCreatedBy().getId());
+                if (ordinal == null) {
+                    throw new IllegalStateException("Tâche " + task.getId() + " sans créateur dans la vue");
+                }
+                LocalDate dueDate = task instanceof DatedTask ? ((DatedTask) task).getDueDate() : null;
+                out.writeByte(TASK);
+                writeVarLong(out, sequence);
+                writeString(out, task.getId());
+                writeString(out, task.getTitle());
+                writeString(out, task.getDescription());
+                out.writeByte((task.isDone() ? DONE : 0) | (task instanceof DatedTask ? DATED : 0));
+                writeVarInt(out, ordinal);
+                if (task instanceof DatedTask) {
+                    out.writeLong(dueDate == null ? Long.MIN_VALUE : dueDate.toEpochDay());
+                }
+            }
+            out.writeByte(END);
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            stream.getFD().sync();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Charge l'instantané projeté en mémoire et renvoie le premier segment du journal à rejouer
+    static long load(Path file, DatabaseAccess database) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Instantané trop volumineux pour être projeté en mémoire : " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < 17) {
+                throw new IOException("Instantané tronqué : " + file);
+            }
+
+            ByteBuffer content = buffer.duplicate();
+            content.limit((int) size - 4);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IOException("Instantané corrompu (CRC invalide) : " + file);
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Format d'instantané inconnu : " + file);
+            }
+            long firstSegment = buffer.getLong();
+
+            Reader reader = new Reader(buffer);
+            List<User> users = new ArrayList<>();
+            while (true) {
+                byte type = buffer.get();
+                if (type == USER) {
+                    long sequence = reader.readVarLong();
+                    User user = new User(reader.readString(), reader.readString());
+                    users.add(user);
+                    database.restoreUser(user, sequence);
+                } else if (type == TASK) {
+                    long sequence = reader.readVarLong();
+                    String id = reader.readString();
+                    String title = reader.readString();
+                    String description = reader.readString();
+                    int flags = buffer.get();
+                    User createdBy = users.get(reader.readVarInt());
+                    boolean done = (flags & DONE) != 0;
+                    if ((flags & DATED) != 0) {
+                        long dueDay = buffer.getLong();
+                        LocalDate dueDate = dueDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(dueDay);
+                        database.restoreTask(new DatedTask(id, title, description, done, createdBy, dueDate), sequence);
+                    } else {
+                        database.restoreTask(new Task(id, title, description, done, createdBy), sequence);
+                    }
+                } else if (type == END) {
+                    return firstSegment;
+                } else {
+                    throw new IOException("Enregistrement inconnu dans l'instantané : " + type);
+                }
+            }
+        }
+    }
+
+    private static int writeUser(DataOutputStream out, long sequence, User user, Map<String, Integer> ordinals) throws IOException {
+        int ordinal = ordinals.size();
+        ordinals.put(user.getId(), ordinal);
+        out.writeByte(USER);
+        writeVarLong(out, sequence);
+        writeString(out, user.getId());
+        writeString(out, user.getFirstName());
+        return ordinal;
+    }
+
+    // Longueur + 1 en entier variable (0 pour null) suivie des octets UTF-8
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    // 7 bits par octet, bit de poids fort à 1 tant que la valeur continue
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = buffer.get();
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+
+        String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
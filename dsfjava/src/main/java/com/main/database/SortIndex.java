@@ -0,0 +1,85 @@
+package com.main.database;
+
+import com.main.model.Page;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Index trié par (clé de tri, séquence) pour la pagination par curseur. La séquence départage
+// les clés égales : chaque élément a une position unique et stable dans l'ordre.
+// Les écritures sont faites par DatabaseAccess sous le verrou de l'élément, en retirant l'élément
+// avant de modifier un champ de la clé puis en le réinsérant.
+final class SortIndex<T> {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final String name;
+    private final Function<T, String> keyOf;
+    private final ConcurrentNavigableMap<Key, T> entries = new ConcurrentSkipListMap<>();
+
+    SortIndex(String name, Function<T, String> keyOf) {
+        this.name = name;
+        this.keyOf = keyOf;
+    }
+
+    void add(long sequence, T item) {
+        entries.put(new Key(keyOf.apply(item), sequence), item);
+    }
+
+    void remove(long sequence, T item) {
+        entries.remove(new Key(keyOf.apply(item), sequence));
+    }
+
+    Page<T> page(String cursor, int size, boolean descending) {
+        Key after = null;
+        if (cursor != null) {
+            String[] decoded = Pagination.decodeCursor(name, cursor);
+            after = new Key(decoded[0], Pagination.decodeSequence(decoded[1]));
+        }
+        return Pagination.page(entries, after, size, descending,
+                key -> Pagination.encodeCursor(name, key.value, key.sequence));
+    }
+
+    // Clé de tri textuelle : minuscules sans accents, pour que "Élodie" se range avec "elodie"
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+            }
+        }
+        return lower;
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final String value;
+        private final long sequence;
+
+        Key(String value, long sequence) {
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int result = value.compareTo(other.value);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && compareTo((Key) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode() * 31 + Long.hashCode(sequence);
+        }
+    }
+}
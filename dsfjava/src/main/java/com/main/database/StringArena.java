@@ -0,0 +1,173 @@
+package com.main.database;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Chaînes stockées une seule fois chacune, en UTF-8, à la suite dans des pages d'octets partagées :
+// pas d'objet String ni de tableau par chaîne, seulement une adresse int (page << PAGE_BITS | position).
+// Chaque chaîne est précédée de sa longueur en octets (entier variable, 1 octet jusqu'à 127).
+// L'arène ne libère rien : les chaînes qui ne sont plus référencées restent jusqu'à une reconstruction.
+// Non synchronisée : l'appelant sérialise les accès.
+final class StringArena {
+    static final int NULL_ADDRESS = -1;
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int MAX_PAGES = 1 << (31 - PAGE_BITS);
+    private static final int EMPTY = -1;
+
+    private final List<byte[]> pages = new ArrayList<>();
+    private byte[] current;
+    private int position;
+    private long usedBytes;
+    // Table de hachage à adressage ouvert des adresses, pour retrouver une chaîne déjà stockée
+    private int[] table = emptyTable(1024);
+    private int count;
+
+    int intern(String value) {
+        if (value == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int address = table[slot];
+            if (address == EMPTY) {
+                address = append(bytes);
+                table[slot] = address;
+                if (++count * 2 > table.length) {
+                    rehash();
+                }
+                return address;
+            }
+            if (matches(address, bytes)) {
+                return address;
+            }
+        }
+    }
+
+    String get(int address) {
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] page = pages.get(address >>> PAGE_BITS);
+        int offset = address & (PAGE_SIZE - 1);
+        int length = lengthAt(page, offset);
+        offset += varIntLength(length);
+        return new String(page, offset, length, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return count;
+    }
+
+    // Octets des pages allouées, chaînes et longueurs comprises
+    long allocatedBytes() {
+        long total = 0;
+        for (byte[] page : pages) {
+            total += page.length;
+        }
+        return total + 4L * table.length;
+    }
+
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    private int append(byte[] bytes) {
+        int needed = varIntLength(bytes.length) + bytes.length;
+        if (current == null || position + needed > current.length) {
+            if (pages.size() >= MAX_PAGES) {
+                throw new IllegalStateException("Arène de chaînes pleine (" + usedBytes + " octets)");
+            }
+            // Une chaîne plus longue qu'une page occupe une page à sa taille
+            current = new byte[Math.max(PAGE_SIZE, needed)];
+            position = 0;
+            pages.add(current);
+        }
+        int address = (pages.size() - 1) << PAGE_BITS | position;
+        int length = bytes.length;
+        while (length > 0x7F) {
+            current[position++] = (byte) (length & 0x7F | 0x80);
+            length >>>= 7;
+        }
+        current[position++] = (byte) length;
+        System.arraycopy(bytes, 0, current, position, bytes.length);
+        position += bytes.length;
+        usedBytes += needed;
+        return address;
+    }
+
+    private boolean matches(int address, byte[] bytes) {
+        byte[] page = pages.get(address >>> PAGE_BITS);
+        int offset = address & (PAGE_SIZE - 1);
+        int length = lengthAt(page, offset);
+        offset += varIntLength(length);
+        if (length != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (page[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] old = table;
+        table = emptyTable(old.length * 2);
+        int mask = table.length - 1;
+        for (int address : old) {
+            if (address == EMPTY) {
+                continue;
+            }
+            byte[] page = pages.get(address >>> PAGE_BITS);
+            int offset = address & (PAGE_SIZE - 1);
+            int length = lengthAt(page, offset);
+            offset += varIntLength(length);
+            int slot = hash(page, offset, offset + length) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = address;
+        }
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 0x811C9DC5;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ bytes[i]) * 0x01000193;
+        }
+        // Mélange final : les bits de poids faible servent d'indice dans la table
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int lengthAt(byte[] page, int offset) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = page[offset++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while (value > 0x7F) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static int[] emptyTable(int size) {
+        int[] table = new int[size];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,18 @@
+package com.main.exception;
+
+public class HttpParseException extends Exception {
+    private final int statusCode;
+
+    public HttpParseException(String message) {
+        this(400, message);
+    }
+
+    public HttpParseException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
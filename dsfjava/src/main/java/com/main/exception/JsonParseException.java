@@ -0,0 +1,15 @@
+package com.main.exception;
+
+public class JsonParseException extends Exception {
+    private final int position;
+
+    public JsonParseException(String message, int position) {
+        super(message + " (position " + position + ")");
+        this.position = position;
+    }
+
+    // Décalage en octets depuis le début du document
+    public int getPosition() {
+        return position;
+    }
+}
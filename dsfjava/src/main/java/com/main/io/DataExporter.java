@@ -0,0 +1,142 @@
+package com.main.io;
+
+import com.main.json.JsonWriter;
+import com.main.model.DatedTask;
+import com.main.model.Task;
+import com.main.model.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Export des utilisateurs et des tâches en NDJSON ou CSV, ligne par ligne au fil du parcours :
+// aucune copie de la collection, la mémoire utilisée ne dépend pas du nombre de lignes.
+// Les colonnes des tâches sont celles de TaskImportReader, précédées de l'identifiant,
+// si bien qu'un export peut être réimporté tel quel.
+public final class DataExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TASK_HEADER = "id,title,description,userId,dueDate,done\n";
+    private static final String USER_HEADER = "id,firstName\n";
+
+    private DataExporter() {
+    }
+
+    // Renvoie le nombre de tâches écrites ; le flux est vidé mais pas fermé
+    public static long exportTasks(Iterable<Task> tasks, DataFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        if (format == DataFormat.CSV) {
+            Writer writer = csvWriter(out);
+            writer.write(TASK_HEADER);
+            for (Task task : tasks) {
+                writeCsvField(writer, task.getId());
+                writer.write(',');
+                writeCsvField(writer, task.getTitle());
+                writer.write(',');
+                writeCsvField(writer, task.getDescription());
+                writer.write(',');
+                writeCsvField(writer, task.getCreatedBy().getId());
+                writer.write(',');
+                LocalDate dueDate = dueDateOf(task);
+                if (dueDate != null) {
+                    writer.write(dueDate.toString());
+                }
+                writer.write(task.isDone() ? ",true\n" : ",false\n");
+                count++;
+            }
+            writer.flush();
+        } else {
+            JsonWriter json = new JsonWriter(out);
+            for (Task task : tasks) {
+                json.beginObject();
+                json.name("id").value(task.getId());
+                json.name("title").value(task.getTitle());
+                json.name("description").value(task.getDescription());
+                json.name("userId").value(task.getCreatedBy().getId());
+                LocalDate dueDate = dueDateOf(task);
+                if (dueDate != null) {
+                    json.name("dueDate").value(dueDate.toString());
+                }
+                json.name("done").value(task.isDone());
+                json.endObject();
+                count++;
+            }
+            finishNdjson(json, out, count);
+        }
+        return count;
+    }
+
+    // Renvoie le nombre d'utilisateurs écrits ; le flux est vidé mais pas fermé
+    public static long exportUsers(Iterable<User> users, DataFormat format, OutputStream out) throws IOException {
+        long count = 0;
+        if (format == DataFormat.CSV) {
+            Writer writer = csvWriter(out);
+            writer.write(USER_HEADER);
+            for (User user : users) {
+                writeCsvField(writer, user.getId());
+                writer.write(',');
+                writeCsvField(writer, user.getFirstName());
+                writer.write('\n');
+                count++;
+            }
+            writer.flush();
+        } else {
+            JsonWriter json = new JsonWriter(out);
+            for (User user : users) {
+                json.beginObject();
+                json.name("id").value(user.getId());
+                json.name("firstName").value(user.getFirstName());
+                json.endObject();
+                count++;
+            }
+            finishNdjson(json, out, count);
+        }
+        return count;
+    }
+
+    // JsonWriter sépare les objets par un saut de ligne : le dernier est terminé de la même façon
+    private static void finishNdjson(JsonWriter json, OutputStream out, long count) throws IOException {
+        json.flush();
+        if (count > 0) {
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private static Writer csvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static LocalDate dueDateOf(Task task) {
+        return task instanceof DatedTask ? ((DatedTask) task).getDueDate() : null;
+    }
+
+    // Champ entre guillemets seulement s'il contient un séparateur, un guillemet ou un saut de ligne (RFC 4180)
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        int quoteIndex;
+        while ((quoteIndex = value.indexOf('"', start)) >= 0) {
+            writer.write(value, start, quoteIndex + 1 - start);
+            writer.write('"');
+            start = quoteIndex + 1;
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+}
@@ -0,0 +1,40 @@
+package com.main.io;
+
+import java.util.Locale;
+
+// Formats d'échange ligne par ligne : NDJSON (un objet JSON par ligne) ou CSV avec en-tête
+public enum DataFormat {
+    NDJSON("application/x-ndjson", ".ndjson"),
+    CSV("text/csv; charset=UTF-8", ".csv");
+
+    private final String contentType;
+    private final String extension;
+
+    DataFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // Format demandé par le paramètre format=ndjson|csv, ou à défaut déduit du Content-Type
+    public static DataFormat detect(String parameter, String contentType) {
+        if (parameter != null) {
+            try {
+                return valueOf(parameter.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Format inconnu : " + parameter);
+            }
+        }
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,301 @@
+package com.main.io;
+
+import com.main.exception.JsonParseException;
+import com.main.json.JsonReader;
+import com.main.model.TaskImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Lecture d'un fichier de tâches à importer, en NDJSON (un objet JSON par ligne) ou en CSV
+// (ligne d'en-tête puis une tâche par ligne, guillemets selon la RFC 4180).
+// Champs reconnus : title, description, userId, dueDate (AAAA-MM-JJ), done.
+// Une ligne illisible n'interrompt pas la lecture : elle est renvoyée avec son erreur.
+// Le flux est lu au fil de l'eau et les lignes sont transmises par lots bornés : la mémoire utilisée
+// ne dépend pas de la taille du fichier.
+public final class TaskImportReader {
+    private static final String[] COLUMNS = {"title", "description", "userId", "dueDate", "done"};
+    private static final int TITLE = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int USER_ID = 2;
+    private static final int DUE_DATE = 3;
+    private static final int DONE = 4;
+
+    // Reçoit les lignes dans l'ordre du fichier, par lots d'au plus batchSize lignes
+    public interface RowHandler {
+        void handle(List<TaskImportRow> rows);
+    }
+
+    private TaskImportReader() {
+    }
+
+    public static void read(InputStream in, DataFormat format, int batchSize, RowHandler handler) throws IOException {
+        Batch rows = new Batch(batchSize, handler);
+        if (format == DataFormat.CSV) {
+            readCsv(in, rows);
+        } else {
+            readNdjson(in, rows);
+        }
+        rows.flush();
+    }
+
+    private static void readNdjson(InputStream in, Batch rows) throws IOException {
+        LineReader lines = new LineReader(in);
+        int lineNumber = 0;
+        int length;
+        while ((length = lines.next()) >= 0) {
+            lineNumber++;
+            if (isBlank(lines.line, length)) {
+                continue;
+            }
+            try {
+                rows.add(parseJsonRow(lineNumber, new JsonReader(lines.line, 0, length)));
+            } catch (JsonParseException e) {
+                rows.add(TaskImportRow.invalid(lineNumber, "JSON invalide : " + e.getMessage()));
+            }
+        }
+    }
+
+    private static TaskImportRow parseJsonRow(int lineNumber, JsonReader reader) throws JsonParseException {
+        String[] values = new String[COLUMNS.length];
+        boolean done = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals(COLUMNS[DONE])) {
+                done = reader.nextBoolean();
+                continue;
+            }
+            int column = columnOf(name);
+            if (column < 0) {
+                reader.skipValue();
+            } else if (reader.peek() == JsonReader.Token.NULL) {
+                reader.nextNull();
+            } else {
+                values[column] = reader.nextString();
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+        return new TaskImportRow(lineNumber, values[TITLE], values[DESCRIPTION], values[USER_ID], values[DUE_DATE], done);
+    }
+
+    private static void readCsv(InputStream in, Batch rows) throws IOException {
+        CsvParser csv = new CsvParser(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024));
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        int[] positions = mapColumns(header);
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            int lineNumber = csv.recordLine;
+            if (csv.error != null) {
+                rows.add(TaskImportRow.invalid(lineNumber, csv.error));
+                continue;
+            }
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            String[] values = new String[COLUMNS.length];
+            for (int column = 0; column < COLUMNS.length; column++) {
+                int position = positions[column];
+                values[column] = position >= 0 && position < record.size() ? record.get(position) : null;
+            }
+            String done = values[DONE] == null ? "" : values[DONE].trim().toLowerCase(Locale.ROOT);
+            if (done.equals("true") || done.equals("1") || done.equals("oui") || done.equals("yes")) {
+                rows.add(new TaskImportRow(lineNumber, values[TITLE], values[DESCRIPTION], values[USER_ID], values[DUE_DATE], true));
+            } else if (done.isEmpty() || done.equals("false") || done.equals("0") || done.equals("non") || done.equals("no")) {
+                rows.add(new TaskImportRow(lineNumber, values[TITLE], values[DESCRIPTION], values[USER_ID], values[DUE_DATE], false));
+            } else {
+                rows.add(TaskImportRow.invalid(lineNumber, "Valeur de done invalide : " + values[DONE]));
+            }
+        }
+    }
+
+    // Position de chaque colonne connue dans l'en-tête, -1 si absente ; les colonnes inconnues sont ignorées
+    private static int[] mapColumns(List<String> header) {
+        int[] positions = new int[COLUMNS.length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                // Marque d'ordre des octets ajoutée par certains tableurs
+                name = name.substring(1);
+            }
+            int column = columnOf(name);
+            if (column >= 0) {
+                positions[column] = i;
+            }
+        }
+        if (positions[TITLE] < 0 || positions[USER_ID] < 0) {
+            throw new IllegalArgumentException("En-tête CSV invalide : les colonnes title et userId sont obligatoires");
+        }
+        return positions;
+    }
+
+    private static int columnOf(String name) {
+        for (int column = 0; column < COLUMNS.length; column++) {
+            if (COLUMNS[column].equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lot en cours, transmis au gestionnaire dès qu'il est plein
+    private static final class Batch {
+        private final int size;
+        private final RowHandler handler;
+        private List<TaskImportRow> rows;
+
+        Batch(int size, RowHandler handler) {
+            this.size = Math.max(1, size);
+            this.handler = handler;
+            this.rows = new ArrayList<>(this.size);
+        }
+
+        void add(TaskImportRow row) {
+            rows.add(row);
+            if (rows.size() == size) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                handler.handle(rows);
+                rows = new ArrayList<>(size);
+            }
+        }
+    }
+
+    // Lignes lues en octets dans un tampon réutilisé, sans décodage préalable
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[1024];
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        // Longueur de la ligne suivante, sans le saut de ligne ; -1 en fin de flux
+        int next() throws IOException {
+            int length = 0;
+            boolean any = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return any ? length : -1;
+                    }
+                }
+                any = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                int count = position - start;
+                if (length + count > line.length) {
+                    line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+                }
+                System.arraycopy(buffer, start, line, length, count);
+                length += count;
+                if (position < limit) {
+                    position++;
+                    return length;
+                }
+            }
+        }
+    }
+
+    // Enregistrements CSV : séparateur virgule, champs entre guillemets pouvant contenir virgules,
+    // sauts de ligne et guillemets doublés
+    private static final class CsvParser {
+        private final BufferedReader in;
+        private final StringBuilder field = new StringBuilder();
+        private int line = 1;
+        // Ligne de début de l'enregistrement renvoyé par next, et son erreur éventuelle
+        private int recordLine;
+        private String error;
+
+        CsvParser(BufferedReader in) {
+            this.in = in;
+        }
+
+        List<String> next() throws IOException {
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+            error = null;
+            List<String> record = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (c < 0) {
+                    if (quoted) {
+                        error = "Guillemet non fermé";
+                    }
+                    record.add(field.toString());
+                    return record;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        int following = in.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\n') {
+                    line++;
+                    record.add(field.toString());
+                    return record;
+                } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+}
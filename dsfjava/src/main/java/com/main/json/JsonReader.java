@@ -0,0 +1,473 @@
+package com.main.json;
+
+import com.main.exception.JsonParseException;
+
+import java.nio.charset.StandardCharsets;
+
+// Lecture JSON en flux (pull) directement sur les octets UTF-8 d'un document en mémoire.
+// L'appelant demande les éléments dans l'ordre où il les attend (beginObject, nextName, nextString...) ;
+// aucun arbre n'est construit et les chaînes sans échappement sont décodées en une seule copie.
+public final class JsonReader {
+    private static final int MAX_DEPTH = 64;
+
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // Contexte de chaque niveau d'imbrication, comme dans JsonWriter
+    private static final byte DOCUMENT = 0;
+    private static final byte EMPTY_ARRAY = 1;
+    private static final byte ARRAY = 2;
+    private static final byte EMPTY_OBJECT = 3;
+    private static final byte OBJECT = 4;
+    private static final byte NAME = 5;
+    private static final byte NONEMPTY_DOCUMENT = 6;
+
+    private final byte[] data;
+    private final int start;
+    private final int end;
+    private int position;
+    private final byte[] scopes = new byte[MAX_DEPTH + 1];
+    private int depth = 1;
+    // Jeton déjà identifié par peek, dont le premier octet est à "position"
+    private Token peeked;
+    private StringBuilder escaped;
+
+    public JsonReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public JsonReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.start = offset;
+        this.end = offset + length;
+        this.position = offset;
+        scopes[0] = DOCUMENT;
+    }
+
+    public Token peek() throws JsonParseException {
+        if (peeked != null) {
+            return peeked;
+        }
+        byte scope = scopes[depth - 1];
+        int c = skipWhitespace();
+        switch (scope) {
+            case EMPTY_ARRAY:
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                scopes[depth - 1] = ARRAY;
+                return peeked = valueToken(c);
+            case ARRAY:
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                expect(c, ',');
+                return peeked = valueToken(skipWhitespace());
+            case EMPTY_OBJECT:
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                return peeked = nameToken(c);
+            case OBJECT:
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                expect(c, ',');
+                return peeked = nameToken(skipWhitespace());
+            case NAME:
+                expect(c, ':');
+                scopes[depth - 1] = OBJECT;
+                return peeked = valueToken(skipWhitespace());
+            case DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                return peeked = valueToken(c);
+            default:
+                if (c >= 0) {
+                    throw error("Contenu inattendu après la fin du document");
+                }
+                return peeked = Token.END_DOCUMENT;
+        }
+    }
+
+    // Vrai tant que l'objet ou le tableau courant contient un élément
+    public boolean hasNext() throws JsonParseException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws JsonParseException {
+        consume(Token.BEGIN_OBJECT);
+        position++;
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws JsonParseException {
+        consume(Token.END_OBJECT);
+        position++;
+        depth--;
+    }
+
+    public void beginArray() throws JsonParseException {
+        consume(Token.BEGIN_ARRAY);
+        position++;
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws JsonParseException {
+        consume(Token.END_ARRAY);
+        position++;
+        depth--;
+    }
+
+    // Vérifie que le document est terminé, sans contenu superflu
+    public void endDocument() throws JsonParseException {
+        consume(Token.END_DOCUMENT);
+    }
+
+    public String nextName() throws JsonParseException {
+        consume(Token.NAME);
+        String name = readString();
+        scopes[depth - 1] = NAME;
+        return name;
+    }
+
+    public String nextString() throws JsonParseException {
+        consume(Token.STRING);
+        return readString();
+    }
+
+    public boolean nextBoolean() throws JsonParseException {
+        consume(Token.BOOLEAN);
+        if (data[position] == 't') {
+            readLiteral("true");
+            return true;
+        }
+        readLiteral("false");
+        return false;
+    }
+
+    public void nextNull() throws JsonParseException {
+        consume(Token.NULL);
+        readLiteral("null");
+    }
+
+    public long nextLong() throws JsonParseException {
+        consume(Token.NUMBER);
+        int first = position;
+        boolean integral = scanNumber();
+        if (!integral) {
+            throw new JsonParseException("Nombre entier attendu", first - start);
+        }
+        int digits = position - first;
+        if (digits <= 18) {
+            // Sans dépassement possible : calcul direct sur les octets
+            boolean negative = data[first] == '-';
+            long value = 0;
+            for (int i = negative ? first + 1 : first; i < position; i++) {
+                value = value * 10 + (data[i] - '0');
+            }
+            return negative ? -value : value;
+        }
+        try {
+            return Long.parseLong(new String(data, first, digits, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new JsonParseException("Nombre entier hors limites", first - start);
+        }
+    }
+
+    // Ignore la valeur suivante, objets et tableaux compris
+    public void skipValue() throws JsonParseException {
+        int level = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    level++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    level++;
+                    break;
+                case END_OBJECT:
+                    if (level == 0) {
+                        throw error("Valeur attendue");
+                    }
+                    endObject();
+                    level--;
+                    break;
+                case END_ARRAY:
+                    if (level == 0) {
+                        throw error("Valeur attendue");
+                    }
+                    endArray();
+                    level--;
+                    break;
+                case NAME:
+                    if (level == 0) {
+                        throw error("Valeur attendue");
+                    }
+                    nextName();
+                    break;
+                case STRING:
+                    nextString();
+                    break;
+                case NUMBER:
+                    consume(Token.NUMBER);
+                    scanNumber();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw error("Fin de document inattendue");
+            }
+        } while (level > 0);
+    }
+
+    private void consume(Token expected) throws JsonParseException {
+        Token token = peek();
+        if (token != expected) {
+            throw error("Attendu : " + describe(expected) + ", trouvé : " + describe(token));
+        }
+        peeked = null;
+    }
+
+    private void push(byte scope) throws JsonParseException {
+        if (depth > MAX_DEPTH) {
+            throw error("Imbrication trop profonde");
+        }
+        scopes[depth++] = scope;
+    }
+
+    // Renvoie le prochain octet significatif sans le consommer, -1 en fin de document
+    private int skipWhitespace() {
+        while (position < end) {
+            byte c = data[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    private void expect(int c, char expected) throws JsonParseException {
+        if (c != expected) {
+            throw error(c < 0 ? "Fin de document inattendue" : "'" + expected + "' attendu");
+        }
+        position++;
+    }
+
+    private Token nameToken(int c) throws JsonParseException {
+        if (c != '"') {
+            throw error(c < 0 ? "Fin de document inattendue" : "Nom de champ attendu");
+        }
+        return Token.NAME;
+    }
+
+    private Token valueToken(int c) throws JsonParseException {
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            case -1:
+                throw error("Fin de document inattendue");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return Token.NUMBER;
+                }
+                throw error("Valeur JSON attendue");
+        }
+    }
+
+    private void readLiteral(String literal) throws JsonParseException {
+        int length = literal.length();
+        if (end - position < length) {
+            throw error("Valeur JSON invalide");
+        }
+        for (int i = 0; i < length; i++) {
+            if (data[position + i] != literal.charAt(i)) {
+                throw error("Valeur JSON invalide");
+            }
+        }
+        position += length;
+    }
+
+    // Valide la syntaxe d'un nombre et s'arrête juste après ; renvoie faux s'il a une partie décimale ou un exposant
+    private boolean scanNumber() throws JsonParseException {
+        boolean integral = true;
+        if (data[position] == '-') {
+            position++;
+        }
+        if (position < end && data[position] == '0') {
+            position++;
+        } else if (!skipDigits()) {
+            throw error("Nombre invalide");
+        }
+        if (position < end && data[position] == '.') {
+            integral = false;
+            position++;
+            if (!skipDigits()) {
+                throw error("Nombre invalide");
+            }
+        }
+        if (position < end && (data[position] == 'e' || data[position] == 'E')) {
+            integral = false;
+            position++;
+            if (position < end && (data[position] == '+' || data[position] == '-')) {
+                position++;
+            }
+            if (!skipDigits()) {
+                throw error("Nombre invalide");
+            }
+        }
+        return integral;
+    }
+
+    private boolean skipDigits() {
+        int first = position;
+        while (position < end && data[position] >= '0' && data[position] <= '9') {
+            position++;
+        }
+        return position > first;
+    }
+
+    // Chaîne commençant au guillemet ouvrant ; les échappements passent par un StringBuilder réutilisé
+    private String readString() throws JsonParseException {
+        int first = ++position;
+        while (position < end) {
+            byte c = data[position];
+            if (c == '"') {
+                return new String(data, first, position++ - first, StandardCharsets.UTF_8);
+            }
+            if (c == '\\') {
+                return readEscapedString(first);
+            }
+            if (c >= 0 && c < 0x20) {
+                throw error("Caractère de contrôle dans une chaîne");
+            }
+            position++;
+        }
+        throw error("Chaîne non terminée");
+    }
+
+    private String readEscapedString(int first) throws JsonParseException {
+        if (escaped == null) {
+            escaped = new StringBuilder();
+        }
+        escaped.setLength(0);
+        int segment = first;
+        while (position < end) {
+            byte c = data[position];
+            if (c == '"') {
+                appendSegment(segment);
+                position++;
+                return escaped.toString();
+            }
+            if (c >= 0 && c < 0x20) {
+                throw error("Caractère de contrôle dans une chaîne");
+            }
+            if (c != '\\') {
+                position++;
+                continue;
+            }
+            appendSegment(segment);
+            if (++position >= end) {
+                break;
+            }
+            char escape = (char) data[position++];
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    escaped.append(escape);
+                    break;
+                case 'b':
+                    escaped.append('\b');
+                    break;
+                case 'f':
+                    escaped.append('\f');
+                    break;
+                case 'n':
+                    escaped.append('\n');
+                    break;
+                case 'r':
+                    escaped.append('\r');
+                    break;
+                case 't':
+                    escaped.append('\t');
+                    break;
+                case 'u':
+                    escaped.append(readHexChar());
+                    break;
+                default:
+                    position--;
+                    throw error("Séquence d'échappement invalide");
+            }
+            segment = position;
+        }
+        throw error("Chaîne non terminée");
+    }
+
+    private void appendSegment(int segment) {
+        if (position > segment) {
+            escaped.append(new String(data, segment, position - segment, StandardCharsets.UTF_8));
+        }
+    }
+
+    private char readHexChar() throws JsonParseException {
+        if (end - position < 4) {
+            throw error("Séquence \\u incomplète");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(data[position++], 16);
+            if (digit < 0) {
+                throw error("Séquence \\u invalide");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private JsonParseException error(String message) {
+        return new JsonParseException(message, position - start);
+    }
+
+    private static String describe(Token token) {
+        switch (token) {
+            case BEGIN_OBJECT:
+                return "objet";
+            case END_OBJECT:
+                return "fin d'objet";
+            case BEGIN_ARRAY:
+                return "tableau";
+            case END_ARRAY:
+                return "fin de tableau";
+            case NAME:
+                return "nom de champ";
+            case STRING:
+                return "chaîne";
+            case NUMBER:
+                return "nombre";
+            case BOOLEAN:
+                return "booléen";
+            case NULL:
+                return "null";
+            default:
+                return "fin de document";
+        }
+    }
+}
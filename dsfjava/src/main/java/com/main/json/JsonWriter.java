@@ -0,0 +1,265 @@
+package com.main.json;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// Écriture JSON en flux, encodée en UTF-8 directement dans un tampon d'octets :
+// ni réflexion, ni String intermédiaire par valeur. Les virgules et deux-points sont placés
+// automatiquement ; un appel hors de l'ordre attendu lève une IllegalStateException.
+// Plusieurs valeurs de premier niveau sont séparées par un saut de ligne (format NDJSON).
+public final class JsonWriter implements Flushable {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] TRUE = "true".getBytes();
+    private static final byte[] FALSE = "false".getBytes();
+    private static final byte[] NULL = "null".getBytes();
+    private static final byte[] MIN_LONG = String.valueOf(Long.MIN_VALUE).getBytes();
+
+    // Contexte de chaque niveau d'imbrication
+    private static final byte DOCUMENT = 0;
+    private static final byte EMPTY_ARRAY = 1;
+    private static final byte ARRAY = 2;
+    private static final byte EMPTY_OBJECT = 3;
+    private static final byte OBJECT = 4;
+    private static final byte NAME = 5;
+    private static final byte NONEMPTY_DOCUMENT = 6;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+    private byte[] scopes = new byte[16];
+    private int depth = 1;
+
+    public JsonWriter(OutputStream out) {
+        this.out = out;
+        scopes[0] = DOCUMENT;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        writeByte('{');
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        byte scope = scopes[depth - 1];
+        if (scope != EMPTY_OBJECT && scope != OBJECT) {
+            throw new IllegalStateException("Aucun objet JSON ouvert");
+        }
+        depth--;
+        writeByte('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        writeByte('[');
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        byte scope = scopes[depth - 1];
+        if (scope != EMPTY_ARRAY && scope != ARRAY) {
+            throw new IllegalStateException("Aucun tableau JSON ouvert");
+        }
+        depth--;
+        writeByte(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        byte scope = scopes[depth - 1];
+        if (scope == OBJECT) {
+            writeByte(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("Nom de champ JSON hors d'un objet : " + name);
+        }
+        scopes[depth - 1] = NAME;
+        writeString(name);
+        writeByte(':');
+        return this;
+    }
+
+    // Une chaîne null est écrite comme la valeur null
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        writeBytes(NULL);
+        return this;
+    }
+
+    // Vide le tampon dans le flux sous-jacent
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+        out.flush();
+    }
+
+    private void beforeValue() {
+        byte scope = scopes[depth - 1];
+        switch (scope) {
+            case DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                buffer('\n');
+                break;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = ARRAY;
+                break;
+            case ARRAY:
+                buffer(',');
+                break;
+            case NAME:
+                scopes[depth - 1] = OBJECT;
+                break;
+            default:
+                throw new IllegalStateException("Valeur JSON inattendue à cet endroit");
+        }
+    }
+
+    private void buffer(char c) {
+        // Séparateur ajouté sans vérification de place : chaque écriture laisse toujours un octet libre
+        buffer[count++] = (byte) c;
+    }
+
+    private void push(byte scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (count >= buffer.length - 1) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (count + bytes.length >= buffer.length) {
+            flushBuffer();
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, count);
+        count = 0;
+    }
+
+    // Chiffres écrits de droite à gauche directement dans le tampon
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(MIN_LONG);
+            return;
+        }
+        if (count + 21 >= buffer.length) {
+            flushBuffer();
+        }
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int position = count + digits;
+        count = position;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+    }
+
+    // Guillemets, antislash et caractères de contrôle échappés ; le reste est encodé en UTF-8
+    private void writeString(String value) throws IOException {
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // Au plus 6 octets par caractère (\\u00XX), 4 pour une paire de substitution
+            if (count + 6 >= buffer.length) {
+                flushBuffer();
+            }
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[count++] = '\\';
+                    buffer[count++] = (byte) c;
+                } else if (c < 0x20) {
+                    writeControl(c);
+                } else {
+                    buffer[count++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Demi-paire isolée : remplacée comme le fait String.getBytes
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        buffer[count++] = '\\';
+        switch (c) {
+            case '\n':
+                buffer[count++] = 'n';
+                break;
+            case '\r':
+                buffer[count++] = 'r';
+                break;
+            case '\t':
+                buffer[count++] = 't';
+                break;
+            default:
+                buffer[count++] = 'u';
+                buffer[count++] = '0';
+                buffer[count++] = '0';
+                buffer[count++] = HEX[c >> 4];
+                buffer[count++] = HEX[c & 0xF];
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.main.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histogramme à intervalles fixes au format Prometheus. L'enregistrement ne verrouille ni n'alloue :
+// recherche de l'intervalle dans un tableau trié puis incrément d'un LongAdder.
+// Les valeurs sont des entiers (nanosecondes, octets) ; scale les convertit à l'export (secondes).
+public final class Histogram {
+    // Bornes en nanosecondes, de 1 µs à 10 s
+    public static final long[] LATENCY_BUCKETS_NANOS = {
+            1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L,
+            250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+    public static final double NANOS_TO_SECONDS = 1e-9;
+    // Bornes en octets, de 128 o à 8 Mo
+    public static final long[] SIZE_BUCKETS_BYTES = {
+            128, 512, 2 * 1024, 8 * 1024, 32 * 1024, 128 * 1024, 512 * 1024, 2 * 1024 * 1024, 8 * 1024 * 1024};
+
+    private final long[] bounds;
+    // Une case de plus que de bornes : valeurs au-delà de la dernière (+Inf)
+    private final LongAdder[] buckets;
+    private final LongAdder sum = new LongAdder();
+    private final double scale;
+    // Bornes déjà mises en forme pour le libellé le
+    private final String[] boundLabels;
+
+    Histogram(long[] bounds, double scale) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        this.boundLabels = new String[bounds.length + 1];
+        this.scale = scale;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+            boundLabels[i] = i < bounds.length
+                    ? BigDecimal.valueOf(bounds[i]).multiply(BigDecimal.valueOf(scale)).stripTrailingZeros().toPlainString()
+                    : "+Inf";
+        }
+    }
+
+    public void record(long value) {
+        int low = 0;
+        int high = bounds.length;
+        // Premier intervalle dont la borne est >= value
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (bounds[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        buckets[low].increment();
+        sum.add(value);
+    }
+
+    // Durée écoulée depuis startNanos (System.nanoTime)
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    // labels : libellés de la série sans accolades, éventuellement vides
+    void writeTo(StringBuilder out, String name, String labels) {
+        String separator = labels.isEmpty() ? "" : ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{").append(labels).append(separator)
+                    .append("le=\"").append(boundLabels[i]).append("\"} ").append(cumulative).append('\n');
+        }
+        String series = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(series).append(' ').append(format(sum.sum() * scale)).append('\n');
+        out.append(name).append("_count").append(series).append(' ').append(cumulative).append('\n');
+    }
+
+    static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.main.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Registre des métriques du processus, exporté au format texte de Prometheus (page /metrics).
+// Les métriques sont créées une fois, à l'initialisation de leur propriétaire, puis mises à jour sans verrou ;
+// seuls l'enregistrement et l'export sont synchronisés. Enregistrer deux fois le même nom avec les mêmes
+// libellés renvoie la même métrique (plusieurs serveurs dans une JVM, benchmarks).
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    // labels : paires nom, valeur
+    public synchronized LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").series.computeIfAbsent(labels(labels), key -> new LongAdder());
+    }
+
+    // Compteur tenu ailleurs (ConnectionStats...), lu au moment de l'export
+    public synchronized void counterFunction(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, "counter").series.put(labels(labels), value);
+    }
+
+    // La fonction remplace celle déjà enregistrée sous le même nom : la dernière instance l'emporte
+    public synchronized void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(labels(labels), value);
+    }
+
+    public synchronized Histogram histogram(String name, String help, long[] bounds, double scale, String... labels) {
+        return (Histogram) family(name, help, "histogram").series.computeIfAbsent(labels(labels),
+                key -> new Histogram(bounds, scale));
+    }
+
+    // Durées en nanosecondes, exportées en secondes
+    public Histogram latencyHistogram(String name, String help, String... labels) {
+        return histogram(name, help, Histogram.LATENCY_BUCKETS_NANOS, Histogram.NANOS_TO_SECONDS, labels);
+    }
+
+    public synchronized String scrape() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> series : family.series.entrySet()) {
+                Object metric = series.getValue();
+                if (metric instanceof Histogram) {
+                    ((Histogram) metric).writeTo(out, family.name, series.getKey());
+                    continue;
+                }
+                long value = metric instanceof LongAdder ? ((LongAdder) metric).sum() : ((LongSupplier) metric).getAsLong();
+                out.append(family.name);
+                if (!series.getKey().isEmpty()) {
+                    out.append('{').append(series.getKey()).append('}');
+                }
+                out.append(' ').append(value).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = new Family(name, help, type);
+            families.put(name, family);
+        } else if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("La métrique " + name + " est déjà enregistrée avec le type " + family.type);
+        }
+        return family;
+    }
+
+    private static String labels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Les libellés vont par paires nom, valeur");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    text.append('\\').append(c);
+                } else if (c == '\n') {
+                    text.append("\\n");
+                } else {
+                    text.append(c);
+                }
+            }
+            text.append('"');
+        }
+        return text.toString();
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        // Libellés mis en forme -> LongAdder, LongSupplier ou Histogram, dans l'ordre d'enregistrement
+        private final Map<String, Object> series = new LinkedHashMap<>();
+
+        private Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
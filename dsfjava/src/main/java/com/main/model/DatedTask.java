@@ -3,7 +3,7 @@ package com.main.model;
 import java.time.LocalDate;
 
 public class DatedTask extends Task {
-    private LocalDate dueDate;
+    private volatile LocalDate dueDate;
 
     public DatedTask(String title, String description, User createdBy, LocalDate dueDate) {
         super(title, description, createdBy);
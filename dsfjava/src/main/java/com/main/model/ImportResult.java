@@ -0,0 +1,59 @@
+package com.main.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Bilan d'un import : nombre de tâches créées et erreurs ligne par ligne
+public class ImportResult {
+    private final int createdCount;
+    private final List<RowError> errors;
+
+    public ImportResult(int createdCount, List<RowError> errors) {
+        this.createdCount = createdCount;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Ligne " + line + " : " + message;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "créées=" + createdCount +
+                ", erreurs=" + errors.size() +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.main.model;
+
+import java.util.Collections;
+import java.util.List;
+
+// Page d'une liste paginée par curseur. Le curseur suivant désigne le dernier élément de la page :
+// la page suivante reprend juste après lui, même si des éléments ont été ajoutés ou supprimés entre-temps.
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    // null sur la dernière page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
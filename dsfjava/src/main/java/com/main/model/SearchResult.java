@@ -0,0 +1,31 @@
+package com.main.model;
+
+import java.util.Collections;
+import java.util.List;
+
+// Résultat d'une recherche plein texte : les meilleures tâches, classées, et le nombre total de correspondances
+public class SearchResult {
+    private final List<Task> tasks;
+    private final int totalMatches;
+
+    public SearchResult(List<Task> tasks, int totalMatches) {
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.totalMatches = totalMatches;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "tasks=" + tasks.size() +
+                ", totalMatches=" + totalMatches +
+                '}';
+    }
+}
@@ -4,10 +4,11 @@ import java.util.UUID;
 
 public class Task {
     private final String id;
-    private String title;
-    private String description;
-    private boolean done;
-    private User createdBy;
+    // volatile : modifiés sous verrou par DatabaseAccess mais lus sans verrou par les autres threads
+    private volatile String title;
+    private volatile String description;
+    private volatile boolean done;
+    private volatile User createdBy;
 
     public Task(String title, String description, User createdBy) {
         this.id = UUID.randomUUID().toString();
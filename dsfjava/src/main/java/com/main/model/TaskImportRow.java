@@ -0,0 +1,61 @@
+package com.main.model;
+
+// Ligne d'un import de tâches telle que lue dans le fichier, avant validation.
+// Une ligne illisible (JSON invalide, guillemet non fermé...) porte son message d'erreur.
+public class TaskImportRow {
+    private final int line;
+    private final String title;
+    private final String description;
+    private final String userId;
+    private final String dueDate;
+    private final boolean done;
+    private final String error;
+
+    public TaskImportRow(int line, String title, String description, String userId, String dueDate, boolean done) {
+        this(line, title, description, userId, dueDate, done, null);
+    }
+
+    private TaskImportRow(int line, String title, String description, String userId, String dueDate, boolean done, String error) {
+        this.line = line;
+        this.title = title;
+        this.description = description;
+        this.userId = userId;
+        this.dueDate = dueDate;
+        this.done = done;
+        this.error = error;
+    }
+
+    public static TaskImportRow invalid(int line, String error) {
+        return new TaskImportRow(line, null, null, null, null, false, error);
+    }
+
+    // Numéro de ligne dans le fichier source (à partir de 1)
+    public int getLine() {
+        return line;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    // Date au format AAAA-MM-JJ, null ou vide pour une tâche sans échéance
+    public String getDueDate() {
+        return dueDate;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
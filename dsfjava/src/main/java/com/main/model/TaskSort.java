@@ -0,0 +1,36 @@
+package com.main.model;
+
+// Ordres de tri disponibles pour la liste des tâches
+public enum TaskSort {
+    CREATION("creation", "Création"),
+    TITLE("title", "Titre"),
+    DUE_DATE("due", "Échéance"),
+    STATUS("status", "Statut"),
+    CREATOR("creator", "Créateur");
+
+    private final String parameter;
+    private final String label;
+
+    TaskSort(String parameter, String label) {
+        this.parameter = parameter;
+        this.label = label;
+    }
+
+    // Valeur utilisée dans les URL (?sort=title)
+    public String getParameter() {
+        return parameter;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static TaskSort fromParameter(String parameter) {
+        for (TaskSort sort : values()) {
+            if (sort.parameter.equals(parameter)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Tri inconnu : " + parameter);
+    }
+}
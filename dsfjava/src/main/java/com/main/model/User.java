@@ -4,7 +4,7 @@ import java.util.UUID;
 
 public class User {
     private final String id;
-    private String firstName;
+    private volatile String firstName;
 
     public User(String firstName) {
         this.id = UUID.randomUUID().toString();
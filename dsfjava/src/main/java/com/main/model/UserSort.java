@@ -0,0 +1,33 @@
+package com.main.model;
+
+// Ordres de tri disponibles pour la liste des utilisateurs
+public enum UserSort {
+    CREATION("creation", "Création"),
+    NAME("name", "Prénom");
+
+    private final String parameter;
+    private final String label;
+
+    UserSort(String parameter, String label) {
+        this.parameter = parameter;
+        this.label = label;
+    }
+
+    // Valeur utilisée dans les URL (?sort=name)
+    public String getParameter() {
+        return parameter;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static UserSort fromParameter(String parameter) {
+        for (UserSort sort : values()) {
+            if (sort.parameter.equals(parameter)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Tri inconnu : " + parameter);
+    }
+}
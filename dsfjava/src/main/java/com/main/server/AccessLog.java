@@ -0,0 +1,234 @@
+package com.main.server;
+
+import com.main.json.JsonWriter;
+import com.main.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Journal des accès asynchrone : les threads qui servent les requêtes déposent leurs entrées dans un tampon
+// circulaire borné sans verrou (file multi-producteurs de D. Vyukov) dont les cases sont allouées une fois pour
+// toutes ; un thread dédié les vide par lots dans un fichier à rotation, une ligne JSON par requête.
+// Tampon plein : l'entrée est perdue et comptée (DROP) ou le thread attend qu'une case se libère (BLOCK).
+final class AccessLog {
+    // Pause du thread d'écriture quand le tampon est vide
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+    private static final long BLOCKED_PARK_NANOS = 50_000L;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+    // Valeurs des champs method et path d'une requête mal formée
+    static final String UNKNOWN = "-";
+
+    private static final AccessLog DISABLED = new AccessLog();
+
+    // Entrée du tampon, réécrite à chaque tour
+    private static final class Entry {
+        private long time;
+        private long connectionId;
+        private String method;
+        private String path;
+        private int status;
+        private long bytes;
+        private long durationNanos;
+    }
+
+    private final boolean enabled;
+    private final ServerConfig.AccessLogPolicy policy;
+    private final Entry[] entries;
+    // Numéro de séquence de chaque case : égal à la position d'écriture attendue quand la case est libre,
+    // à cette position + 1 quand l'entrée est publiée et pas encore lue
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Lu et écrit par le seul thread d'écriture
+    private long head;
+    private final RotatingLogFile file;
+    private final LongAdder dropped;
+    private final LongAdder blocked;
+    private final LongAdder written;
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    private AccessLog() {
+        enabled = false;
+        policy = ServerConfig.AccessLogPolicy.DROP;
+        entries = null;
+        sequences = null;
+        mask = 0;
+        file = null;
+        dropped = blocked = written = null;
+    }
+
+    private AccessLog(ServerConfig config, MetricsRegistry registry) throws IOException {
+        enabled = true;
+        policy = config.getAccessLogPolicy();
+        int capacity = Integer.highestOneBit(Math.max(2, config.getAccessLogBufferSize() - 1)) << 1;
+        entries = new Entry[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        file = new RotatingLogFile(Paths.get(config.getAccessLogPath()),
+                config.getAccessLogMaxMegabytes() * 1024L * 1024L, config.getAccessLogMaxFiles());
+        dropped = registry.counter("todo_access_log_dropped_total", "Entrées du journal des accès perdues, tampon plein");
+        blocked = registry.counter("todo_access_log_blocked_total",
+                "Attentes d'un thread de traitement faute de place dans le tampon du journal des accès");
+        written = registry.counter("todo_access_log_written_total", "Entrées écrites dans le journal des accès");
+    }
+
+    // Journal inactif si aucun fichier n'est configuré
+    static AccessLog create(ServerConfig config, MetricsRegistry registry) {
+        if (config.getAccessLogPath() == null) {
+            return DISABLED;
+        }
+        try {
+            return new AccessLog(config, registry);
+        } catch (IOException e) {
+            System.err.println("Journal des accès désactivé, impossible d'ouvrir " + config.getAccessLogPath()
+                    + " : " + e.getMessage());
+            return DISABLED;
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "todo-access-log");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "todo-access-log-shutdown"));
+    }
+
+    // Appelé à la fin de chaque réponse ; n'alloue rien et ne prend aucun verrou
+    void log(long connectionId, String method, String path, int status, long bytes, long durationNanos) {
+        if (!running) {
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Entry entry = entries[index];
+                    entry.time = System.currentTimeMillis();
+                    entry.connectionId = connectionId;
+                    entry.method = method;
+                    entry.path = path;
+                    entry.status = status;
+                    entry.bytes = bytes;
+                    entry.durationNanos = durationNanos;
+                    // Publication : les champs sont visibles du thread d'écriture qui lit ce numéro
+                    sequences.lazySet(index, position + 1);
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Case pas encore lue après un tour complet : tampon plein
+                if (policy == ServerConfig.AccessLogPolicy.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                blocked.increment();
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+                if (!running) {
+                    return;
+                }
+                position = tail.get();
+            } else {
+                // Un autre producteur a pris la case : on relit la position
+                position = tail.get();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Écrit en un lot toutes les entrées publiées ; renvoie leur nombre
+    private int drain() {
+        int count = 0;
+        try {
+            JsonWriter json = null;
+            while (true) {
+                int index = (int) head & mask;
+                if (sequences.get(index) != head + 1) {
+                    break;
+                }
+                Entry entry = entries[index];
+                if (json == null) {
+                    json = new JsonWriter(file);
+                }
+                json.beginObject()
+                        .name("time").value(Instant.ofEpochMilli(entry.time).toString())
+                        .name("connection").value(entry.connectionId)
+                        .name("method").value(entry.method)
+                        .name("path").value(entry.path)
+                        .name("status").value(entry.status)
+                        .name("bytes").value(entry.bytes)
+                        .name("durationMicros").value(entry.durationNanos / 1000)
+                        .endObject();
+                entry.method = null;
+                entry.path = null;
+                // La case redevient libre pour le tour suivant
+                sequences.lazySet(index, head + entries.length);
+                head++;
+                count++;
+            }
+            if (json != null) {
+                // JsonWriter ne place de saut de ligne qu'entre deux objets : celui du dernier est ajouté ici
+                json.flush();
+                file.write('\n');
+                file.flush();
+                written.add(count);
+                file.rotateIfNeeded();
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture du journal des accès : " + e.getMessage());
+        }
+        return count;
+    }
+
+    // Arrête le thread d'écriture puis écrit les entrées restantes
+    void close() {
+        Thread thread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = writer;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        try {
+            file.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture du journal des accès : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.main.server;
+
+import com.main.database.DatabaseAccess;
+import com.main.exception.ElementNotFoundException;
+import com.main.exception.JsonParseException;
+import com.main.io.DataExporter;
+import com.main.io.DataFormat;
+import com.main.json.JsonReader;
+import com.main.json.JsonWriter;
+import com.main.model.DatedTask;
+import com.main.model.ImportResult;
+import com.main.model.Page;
+import com.main.model.Task;
+import com.main.model.TaskSort;
+import com.main.model.User;
+import com.main.model.UserSort;
+import com.main.service.TaskService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// API JSON versionnée, servie à côté des pages HTML :
+//   GET  /api/v1/users            liste paginée (sort=creation|name, order, size, after)
+//   POST /api/v1/users            {"firstName": "..."}
+//   GET|DELETE /api/v1/users/{id}       la suppression d'un utilisateur supprime ses tâches
+//   GET  /api/v1/tasks            liste paginée (sort=creation|title|due|status|creator, order, size, after)
+//   POST /api/v1/tasks            {"title", "description", "userId", "dueDate": "AAAA-MM-JJ"}
+//   POST /api/v1/tasks/import     lot de tâches en NDJSON ou CSV (format=ndjson|csv ou Content-Type text/csv)
+//   GET|PUT|DELETE /api/v1/tasks/{id}   PUT ne modifie que les champs présents
+//   GET  /api/v1/stats
+//   GET  /api/v1/export/tasks, /api/v1/export/users   export complet en flux (format=ndjson|csv)
+// Les réponses sont compressées par le serveur (ResponseCompressor) si le client l'accepte.
+// Les erreurs sont renvoyées sous la forme {"error": "..."}.
+final class ApiHandler {
+    static final String PREFIX = "/api/v1/";
+    static final String IMPORT_PATH = PREFIX + "tasks/import";
+    private static final String EXPORT = "export/";
+    // Corps d'un import : reçu en entier par le transport avant l'appel du gestionnaire, puis lu par lots
+    private static final int MAX_IMPORT_BODY_LENGTH = 64 * 1024 * 1024;
+    // Nombre maximal d'erreurs détaillées dans le bilan d'un import
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Réponse d'un objet unique, construite en mémoire pour connaître sa taille
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private final DatabaseAccess database;
+    private final TaskService taskService;
+
+    ApiHandler(DatabaseAccess database) {
+        this.database = database;
+        this.taskService = new TaskService();
+    }
+
+    // Taille maximale du corps par route ; path peut contenir la chaîne de requête
+    static int maxBodyLength(String method, String path) {
+        int queryStart = path.indexOf('?');
+        int end = queryStart < 0 ? path.length() : queryStart;
+        if (method.equals("POST") && end == IMPORT_PATH.length() && path.startsWith(IMPORT_PATH)) {
+            return MAX_IMPORT_BODY_LENGTH;
+        }
+        return HttpRequestParser.DEFAULT_MAX_BODY_LENGTH;
+    }
+
+    // path est le chemin sans la chaîne de requête, passée à part dans query
+    HttpResponse handle(HttpRequest request, String path, String query) {
+        String method = request.getMethod();
+        byte[] body = request.getBody();
+        String resource = path.substring(PREFIX.length());
+        try {
+            if (resource.equals("users")) {
+                if (method.equals("GET")) {
+                    return listUsers(FormData.decode(query));
+                } else if (method.equals("POST")) {
+                    return createUser(body);
+                }
+                return methodNotAllowed("GET, POST");
+            } else if (isItem(resource, "users/")) {
+                String id = decode(resource.substring(6));
+                if (method.equals("GET")) {
+                    User user = database.findUserById(id);
+                    return json(200, json -> writeUser(json, user));
+                } else if (method.equals("DELETE")) {
+                    database.deleteUser(id);
+                    return new HttpResponse(204, JSON_CONTENT_TYPE, new byte[0]);
+                }
+                return methodNotAllowed("GET, DELETE");
+            } else if (resource.equals("tasks")) {
+                if (method.equals("GET")) {
+                    return listTasks(FormData.decode(query));
+                } else if (method.equals("POST")) {
+                    return createTask(body);
+                }
+                return methodNotAllowed("GET, POST");
+            } else if (path.equals(IMPORT_PATH)) {
+                if (method.equals("POST")) {
+                    return importTasks(request, FormData.decode(query));
+                }
+                return methodNotAllowed("POST");
+            } else if (isItem(resource, "tasks/")) {
+                String id = decode(resource.substring(6));
+                if (method.equals("GET")) {
+                    Task task = database.findTaskById(id);
+                    return json(200, json -> writeTask(json, task));
+                } else if (method.equals("PUT")) {
+                    return updateTask(id, body);
+                } else if (method.equals("DELETE")) {
+                    database.deleteTask(id);
+                    return new HttpResponse(204, JSON_CONTENT_TYPE, new byte[0]);
+                }
+                return methodNotAllowed("GET, PUT, DELETE");
+            } else if (resource.equals(EXPORT + "tasks") || resource.equals(EXPORT + "users")) {
+                if (method.equals("GET")) {
+                    return export(resource.substring(EXPORT.length()), FormData.decode(query));
+                }
+                return methodNotAllowed("GET");
+            } else if (resource.equals("stats")) {
+                if (method.equals("GET")) {
+                    return json(200, this::writeStats);
+                }
+                return methodNotAllowed("GET");
+            }
+            return error(404, "Ressource inconnue : " + path);
+        } catch (ElementNotFoundException e) {
+            return error(404, e.getMessage());
+        } catch (JsonParseException e) {
+            return error(400, "JSON invalide : " + e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return error(400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            return error(500, "Erreur interne : " + e.getMessage());
+        }
+    }
+
+    // La page est extraite avant l'envoi pour qu'un paramètre invalide donne une erreur 400
+    private HttpResponse listUsers(FormData parameters) {
+        String sort = parameters.get("sort");
+        boolean descending = "desc".equals(parameters.get("order"));
+        Page<User> page = database.getUsersPage(sort == null ? UserSort.CREATION : UserSort.fromParameter(sort),
+                descending, parameters.get("after"), pageSize(parameters));
+        return HttpResponse.streaming(200, JSON_CONTENT_TYPE, out -> {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject().name("total").value(database.getUserCount());
+            json.name("items").beginArray();
+            for (User user : page.getItems()) {
+                writeUser(json, user);
+            }
+            json.endArray();
+            json.name("next").value(page.getNextCursor());
+            json.endObject();
+            json.flush();
+        });
+    }
+
+    private HttpResponse listTasks(FormData parameters) {
+        String sort = parameters.get("sort");
+        boolean descending = "desc".equals(parameters.get("order"));
+        Page<Task> page = database.getTasksPage(sort == null ? TaskSort.CREATION : TaskSort.fromParameter(sort),
+                descending, parameters.get("after"), pageSize(parameters));
+        return HttpResponse.streaming(200, JSON_CONTENT_TYPE, out -> {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject().name("total").value(database.getTaskCount());
+            json.name("items").beginArray();
+            for (Task task : page.getItems()) {
+                writeTask(json, task);
+            }
+            json.endArray();
+            json.name("next").value(page.getNextCursor());
+            json.endObject();
+            json.flush();
+        });
+    }
+
+    private HttpResponse createUser(byte[] body) throws JsonParseException, IOException {
+        String firstName = null;
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("firstName")) {
+                firstName = nullableString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+
+        if (firstName == null || firstName.trim().isEmpty()) {
+            return error(400, "Le prénom est obligatoire");
+        }
+        User user = new User(firstName.trim());
+        database.addUser(user);
+        return json(201, json -> writeUser(json, user)).header("Location", PREFIX + "users/" + user.getId());
+    }
+
+    private HttpResponse createTask(byte[] body) throws JsonParseException, IOException, ElementNotFoundException {
+        String title = null;
+        String description = null;
+        String userId = null;
+        String dueDate = null;
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "title":
+                    title = nullableString(reader);
+                    break;
+                case "description":
+                    description = nullableString(reader);
+                    break;
+                case "userId":
+                    userId = nullableString(reader);
+                    break;
+                case "dueDate":
+                    dueDate = nullableString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+
+        if (title == null || title.trim().isEmpty() || userId == null) {
+            return error(400, "Le titre et l'utilisateur sont obligatoires");
+        }
+        User user = database.findUserById(userId);
+        String text = description == null ? "" : description.trim();
+        Task task = dueDate == null
+                ? new Task(title.trim(), text, user)
+                : new DatedTask(title.trim(), text, user, LocalDate.parse(dueDate));
+        database.addTask(task);
+        return json(201, json -> writeTask(json, task)).header("Location", PREFIX + "tasks/" + task.getId());
+    }
+
+    // Les champs absents gardent leur valeur ; dueDate n'est accepté que pour une tâche avec échéance.
+    // La fusion avec la tâche actuelle est faite par DatabaseAccess sous verrou : deux PUT concurrents
+    // sur des champs différents ne s'écrasent pas.
+    private HttpResponse updateTask(String id, byte[] body) throws JsonParseException, IOException, ElementNotFoundException {
+        String title = null;
+        String description = null;
+        Boolean done = null;
+        boolean hasDueDate = false;
+        LocalDate dueDate = null;
+        JsonReader reader = new JsonReader(body);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "title":
+                    title = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "done":
+                    done = reader.nextBoolean();
+                    break;
+                case "dueDate":
+                    String date = nullableString(reader);
+                    hasDueDate = true;
+                    dueDate = date == null ? null : LocalDate.parse(date);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+
+        if (title != null && title.trim().isEmpty()) {
+            return error(400, "Le titre est obligatoire");
+        }
+        Task task = database.patchTask(id, title, description, done, hasDueDate, dueDate);
+        return json(200, json -> writeTask(json, task));
+    }
+
+    private HttpResponse importTasks(HttpRequest request, FormData parameters) throws IOException {
+        DataFormat format = DataFormat.detect(parameters.get("format"), request.getHeader("content-type"));
+        ImportResult result = taskService.importTasks(new ByteArrayInputStream(request.getBody()), format);
+        return json(200, json -> {
+            json.beginObject();
+            json.name("created").value(result.getCreatedCount());
+            json.name("failed").value(result.getErrors().size());
+            json.name("errors").beginArray();
+            int reported = 0;
+            for (ImportResult.RowError error : result.getErrors()) {
+                if (reported++ == MAX_REPORTED_ERRORS) {
+                    break;
+                }
+                json.beginObject().name("line").value(error.getLine()).name("error").value(error.getMessage()).endObject();
+            }
+            json.endArray();
+            json.endObject();
+        });
+    }
+
+    // Parcours direct des collections de la base, écrit au fil de l'envoi : la mémoire reste constante
+    // quel que soit le volume, et le client reçoit les premières lignes immédiatement
+    private HttpResponse export(String collection, FormData parameters) {
+        DataFormat format = DataFormat.detect(parameters.get("format"), null);
+        boolean tasks = collection.equals("tasks");
+        HttpResponse response = HttpResponse.streaming(200, format.getContentType(), out -> {
+            if (tasks) {
+                DataExporter.exportTasks(database.getAllTasks(), format, out);
+            } else {
+                DataExporter.exportUsers(database.getAllUsers(), format, out);
+            }
+        });
+        return response.header("Content-Disposition", "attachment; filename=\"" + collection + format.getExtension() + "\"");
+    }
+
+    private void writeStats(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("users").value(database.getUserCount());
+        json.name("tasks").value(database.getTaskCount());
+        json.name("completed").value(database.getCompletedTaskCount());
+        json.name("pending").value(database.getPendingTaskCount());
+        json.name("overdue").value(database.getOverdueTaskCount());
+        json.name("upcoming").value(database.getUpcomingTaskCount());
+        json.endObject();
+    }
+
+    private static void writeUser(JsonWriter json, User user) throws IOException {
+        json.beginObject();
+        json.name("id").value(user.getId());
+        json.name("firstName").value(user.getFirstName());
+        json.endObject();
+    }
+
+    // Les dates sont au format ISO (AAAA-MM-JJ) ; dueDate n'apparaît que pour une tâche avec échéance
+    private static void writeTask(JsonWriter json, Task task) throws IOException {
+        json.beginObject();
+        json.name("id").value(task.getId());
+        json.name("title").value(task.getTitle());
+        json.name("description").value(task.getDescription());
+        json.name("done").value(task.isDone());
+        json.name("createdBy");
+        writeUser(json, task.getCreatedBy());
+        if (task instanceof DatedTask) {
+            LocalDate dueDate = ((DatedTask) task).getDueDate();
+            json.name("dueDate").value(dueDate == null ? null : dueDate.toString());
+        }
+        json.endObject();
+    }
+
+    // Ressource de la forme "<collection>/<id>"
+    private static boolean isItem(String resource, String collection) {
+        return resource.startsWith(collection) && resource.length() > collection.length()
+                && resource.indexOf('/', collection.length()) < 0;
+    }
+
+    private static String nullableString(JsonReader reader) throws JsonParseException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static HttpResponse json(int status, JsonBody body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        JsonWriter json = new JsonWriter(bytes);
+        body.write(json);
+        json.flush();
+        return new HttpResponse(status, JSON_CONTENT_TYPE, bytes.toByteArray());
+    }
+
+    static HttpResponse error(int status, String message) {
+        try {
+            return json(status, json -> json.beginObject().name("error").value(message).endObject());
+        } catch (IOException e) {
+            // Écriture en mémoire : impossible
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpResponse methodNotAllowed(String allowed) {
+        return error(405, "Méthode non autorisée, méthodes acceptées : " + allowed).header("Allow", allowed);
+    }
+
+    private static int pageSize(FormData parameters) {
+        String size = parameters.get("size");
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Integer.parseInt(size);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Taille de page invalide : " + size);
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.main.server;
+
+import com.main.exception.HttpParseException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+
+// Transport historique : java.net.ServerSocket, un thread du pool par connexion
+public class BlockingTransport implements Transport {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final TodoServer server;
+    private final ServerConfig config;
+    private final WorkerPool workers;
+    private final ConnectionStats stats;
+    private final KeepAlivePolicy keepAlivePolicy;
+    private final ServerMetrics metrics;
+    private final AccessLog accessLog;
+
+    public BlockingTransport(TodoServer server, ServerConfig config, WorkerPool workers) {
+        this.server = server;
+        this.config = config;
+        this.workers = workers;
+        this.stats = server.getConnectionStats();
+        this.keepAlivePolicy = new KeepAlivePolicy(config, stats);
+        this.metrics = server.getMetrics();
+        this.accessLog = server.getAccessLog();
+    }
+
+    @Override
+    public void serve() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(config.getPort())) {
+            while (true) {
+                final Socket clientSocket = serverSocket.accept();
+                if (!workers.tryExecute(() -> handleClient(clientSocket))) {
+                    rejectClient(clientSocket);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "bloquant (ServerSocket)";
+    }
+
+    // Serveur saturé : réponse 503 immédiate depuis le thread d'acceptation
+    private void rejectClient(Socket clientSocket) {
+        try {
+            send(clientSocket.getOutputStream(), null, server.unavailableResponse(), 1);
+        } catch (IOException e) {
+            System.err.println("Erreur lors du refus de la connexion : " + e.getMessage());
+        } finally {
+            close(clientSocket);
+        }
+    }
+
+    private void handleClient(Socket clientSocket) {
+        long connectionId = stats.connectionOpened();
+        try {
+            InputStream in = clientSocket.getInputStream();
+            CountingOutputStream counter = new CountingOutputStream(clientSocket.getOutputStream());
+            OutputStream out = new BufferedOutputStream(counter);
+            // Même analyseur que le transport NIO ; les octets reçus après une requête (pipeline)
+            // restent dans le tampon pour la suivante
+            HttpRequestParser parser = new HttpRequestParser(server::maxBodyLength);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+
+            int served = 0;
+            boolean keepAlive = true;
+            while (keepAlive) {
+                HttpRequest request;
+                try {
+                    request = readRequest(clientSocket, in, parser, buffer, served);
+                } catch (SocketTimeoutException e) {
+                    if (served > 0 && parser.isIdle()) {
+                        stats.idleTimeout();
+                    }
+                    return;
+                } catch (HttpParseException e) {
+                    sendError(out, counter, connectionId, server.errorResponse(e.getStatusCode(), e.getMessage()), served + 1);
+                    return;
+                }
+                if (request == null) {
+                    if (served == 0) {
+                        sendError(out, counter, connectionId, server.errorResponse(400, "Requête invalide"), 1);
+                    }
+                    return;
+                }
+
+                ServerMetrics.Route route = metrics.route(request);
+                long start = metrics.requestStarted();
+                boolean completed = false;
+                try {
+                    HttpResponse response = server.handle(request);
+                    stats.requestServed(served);
+                    served++;
+                    long sentBefore = counter.getCount();
+                    keepAlive = send(out, request, response, served);
+                    long bytes = counter.getCount() - sentBefore;
+                    long duration = metrics.requestCompleted(route, response.getStatus(), start, bytes);
+                    accessLog.log(connectionId, request.getMethod(), request.getPath(), response.getStatus(), bytes, duration);
+                    completed = true;
+                } finally {
+                    if (!completed) {
+                        // Statut 0 dans le journal : réponse interrompue
+                        long duration = metrics.requestAborted(route, start);
+                        accessLog.log(connectionId, request.getMethod(), request.getPath(), 0, 0, duration);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            metrics.ioError();
+            System.err.println("Erreur lors du traitement de la requête : " + e.getMessage());
+        } finally {
+            stats.connectionClosed();
+            close(clientSocket);
+        }
+    }
+
+    // Null si la connexion est fermée avant le premier octet d'une requête
+    private HttpRequest readRequest(Socket clientSocket, InputStream in, HttpRequestParser parser, ByteBuffer buffer,
+                                    int served) throws IOException, HttpParseException {
+        // Première requête : délai de lecture ; requêtes suivantes : délai d'inactivité keep-alive
+        int timeout = served == 0 ? config.getReadTimeoutMillis() : config.getKeepAliveTimeoutMillis();
+        clientSocket.setSoTimeout(timeout);
+        while (!parser.parse(buffer)) {
+            if (timeout != config.getReadTimeoutMillis() && !parser.isIdle()) {
+                clientSocket.setSoTimeout(config.getReadTimeoutMillis());
+                timeout = config.getReadTimeoutMillis();
+            }
+            // L'analyseur a tout consommé : le tampon est réutilisé depuis le début
+            int count = in.read(buffer.array(), 0, buffer.capacity());
+            if (count < 0) {
+                if (parser.isIdle()) {
+                    return null;
+                }
+                throw new HttpParseException("Requête incomplète");
+            }
+            buffer.position(0);
+            buffer.limit(count);
+        }
+        HttpRequest request = parser.getRequest();
+        parser.reset();
+        return request;
+    }
+
+    // Renvoie true si la connexion reste ouverte
+    private boolean send(OutputStream out, HttpRequest request, HttpResponse response, int served) throws IOException {
+        boolean keepAlive = keepAlivePolicy.apply(request, response, served);
+        response.writeTo(out);
+        return keepAlive;
+    }
+
+    // Réponse à une requête mal formée, après laquelle la connexion est fermée
+    private void sendError(OutputStream out, CountingOutputStream counter, long connectionId, HttpResponse response,
+                           int served) throws IOException {
+        long start = metrics.requestStarted();
+        long sentBefore = counter.getCount();
+        try {
+            send(out, null, response, served);
+        } catch (IOException e) {
+            long duration = metrics.requestAborted(metrics.invalidRoute(), start);
+            accessLog.log(connectionId, AccessLog.UNKNOWN, AccessLog.UNKNOWN, 0, 0, duration);
+            throw e;
+        }
+        long bytes = counter.getCount() - sentBefore;
+        long duration = metrics.requestCompleted(metrics.invalidRoute(), response.getStatus(), start, bytes);
+        accessLog.log(connectionId, AccessLog.UNKNOWN, AccessLog.UNKNOWN, response.getStatus(), bytes, duration);
+    }
+
+    private void close(Socket clientSocket) {
+        try {
+            clientSocket.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
+        }
+    }
+}
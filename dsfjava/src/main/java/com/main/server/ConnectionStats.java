@@ -0,0 +1,66 @@
+package com.main.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compteurs de réutilisation des connexions, partagés par les transports
+public class ConnectionStats {
+    // Sert aussi de numéro aux connexions (journal des accès)
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder reusedRequests = new LongAdder();
+    private final LongAdder idleTimeouts = new LongAdder();
+    private final LongAdder maxRequestsReached = new LongAdder();
+
+    // Renvoie le numéro de la connexion, à partir de 1
+    public long connectionOpened() {
+        active.incrementAndGet();
+        return opened.incrementAndGet();
+    }
+
+    public void connectionClosed() {
+        active.decrementAndGet();
+    }
+
+    // servedBefore : nombre de requêtes déjà traitées sur la même connexion
+    public void requestServed(int servedBefore) {
+        requests.increment();
+        if (servedBefore > 0) {
+            reusedRequests.increment();
+        }
+    }
+
+    public void idleTimeout() {
+        idleTimeouts.increment();
+    }
+
+    public void maxRequestsReached() {
+        maxRequestsReached.increment();
+    }
+
+    public long getOpenedConnections() {
+        return opened.get();
+    }
+
+    public int getActiveConnections() {
+        return active.get();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getReusedRequests() {
+        return reusedRequests.sum();
+    }
+
+    public long getIdleTimeouts() {
+        return idleTimeouts.sum();
+    }
+
+    public long getMaxRequestsReached() {
+        return maxRequestsReached.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.main.server;
+
+import java.util.Locale;
+
+// Codages de contenu proposés au client, choisis d'après l'en-tête Accept-Encoding
+enum ContentCoding {
+    GZIP("gzip"),
+    DEFLATE("deflate"),
+    IDENTITY("identity");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    // Codage de plus grand poids q parmi gzip et deflate, gzip à égalité ; "*" vaut pour ceux qui ne sont
+    // pas cités et q=0 les exclut. IDENTITY si aucun n'est accepté ou si l'en-tête est absent.
+    static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return IDENTITY;
+        }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        int position = 0;
+        int length = acceptEncoding.length();
+        while (position < length) {
+            int end = acceptEncoding.indexOf(',', position);
+            if (end < 0) {
+                end = length;
+            }
+            int parameters = acceptEncoding.indexOf(';', position);
+            int nameEnd = parameters >= 0 && parameters < end ? parameters : end;
+            String name = acceptEncoding.substring(position, nameEnd).trim().toLowerCase(Locale.ROOT);
+            float quality = nameEnd < end ? quality(acceptEncoding.substring(nameEnd + 1, end)) : 1;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("deflate")) {
+                deflate = Math.max(deflate, quality);
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+            position = end + 1;
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : IDENTITY;
+    }
+
+    // Paramètre q d'un codage (1 par défaut) ; une valeur illisible l'exclut
+    private static float quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String value = parameter.trim();
+            if (value.startsWith("q=") || value.startsWith("Q=")) {
+                try {
+                    float quality = Float.parseFloat(value.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.main.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+// Réserve de Deflater réutilisés d'une réponse à l'autre : chaque instance alloue de la mémoire native
+// (environ 256 Ko pour zlib) qu'il serait coûteux de créer et libérer à chaque requête.
+// Deux réserves : flux deflate brut (enveloppé en gzip par l'appelant) et flux zlib (codage "deflate").
+final class DeflaterPool {
+    // Instances inactives conservées au plus par réserve ; les suivantes sont libérées aussitôt
+    private static final int MAX_IDLE = 32;
+
+    private static final Queue<Deflater> RAW = new ConcurrentLinkedQueue<>();
+    private static final Queue<Deflater> ZLIB = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger RAW_IDLE = new AtomicInteger();
+    private static final AtomicInteger ZLIB_IDLE = new AtomicInteger();
+
+    private DeflaterPool() {
+    }
+
+    // nowrap : flux brut, sans en-tête ni somme de contrôle zlib (pour gzip)
+    static Deflater borrow(boolean nowrap) {
+        Deflater deflater = (nowrap ? RAW : ZLIB).poll();
+        if (deflater == null) {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+        }
+        (nowrap ? RAW_IDLE : ZLIB_IDLE).decrementAndGet();
+        return deflater;
+    }
+
+    static void release(Deflater deflater, boolean nowrap) {
+        AtomicInteger idle = nowrap ? RAW_IDLE : ZLIB_IDLE;
+        if (idle.incrementAndGet() > MAX_IDLE) {
+            idle.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        (nowrap ? RAW : ZLIB).offer(deflater);
+    }
+}
@@ -0,0 +1,90 @@
+package com.main.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Champs d'un formulaire ou d'une chaîne de requête (application/x-www-form-urlencoded), décodés en une passe.
+// Chaque thread réutilise la même instance : table et tampons ne sont pas réalloués à chaque requête,
+// mais le contenu n'est valable que jusqu'au décodage suivant sur ce thread.
+final class FormData {
+    private static final ThreadLocal<FormData> REUSABLE = ThreadLocal.withInitial(FormData::new);
+
+    private final Map<String, String> fields = new HashMap<>();
+    // Copie octet par octet d'une chaîne de requête, et octets décodés d'un nom ou d'une valeur
+    private byte[] input = new byte[256];
+    private byte[] decoded = new byte[256];
+
+    private FormData() {
+    }
+
+    static FormData decode(String query) {
+        FormData form = REUSABLE.get();
+        int length = query.length();
+        if (form.input.length < length) {
+            form.input = new byte[Math.max(length, form.input.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            // La ligne de requête est lue en ISO-8859-1 : un caractère par octet
+            form.input[i] = (byte) query.charAt(i);
+        }
+        form.parse(form.input, length);
+        return form;
+    }
+
+    static FormData decode(byte[] body) {
+        FormData form = REUSABLE.get();
+        form.parse(body, body.length);
+        return form;
+    }
+
+    // Null si le champ est absent ou vide ; en cas de doublon, la première occurrence l'emporte
+    String get(String name) {
+        return fields.get(name);
+    }
+
+    private void parse(byte[] data, int length) {
+        fields.clear();
+        if (decoded.length < length) {
+            decoded = new byte[Math.max(length, decoded.length * 2)];
+        }
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            int equals = -1;
+            while (end < length && data[end] != '&') {
+                if (equals < 0 && data[end] == '=') {
+                    equals = end;
+                }
+                end++;
+            }
+            if (equals > start && equals + 1 < end) {
+                String name = decodeRange(data, start, equals);
+                if (!fields.containsKey(name)) {
+                    fields.put(name, decodeRange(data, equals + 1, end));
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    // Décodage des %XX et des '+' puis interprétation UTF-8 ; une séquence % invalide est gardée telle quelle
+    private String decodeRange(byte[] data, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            byte b = data[i];
+            if (b == '+') {
+                b = ' ';
+            } else if (b == '%' && i + 2 < end) {
+                int high = Character.digit(data[i + 1], 16);
+                int low = Character.digit(data[i + 2], 16);
+                if (high >= 0 && low >= 0) {
+                    b = (byte) (high << 4 | low);
+                    i += 2;
+                }
+            }
+            decoded[count++] = b;
+        }
+        return new String(decoded, 0, count, StandardCharsets.UTF_8);
+    }
+}
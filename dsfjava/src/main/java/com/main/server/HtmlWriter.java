@@ -0,0 +1,104 @@
+package com.main.server;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Écriture d'une page HTML en octets UTF-8 dans un tampon : les fragments pré-encodés des gabarits
+// sont recopiés tels quels, seul le texte dynamique est encodé au moment de la requête
+final class HtmlWriter implements Flushable {
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int count;
+
+    HtmlWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    HtmlWriter write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - count) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return this;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+        return this;
+    }
+
+    // Texte saisi par le client et renvoyé dans la page : les caractères spéciaux HTML sont échappés
+    HtmlWriter appendEscaped(String text) throws IOException {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String entity;
+            switch (text.charAt(i)) {
+                case '&': entity = "&amp;"; break;
+                case '<': entity = "&lt;"; break;
+                case '>': entity = "&gt;"; break;
+                case '"': entity = "&quot;"; break;
+                case '\'': entity = "&#39;"; break;
+                default: continue;
+            }
+            append(text.substring(start, i)).append(entity);
+            start = i + 1;
+        }
+        return append(start == 0 ? text : text.substring(start));
+    }
+
+    // Texte inséré tel quel, encodé en UTF-8 ; une valeur null est écrite "null", comme Writer.append
+    HtmlWriter append(String text) throws IOException {
+        if (text == null) {
+            text = "null";
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            // Au plus 4 octets par caractère
+            if (count + 4 > buffer.length) {
+                flushBuffer();
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Demi-paire isolée : remplacée comme le fait String.getBytes
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    HtmlWriter append(long value) throws IOException {
+        return append(Long.toString(value));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
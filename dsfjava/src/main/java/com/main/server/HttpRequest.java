@@ -0,0 +1,71 @@
+package com.main.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+public class HttpRequest {
+    private final String method;
+    private final String path;
+    private final String version;
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    // Les noms d'en-têtes sont attendus en minuscules
+    public HttpRequest(String method, String path, String version, Map<String, String> headers, byte[] body) {
+        this.method = method;
+        this.path = path;
+        this.version = version;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    // HTTP/1.1 : connexion persistante par défaut ; HTTP/1.0 : seulement sur demande explicite
+    public boolean isKeepAliveRequested() {
+        String connection = getHeader("connection");
+        if (connection != null) {
+            String value = connection.toLowerCase(Locale.ROOT);
+            if (value.contains("close")) {
+                return false;
+            }
+            if (value.contains("keep-alive")) {
+                return true;
+            }
+        }
+        return "HTTP/1.1".equals(version);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path + " " + version;
+    }
+}
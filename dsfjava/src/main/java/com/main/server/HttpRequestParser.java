@@ -0,0 +1,382 @@
+package com.main.server;
+
+import com.main.exception.HttpParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Analyseur HTTP/1.1 incrémental : accepte les octets au fil de l'eau, quel que soit le découpage réseau.
+// Travaille directement sur les octets reçus : les lignes sont copiées en bloc dans un tampon réutilisé
+// d'une requête à l'autre, les méthodes, versions et en-têtes courants sont reconnus sans créer de chaîne.
+// Le corps est lu d'après Content-Length ou reconstitué à partir d'un encodage chunked.
+public class HttpRequestParser {
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+    private static final int MAX_HEADER_BYTES = 32 * 1024;
+    // Taille maximale du corps des routes qui ne déclarent pas de limite
+    public static final int DEFAULT_MAX_BODY_LENGTH = 1024 * 1024;
+    // Taille initiale du corps d'une requête chunked, agrandi au fil des morceaux
+    private static final int INITIAL_CHUNKED_BODY = 4 * 1024;
+    private static final byte[] NO_BODY = new byte[0];
+
+    private static final String[] KNOWN_METHODS = {"GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS", "PATCH"};
+    private static final String[] KNOWN_VERSIONS = {"HTTP/1.1", "HTTP/1.0"};
+    // Noms d'en-têtes en minuscules, comparés sans tenir compte de la casse
+    private static final String[] KNOWN_HEADERS = {
+            "host", "connection", "content-length", "content-type", "transfer-encoding", "accept",
+            "accept-encoding", "accept-language", "user-agent", "if-none-match", "cache-control",
+            "cookie", "referer", "origin", "expect", "upgrade-insecure-requests"
+    };
+
+    // Taille maximale du corps d'une requête, déclarée par les routes ; path contient la chaîne de requête
+    public interface BodyLimits {
+        int maxBodyLength(String method, String path);
+    }
+
+    private enum State {
+        REQUEST_LINE,
+        HEADERS,
+        BODY,
+        CHUNK_SIZE,
+        CHUNK_DATA,
+        CHUNK_END,
+        TRAILERS,
+        COMPLETE
+    }
+
+    private final BodyLimits bodyLimits;
+    private State state = State.REQUEST_LINE;
+    // Ligne en cours, sans le CRLF final ; conservée d'une requête à l'autre
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int headerBytes;
+
+    private String method;
+    private String path;
+    private String version;
+    private Map<String, String> headers;
+    private byte[] body;
+    private int bodyLength;
+    private int maxBodyLength;
+    private int chunkRemaining;
+    private HttpRequest request;
+
+    public HttpRequestParser() {
+        this((method, path) -> DEFAULT_MAX_BODY_LENGTH);
+    }
+
+    public HttpRequestParser(BodyLimits bodyLimits) {
+        this.bodyLimits = bodyLimits;
+    }
+
+    // Consomme les octets disponibles et renvoie true dès qu'une requête est complète.
+    // Les octets suivants restent dans le tampon.
+    public boolean parse(ByteBuffer buffer) throws HttpParseException {
+        while (state != State.COMPLETE && buffer.hasRemaining()) {
+            if (state == State.BODY) {
+                bodyLength += copy(buffer, body.length - bodyLength);
+                if (bodyLength == body.length) {
+                    complete();
+                }
+            } else if (state == State.CHUNK_DATA) {
+                int count = copy(buffer, chunkRemaining);
+                bodyLength += count;
+                chunkRemaining -= count;
+                if (chunkRemaining == 0) {
+                    state = State.CHUNK_END;
+                }
+            } else {
+                readLine(buffer);
+            }
+        }
+        return state == State.COMPLETE;
+    }
+
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    // Vrai si aucun octet de la requête suivante n'a encore été reçu
+    public boolean isIdle() {
+        return state == State.REQUEST_LINE && lineLength == 0;
+    }
+
+    public void reset() {
+        state = State.REQUEST_LINE;
+        lineLength = 0;
+        headerBytes = 0;
+        method = null;
+        path = null;
+        version = null;
+        headers = null;
+        body = null;
+        bodyLength = 0;
+        maxBodyLength = 0;
+        chunkRemaining = 0;
+        request = null;
+    }
+
+    private int copy(ByteBuffer buffer, int wanted) {
+        int count = Math.min(buffer.remaining(), wanted);
+        buffer.get(body, bodyLength, count);
+        return count;
+    }
+
+    // Copie en bloc jusqu'au prochain saut de ligne, puis traite la ligne si elle est complète
+    private void readLine(ByteBuffer buffer) throws HttpParseException {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int end = start;
+        while (end < limit && buffer.get(end) != '\n') {
+            end++;
+        }
+        int count = end - start;
+        if (lineLength + count > MAX_LINE_LENGTH) {
+            throw new HttpParseException(state == State.REQUEST_LINE ? 414 : 431, "Ligne de requête trop longue");
+        }
+        if (lineLength + count > line.length) {
+            line = Arrays.copyOf(line, Math.min(Math.max(line.length * 2, lineLength + count), MAX_LINE_LENGTH));
+        }
+        buffer.get(line, lineLength, count);
+        lineLength += count;
+        if (end < limit) {
+            buffer.get();
+            headerBytes += lineLength + 2;
+            if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                lineLength--;
+            }
+            int length = lineLength;
+            lineLength = 0;
+            onLine(length);
+        }
+    }
+
+    private void onLine(int length) throws HttpParseException {
+        switch (state) {
+            case REQUEST_LINE:
+                if (length == 0) {
+                    // Lignes vides tolérées avant la ligne de requête
+                    headerBytes = 0;
+                    return;
+                }
+                parseRequestLine(length);
+                headers = new LinkedHashMap<>();
+                state = State.HEADERS;
+                break;
+            case HEADERS:
+                if (length == 0) {
+                    endOfHeaders();
+                } else {
+                    checkHeaderBytes();
+                    parseHeader(length);
+                }
+                break;
+            case CHUNK_SIZE:
+                startChunk(length);
+                break;
+            case CHUNK_END:
+                if (length != 0) {
+                    throw new HttpParseException("Morceau de corps mal terminé");
+                }
+                state = State.CHUNK_SIZE;
+                break;
+            case TRAILERS:
+                // Les en-têtes de fin de corps sont ignorés
+                if (length == 0) {
+                    body = bodyLength == body.length ? body : Arrays.copyOf(body, bodyLength);
+                    complete();
+                } else {
+                    checkHeaderBytes();
+                }
+                break;
+            default:
+                throw new IllegalStateException(state.name());
+        }
+    }
+
+    private void checkHeaderBytes() throws HttpParseException {
+        if (headerBytes > MAX_HEADER_BYTES) {
+            throw new HttpParseException(431, "En-têtes trop volumineux");
+        }
+    }
+
+    private void parseRequestLine(int length) throws HttpParseException {
+        int firstSpace = indexOf(' ', 0, length);
+        int secondSpace = firstSpace < 0 ? -1 : indexOf(' ', firstSpace + 1, length);
+        if (firstSpace <= 0 || secondSpace < 0 || secondSpace == firstSpace + 1) {
+            throw new HttpParseException("Format de requête invalide");
+        }
+        int versionEnd = length;
+        while (versionEnd > secondSpace + 1 && line[versionEnd - 1] == ' ') {
+            versionEnd--;
+        }
+        method = text(KNOWN_METHODS, 0, firstSpace, false);
+        path = new String(line, firstSpace + 1, secondSpace - firstSpace - 1, StandardCharsets.ISO_8859_1);
+        version = text(KNOWN_VERSIONS, secondSpace + 1, versionEnd, false);
+        if (!version.startsWith("HTTP/")) {
+            throw new HttpParseException("Format de requête invalide");
+        }
+    }
+
+    private void parseHeader(int length) throws HttpParseException {
+        if (line[0] == ' ' || line[0] == '\t') {
+            // Repli d'en-tête sur plusieurs lignes, obsolète (RFC 7230, 3.2.4)
+            throw new HttpParseException("En-tête replié non supporté");
+        }
+        int colon = indexOf(':', 0, length);
+        int nameEnd = colon;
+        while (nameEnd > 0 && isWhitespace(line[nameEnd - 1])) {
+            nameEnd--;
+        }
+        if (nameEnd <= 0) {
+            throw new HttpParseException("En-tête invalide : " + new String(line, 0, length, StandardCharsets.ISO_8859_1));
+        }
+        int valueStart = colon + 1;
+        int valueEnd = length;
+        while (valueStart < valueEnd && isWhitespace(line[valueStart])) {
+            valueStart++;
+        }
+        while (valueEnd > valueStart && isWhitespace(line[valueEnd - 1])) {
+            valueEnd--;
+        }
+        String name = text(KNOWN_HEADERS, 0, nameEnd, true);
+        String value = new String(line, valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1);
+        String previous = headers.get(name);
+        headers.put(name, previous == null ? value : previous + ", " + value);
+    }
+
+    private void endOfHeaders() throws HttpParseException {
+        maxBodyLength = bodyLimits.maxBodyLength(method, path);
+        String transferEncoding = headers.get("transfer-encoding");
+        String lengthHeader = headers.get("content-length");
+        if (transferEncoding != null) {
+            // Les deux en-têtes ensemble permettent de désynchroniser un proxy et le serveur
+            if (lengthHeader != null) {
+                throw new HttpParseException("Content-Length et Transfer-Encoding ne peuvent pas être combinés");
+            }
+            if (!transferEncoding.equalsIgnoreCase("chunked")) {
+                throw new HttpParseException(501, "Transfer-Encoding non supporté : " + transferEncoding);
+            }
+            body = new byte[INITIAL_CHUNKED_BODY];
+            bodyLength = 0;
+            state = State.CHUNK_SIZE;
+            return;
+        }
+
+        int contentLength = lengthHeader == null ? 0 : parseContentLength(lengthHeader);
+        body = contentLength == 0 ? NO_BODY : new byte[contentLength];
+        bodyLength = 0;
+        if (contentLength == 0) {
+            complete();
+        } else {
+            state = State.BODY;
+        }
+    }
+
+    // Chiffres décimaux uniquement : ni signe, ni espace, ni liste de valeurs (en-tête répété)
+    private int parseContentLength(String value) throws HttpParseException {
+        if (value.isEmpty()) {
+            throw new HttpParseException("Content-Length invalide : " + value);
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new HttpParseException("Content-Length invalide : " + value);
+            }
+            length = length * 10 + (c - '0');
+            if (length > maxBodyLength) {
+                throw new HttpParseException(413, "Corps de requête trop volumineux");
+            }
+        }
+        return (int) length;
+    }
+
+    // Ligne de taille d'un morceau : hexadécimal, éventuellement suivi d'extensions ";nom=valeur" ignorées
+    private void startChunk(int length) throws HttpParseException {
+        int end = indexOf(';', 0, length);
+        if (end < 0) {
+            end = length;
+        }
+        while (end > 0 && isWhitespace(line[end - 1])) {
+            end--;
+        }
+        if (end == 0) {
+            throw new HttpParseException("Taille de morceau invalide");
+        }
+        long size = 0;
+        for (int i = 0; i < end; i++) {
+            int digit = Character.digit(line[i], 16);
+            if (digit < 0) {
+                throw new HttpParseException("Taille de morceau invalide");
+            }
+            size = size * 16 + digit;
+            if (bodyLength + size > maxBodyLength) {
+                throw new HttpParseException(413, "Corps de requête trop volumineux");
+            }
+        }
+        if (size == 0) {
+            state = State.TRAILERS;
+            return;
+        }
+        int needed = bodyLength + (int) size;
+        if (needed > body.length) {
+            body = Arrays.copyOf(body, (int) Math.min(Math.max((long) body.length * 2, needed), maxBodyLength));
+        }
+        chunkRemaining = (int) size;
+        state = State.CHUNK_DATA;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    // Chaîne connue si les octets lui correspondent, sinon nouvelle chaîne (en minuscules si demandé)
+    private String text(String[] known, int from, int to, boolean ignoreCase) {
+        int length = to - from;
+        for (String candidate : known) {
+            if (candidate.length() == length && matches(candidate, from, ignoreCase)) {
+                return candidate;
+            }
+        }
+        if (!ignoreCase) {
+            return new String(line, from, length, StandardCharsets.ISO_8859_1);
+        }
+        char[] lower = new char[length];
+        for (int i = 0; i < length; i++) {
+            lower[i] = toLowerCase(line[from + i]);
+        }
+        return new String(lower);
+    }
+
+    private boolean matches(String candidate, int from, boolean ignoreCase) {
+        for (int i = 0; i < candidate.length(); i++) {
+            char c = (char) (line[from + i] & 0xFF);
+            if (c != candidate.charAt(i) && !(ignoreCase && toLowerCase(line[from + i]) == candidate.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char toLowerCase(byte b) {
+        char c = (char) (b & 0xFF);
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private void complete() {
+        request = new HttpRequest(method, path, version, headers, body);
+        state = State.COMPLETE;
+    }
+}
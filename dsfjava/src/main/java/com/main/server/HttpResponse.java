@@ -0,0 +1,158 @@
+package com.main.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class HttpResponse {
+    private static final byte[] NO_BODY = new byte[0];
+
+    // Produit le corps d'une réponse en flux, au fil de l'écriture
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+    private final BodyWriter bodyWriter;
+    private final Map<String, String> headers;
+    // Sans encodage chunked (client HTTP/1.0), la fin du corps est signalée par la fermeture de la connexion
+    private boolean chunked;
+
+    public HttpResponse(int status, String contentType, byte[] body) {
+        this(status, contentType, body, null);
+    }
+
+    private HttpResponse(int status, String contentType, byte[] body, BodyWriter bodyWriter) {
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+        this.bodyWriter = bodyWriter;
+        this.headers = new LinkedHashMap<>();
+        this.chunked = bodyWriter != null;
+    }
+
+    public static HttpResponse html(int status, String html) {
+        return new HttpResponse(status, "text/html; charset=UTF-8", html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Réponse envoyée en Transfer-Encoding: chunked, sans taille connue ni copie complète en mémoire
+    public static HttpResponse streaming(int status, String contentType, BodyWriter bodyWriter) {
+        return new HttpResponse(status, contentType, NO_BODY, bodyWriter);
+    }
+
+    public HttpResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    // Même réponse (statut, type, en-têtes) avec un autre corps : utilisé pour la compression
+    HttpResponse withBody(byte[] newBody) {
+        HttpResponse copy = new HttpResponse(status, contentType, newBody, null);
+        copy.headers.putAll(headers);
+        return copy;
+    }
+
+    HttpResponse withBodyWriter(BodyWriter newBodyWriter) {
+        HttpResponse copy = new HttpResponse(status, contentType, NO_BODY, newBodyWriter);
+        copy.headers.putAll(headers);
+        copy.chunked = chunked;
+        return copy;
+    }
+
+    BodyWriter getBodyWriter() {
+        return bodyWriter;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // Vide pour une réponse en flux
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isStreaming() {
+        return bodyWriter != null;
+    }
+
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    public HttpResponse disableChunkedEncoding() {
+        this.chunked = false;
+        return this;
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    // Ligne de statut et en-têtes, terminés par la ligne vide
+    public byte[] encodeHead() {
+        StringBuilder head = new StringBuilder(128);
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reasonPhrase(status)).append("\r\n");
+        head.append("Content-Type: ").append(contentType).append("\r\n");
+        if (chunked) {
+            head.append("Transfer-Encoding: chunked\r\n");
+        } else if (bodyWriter == null && status != 204 && status != 304) {
+            // Une réponse 204 ou 304 n'a jamais de corps ni de Content-Length
+            head.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append("\r\n");
+        return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(encodeHead());
+        if (bodyWriter != null) {
+            writeBody(out);
+        } else {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    // Écrit le corps d'une réponse en flux, découpé en chunks si nécessaire
+    public void writeBody(OutputStream out) throws IOException {
+        if (chunked) {
+            ChunkedOutputStream chunks = new ChunkedOutputStream(out);
+            bodyWriter.writeTo(chunks);
+            chunks.finish();
+        } else {
+            bodyWriter.writeTo(out);
+        }
+        out.flush();
+    }
+
+    static String reasonPhrase(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 201: return "Created";
+            case 204: return "No Content";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 413: return "Payload Too Large";
+            case 414: return "URI Too Long";
+            case 431: return "Request Header Fields Too Large";
+            case 500: return "Internal Server Error";
+            case 501: return "Not Implemented";
+            case 503: return "Service Unavailable";
+            default: return "Unknown";
+        }
+    }
+}
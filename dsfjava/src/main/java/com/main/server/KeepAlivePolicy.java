@@ -0,0 +1,35 @@
+package com.main.server;
+
+// Décide si une connexion reste ouverte après une réponse et pose les en-têtes correspondants
+final class KeepAlivePolicy {
+    private final ServerConfig config;
+    private final ConnectionStats stats;
+
+    KeepAlivePolicy(ServerConfig config, ConnectionStats stats) {
+        this.config = config;
+        this.stats = stats;
+    }
+
+    // served : nombre de requêtes traitées sur la connexion, celle-ci comprise
+    boolean apply(HttpRequest request, HttpResponse response, int served) {
+        boolean keepAlive = config.getKeepAliveTimeoutMillis() > 0
+                && request != null
+                && request.isKeepAliveRequested()
+                && response.getStatus() != 503
+                // Corps en flux non chunked : seule la fermeture en marque la fin
+                && (!response.isStreaming() || response.isChunked());
+        if (keepAlive && served >= config.getMaxRequestsPerConnection()) {
+            stats.maxRequestsReached();
+            keepAlive = false;
+        }
+
+        if (keepAlive) {
+            response.header("Connection", "keep-alive");
+            response.header("Keep-Alive", "timeout=" + Math.max(1, config.getKeepAliveTimeoutMillis() / 1000)
+                    + ", max=" + (config.getMaxRequestsPerConnection() - served));
+        } else {
+            response.header("Connection", "close");
+        }
+        return keepAlive;
+    }
+}
@@ -0,0 +1,466 @@
+package com.main.server;
+
+import com.main.exception.HttpParseException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Transport non bloquant : quelques boucles Selector se partagent toutes les connexions,
+// seules les requêtes complètes occupent un thread du pool
+public class NioTransport implements Transport {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int ACCEPT_BACKLOG = 1024;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final TodoServer server;
+    private final ServerConfig config;
+    private final WorkerPool workers;
+    private final ConnectionStats stats;
+    private final KeepAlivePolicy keepAlivePolicy;
+    private final ServerMetrics metrics;
+    private final AccessLog accessLog;
+
+    public NioTransport(TodoServer server, ServerConfig config, WorkerPool workers) {
+        this.server = server;
+        this.config = config;
+        this.workers = workers;
+        this.stats = server.getConnectionStats();
+        this.keepAlivePolicy = new KeepAlivePolicy(config, stats);
+        this.metrics = server.getMetrics();
+        this.accessLog = server.getAccessLog();
+    }
+
+    @Override
+    public void serve() throws IOException {
+        EventLoop[] loops = new EventLoop[config.getSelectorThreads()];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop();
+            Thread thread = new Thread(loops[i], "todo-nio-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try (ServerSocketChannel acceptor = ServerSocketChannel.open()) {
+            acceptor.bind(new InetSocketAddress(config.getPort()), ACCEPT_BACKLOG);
+            int next = 0;
+            while (true) {
+                SocketChannel channel = acceptor.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            }
+        } finally {
+            for (EventLoop loop : loops) {
+                loop.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "NIO (" + config.getSelectorThreads() + " sélecteur(s))";
+    }
+
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        // Tampons directs partagés par toutes les connexions de la boucle
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> responded = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> streamed = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+        private long lastSweep = System.currentTimeMillis();
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            accepted.add(channel);
+            selector.wakeup();
+        }
+
+        // Appelé depuis un thread du pool quand la réponse est prête
+        void responseReady(Connection connection) {
+            responded.add(connection);
+            selector.wakeup();
+        }
+
+        // Appelé depuis un thread du pool quand un morceau de réponse en flux est disponible
+        void streamReady(Connection connection) {
+            streamed.add(connection);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select(SWEEP_INTERVAL_MILLIS);
+                    registerAccepted();
+                    sendResponses();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.onWritable();
+                            }
+                        } catch (IOException e) {
+                            metrics.ioError();
+                            connection.close();
+                        }
+                    }
+
+                    closeIdleConnections();
+                } catch (IOException e) {
+                    metrics.ioError();
+                    System.err.println("Erreur dans la boucle NIO : " + e.getMessage());
+                }
+            }
+
+            for (SelectionKey key : selector.keys()) {
+                ((Connection) key.attachment()).close();
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la fermeture du sélecteur : " + e.getMessage());
+            }
+        }
+
+        private void registerAccepted() {
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null) {
+                Connection connection = new Connection(this, channel, stats.connectionOpened());
+                try {
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    connection.close();
+                }
+            }
+        }
+
+        private void sendResponses() {
+            Connection connection;
+            while ((connection = responded.poll()) != null) {
+                if (connection.key.isValid()) {
+                    try {
+                        connection.respond(connection.pending);
+                    } catch (IOException e) {
+                        metrics.ioError();
+                        connection.close();
+                    }
+                }
+            }
+            while ((connection = streamed.poll()) != null) {
+                if (connection.key.isValid() && connection.stream != null && connection.writing) {
+                    try {
+                        connection.onWritable();
+                    } catch (IOException e) {
+                        metrics.ioError();
+                        connection.close();
+                    }
+                }
+            }
+        }
+
+        // Ferme les connexions inactives ou trop lentes, sans toucher aux requêtes en cours de traitement
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastSweep < SWEEP_INTERVAL_MILLIS) {
+                return;
+            }
+            lastSweep = now;
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if (!connection.inFlight && now - connection.lastActivity > connection.timeoutMillis()) {
+                    if (connection.isWaitingForRequest()) {
+                        stats.idleTimeout();
+                    }
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private final class Connection {
+        private final EventLoop loop;
+        private final SocketChannel channel;
+        private final long id;
+        private final HttpRequestParser parser = new HttpRequestParser(server::maxBodyLength);
+        private SelectionKey key;
+        private long lastActivity = System.currentTimeMillis();
+        private boolean inFlight;
+        private boolean writing;
+        private boolean keepAlive;
+        private boolean closed;
+        private int served;
+        private HttpRequest current;
+        private volatile HttpResponse pending;
+        // Corps de la réponse en flux en cours, produit par un thread du pool
+        private volatile ResponsePipe stream;
+        // Octets reçus après une requête complète (pipeline), traités une fois la réponse envoyée
+        private ByteBuffer pendingInput;
+
+        private byte[] head;
+        private byte[] body;
+        private int written;
+        // Requête en cours pour les métriques : de sa réception complète au dernier octet de la réponse
+        private ServerMetrics.Route route;
+        // Null pour une requête mal formée
+        private HttpRequest logged;
+        private long startNanos;
+        private int status;
+        private long bytesSent;
+
+        Connection(EventLoop loop, SocketChannel channel, long id) {
+            this.loop = loop;
+            this.channel = channel;
+            this.id = id;
+        }
+
+        void onReadable() throws IOException {
+            ByteBuffer buffer = loop.readBuffer;
+            buffer.clear();
+            int count = channel.read(buffer);
+            if (count < 0) {
+                close();
+                return;
+            }
+            lastActivity = System.currentTimeMillis();
+            buffer.flip();
+            process(buffer);
+        }
+
+        // Renvoie true si une requête complète a été transmise au pool
+        private boolean process(ByteBuffer buffer) throws IOException {
+            try {
+                if (!parser.parse(buffer)) {
+                    return false;
+                }
+            } catch (HttpParseException e) {
+                key.interestOps(0);
+                current = null;
+                route = metrics.invalidRoute();
+                logged = null;
+                startNanos = metrics.requestStarted();
+                respond(server.errorResponse(e.getStatusCode(), e.getMessage()));
+                return true;
+            }
+
+            HttpRequest request = parser.getRequest();
+            parser.reset();
+            if (buffer.hasRemaining()) {
+                pendingInput = ByteBuffer.allocate(buffer.remaining());
+                pendingInput.put(buffer);
+                pendingInput.flip();
+            }
+            dispatch(request);
+            return true;
+        }
+
+        private void dispatch(final HttpRequest request) throws IOException {
+            inFlight = true;
+            current = request;
+            route = metrics.route(request);
+            logged = request;
+            startNanos = metrics.requestStarted();
+            key.interestOps(0);
+            boolean accepted = workers.tryExecute(() -> {
+                HttpResponse response;
+                try {
+                    response = server.handle(request);
+                } catch (RuntimeException e) {
+                    metrics.internalError();
+                    response = server.errorResponse(500, "Erreur interne : " + e.getMessage());
+                }
+                if (!response.isStreaming()) {
+                    pending = response;
+                    loop.responseReady(this);
+                    return;
+                }
+
+                // L'en-tête part dès maintenant, le corps suit au fil de sa production
+                ResponsePipe pipe = new ResponsePipe(() -> loop.streamReady(this));
+                stream = pipe;
+                pending = response;
+                loop.responseReady(this);
+                try {
+                    response.writeBody(pipe);
+                    pipe.close();
+                } catch (IOException | RuntimeException e) {
+                    pipe.fail();
+                }
+            });
+            if (!accepted) {
+                respond(server.unavailableResponse());
+            }
+        }
+
+        void respond(HttpResponse response) throws IOException {
+            inFlight = false;
+            pending = null;
+            stats.requestServed(served);
+            served++;
+            keepAlive = keepAlivePolicy.apply(current, response, served);
+            current = null;
+
+            head = response.encodeHead();
+            body = response.getBody();
+            written = 0;
+            writing = true;
+            status = response.getStatus();
+            bytesSent = head.length + body.length;
+            onWritable();
+        }
+
+        void onWritable() throws IOException {
+            while (true) {
+                if (!writePending()) {
+                    return;
+                }
+                ResponsePipe pipe = stream;
+                if (pipe == null) {
+                    break;
+                }
+                // "finished" est lu avant poll : un flux terminé n'a plus de morceau en route
+                boolean finished = pipe.isFinished();
+                byte[] chunk = pipe.poll();
+                if (chunk == null) {
+                    if (pipe.isFailed()) {
+                        close();
+                        return;
+                    }
+                    if (!finished) {
+                        // En attente du producteur, qui réveillera la boucle
+                        key.interestOps(0);
+                        return;
+                    }
+                    stream = null;
+                    break;
+                }
+                head = EMPTY;
+                body = chunk;
+                written = 0;
+                bytesSent += chunk.length;
+            }
+            responseSent();
+        }
+
+        // Renvoie false si le tampon d'émission est plein avant la fin des données en cours
+        private boolean writePending() throws IOException {
+            int total = head.length + body.length;
+            ByteBuffer buffer = loop.writeBuffer;
+            while (written < total) {
+                buffer.clear();
+                int offset = written;
+                if (offset < head.length) {
+                    int count = Math.min(head.length - offset, buffer.remaining());
+                    buffer.put(head, offset, count);
+                    offset += count;
+                }
+                if (offset >= head.length && buffer.hasRemaining()) {
+                    int bodyOffset = offset - head.length;
+                    buffer.put(body, bodyOffset, Math.min(body.length - bodyOffset, buffer.remaining()));
+                }
+                buffer.flip();
+
+                written += channel.write(buffer);
+                lastActivity = System.currentTimeMillis();
+                if (buffer.hasRemaining()) {
+                    // Tampon d'émission plein : on attend que le socket soit de nouveau inscriptible
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void responseSent() throws IOException {
+            writing = false;
+            head = null;
+            body = null;
+            if (route != null) {
+                log(status, bytesSent, metrics.requestCompleted(route, status, startNanos, bytesSent));
+            }
+            if (!keepAlive) {
+                close();
+                return;
+            }
+
+            // Requête suivante déjà reçue en pipeline : traitement immédiat, sinon retour en lecture
+            ByteBuffer input = pendingInput;
+            pendingInput = null;
+            if (input == null || !process(input)) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        // Délai applicable selon l'état : attente d'une nouvelle requête ou requête/réponse en cours
+        long timeoutMillis() {
+            return isWaitingForRequest() ? config.getKeepAliveTimeoutMillis() : config.getReadTimeoutMillis();
+        }
+
+        boolean isWaitingForRequest() {
+            return !writing && served > 0 && parser.isIdle();
+        }
+
+        private void log(int status, long bytes, long durationNanos) {
+            HttpRequest request = logged;
+            if (request == null) {
+                accessLog.log(id, AccessLog.UNKNOWN, AccessLog.UNKNOWN, status, bytes, durationNanos);
+            } else {
+                accessLog.log(id, request.getMethod(), request.getPath(), status, bytes, durationNanos);
+            }
+            route = null;
+            logged = null;
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stats.connectionClosed();
+            if (route != null) {
+                // Statut 0 dans le journal : réponse interrompue
+                log(0, 0, metrics.requestAborted(route, startNanos));
+            }
+            ResponsePipe pipe = stream;
+            if (pipe != null) {
+                pipe.cancel();
+            }
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
+            }
+        }
+    }
+}
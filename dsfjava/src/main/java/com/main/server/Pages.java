@@ -0,0 +1,226 @@
+package com.main.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Gabarits des pages HTML, compilés au chargement de la classe, et feuille de style commune
+// servie sur STYLESHEET_PATH avec un ETag pour être mise en cache par le navigateur
+final class Pages {
+    static final String STYLESHEET_PATH = "/style.css";
+    static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+    static final String CSS_CONTENT_TYPE = "text/css; charset=UTF-8";
+
+    static final byte[] STYLESHEET = (
+            "body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }\n"
+            + ".container { max-width: 800px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }\n"
+            + ".narrow { max-width: 600px; }\n"
+            + ".centered { text-align: center; }\n"
+            + "h1 { color: #333; }\n"
+            + ".home h1 { text-align: center; }\n"
+            + ".success h1 { color: #28a745; }\n"
+            + ".error h1 { color: #dc3545; }\n"
+            + "nav { margin: 20px 0; }\n"
+            + "nav ul { list-style: none; padding: 0; display: flex; justify-content: center; gap: 20px; }\n"
+            + "nav a { text-decoration: none; color: #007bff; padding: 10px 20px; border: 1px solid #007bff; border-radius: 5px; }\n"
+            + "nav a:hover { background-color: #007bff; color: white; }\n"
+            + ".actions { margin: 20px 0; text-align: center; }\n"
+            + ".btn { display: inline-block; padding: 10px 20px; border: none; border-radius: 5px; cursor: pointer; font-size: 16px; text-decoration: none; color: white; }\n"
+            + ".actions .btn { margin: 5px; }\n"
+            + ".btn-primary { background-color: #007bff; }\n"
+            + ".btn-success { background-color: #28a745; }\n"
+            + ".btn-secondary { background-color: #6c757d; }\n"
+            + ".back-link { margin-bottom: 20px; }\n"
+            + ".back-link a { color: #007bff; text-decoration: none; }\n"
+            + ".user-list, .task-list { list-style: none; padding: 0; }\n"
+            + ".user-item { background: #f8f9fa; margin: 10px 0; padding: 15px; border-radius: 5px; border-left: 4px solid #007bff; }\n"
+            + ".user-name { font-weight: bold; color: #333; }\n"
+            + ".user-id { color: #666; font-size: 0.9em; }\n"
+            + ".task-item { background: #f8f9fa; margin: 10px 0; padding: 15px; border-radius: 5px; border-left: 4px solid #28a745; }\n"
+            + ".task-title { font-weight: bold; color: #333; font-size: 1.1em; }\n"
+            + ".task-desc { color: #666; margin: 5px 0; }\n"
+            + ".task-meta { color: #888; font-size: 0.9em; }\n"
+            + ".task-done { border-left-color: #28a745; }\n"
+            + ".task-pending { border-left-color: #ffc107; }\n"
+            + ".delete-form { display: inline; }\n"
+            + ".search-form { display: flex; gap: 10px; margin: 20px 0; }\n"
+            + ".delete-btn { background: #dc3545; color: white; border: none; padding: 5px 10px; border-radius: 3px; cursor: pointer; }\n"
+            + ".sort-links, .page-links { margin: 10px 0; }\n"
+            + ".sort-links a, .page-links a { color: #007bff; text-decoration: none; margin-right: 10px; }\n"
+            + ".form-group { margin: 15px 0; }\n"
+            + "label { display: block; margin-bottom: 5px; font-weight: bold; }\n"
+            + "input[type='text'], textarea, select { width: 100%; padding: 10px; border: 1px solid #ddd; border-radius: 5px; font-size: 16px; }\n"
+            + "textarea { height: 100px; resize: vertical; }\n"
+            + ".details { background: #f8f9fa; padding: 15px; margin: 20px 0; border-radius: 5px; text-align: left; }\n"
+            + ".error-message { background: #f8d7da; color: #721c24; padding: 15px; margin: 20px 0; border-radius: 5px; }\n"
+            + ".stats-grid { display: grid; grid-template-columns: repeat(auto-fit, minmax(200px, 1fr)); gap: 20px; margin-top: 20px; }\n"
+            + ".stat-card { background: #f8f9fa; padding: 20px; border-radius: 8px; text-align: center; }\n"
+            + ".stat-number { font-size: 2em; font-weight: bold; color: #007bff; }\n"
+            + ".stat-label { color: #666; margin-top: 5px; }\n"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    // Change avec le contenu de la feuille de style, donc à chaque nouvelle version du serveur
+    static final String STYLESHEET_ETAG = etag(STYLESHEET);
+
+    // Pages sans partie dynamique, rendues une seule fois
+    static final byte[] MAIN_PAGE = Template.compile(page("TODO List - Accueil", "container home",
+            "<h1>📋 Système TODO List</h1>"
+            + "<nav><ul>"
+            + "<li><a href='/users'>👥 Gérer les utilisateurs</a></li>"
+            + "<li><a href='/tasks'>📝 Gérer les tâches</a></li>"
+            + "<li><a href='/search'>🔍 Rechercher</a></li>"
+            + "<li><a href='/stats'>📊 Statistiques</a></li>"
+            + "</ul></nav>"
+            + "<div class='actions'>"
+            + "<a href='/create-user-form' class='btn btn-primary'>➕ Créer un utilisateur</a>"
+            + "<a href='/create-task-form' class='btn btn-success'>➕ Créer une tâche</a>"
+            + "</div>")).toBytes();
+
+    static final byte[] CREATE_USER_FORM = Template.compile(page("Créer un utilisateur", "container narrow",
+            "<h1>👤 Créer un utilisateur</h1>"
+            + "<form method='POST' action='/create-user'>"
+            + "<div class='form-group'>"
+            + "<label for='firstName'>Prénom :</label>"
+            + "<input type='text' id='firstName' name='firstName' required>"
+            + "</div>"
+            + "<div class='form-group'>"
+            + "<button type='submit' class='btn btn-primary'>Créer l'utilisateur</button>"
+            + "<a href='/users' class='btn btn-secondary'>Annuler</a>"
+            + "</div>"
+            + "</form>")).toBytes();
+
+    static final Template CREATE_TASK_FORM = Template.compile(page("Créer une tâche", "container narrow",
+            "<h1>📝 Créer une tâche</h1>"
+            + "<form method='POST' action='/create-task'>"
+            + "<div class='form-group'>"
+            + "<label for='title'>Titre :</label>"
+            + "<input type='text' id='title' name='title' required>"
+            + "</div>"
+            + "<div class='form-group'>"
+            + "<label for='description'>Description :</label>"
+            + "<textarea id='description' name='description'></textarea>"
+            + "</div>"
+            + "<div class='form-group'>"
+            + "<label for='userId'>Utilisateur :</label>"
+            + "<select id='userId' name='userId' required>"
+            + "<option value=''>Choisir un utilisateur</option>"
+            + "{{options}}"
+            + "</select>"
+            + "</div>"
+            + "<div class='form-group'>"
+            + "<label for='dueDate'>Date d'échéance (optionnel) :</label>"
+            + "<input type='text' id='dueDate' name='dueDate' placeholder='dd/MM/yyyy'>"
+            + "</div>"
+            + "<div class='form-group'>"
+            + "<button type='submit' class='btn btn-primary'>Créer la tâche</button>"
+            + "<a href='/tasks' class='btn btn-secondary'>Annuler</a>"
+            + "</div>"
+            + "</form>"));
+
+    static final Template USER_OPTION = Template.compile("<option value='{{id}}'>{{firstName}}</option>");
+
+    static final Template USERS_PAGE = Template.compile(page("Utilisateurs", "container",
+            "<h1>👥 Liste des utilisateurs</h1>"
+            + "<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>"
+            + "<p>{{count}} utilisateur(s)</p>"
+            + "{{sortLinks}}{{users}}{{pageLinks}}"));
+
+    static final Template USER_ITEM = Template.compile("<li class='user-item'>"
+            + "<div class='user-name'>{{firstName}}</div>"
+            + "<div class='user-id'>ID: {{id}}</div>"
+            + "<div class='user-id'><a href='/user/{{id}}'>{{taskCount}} tâche(s)</a>, {{completedCount}} terminée(s)</div>"
+            + "<form method='POST' action='/delete-user' class='delete-form'>"
+            + "<input type='hidden' name='userId' value='{{id}}'>"
+            + "<button type='submit' class='delete-btn'>🗑️ Supprimer</button>"
+            + "</form>"
+            + "</li>");
+
+    static final Template TASKS_PAGE = Template.compile(page("Tâches", "container",
+            "<h1>📝 Liste des tâches</h1>"
+            + "<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>"
+            + "<p>{{count}} tâche(s)</p>"
+            + "{{sortLinks}}{{tasks}}{{pageLinks}}"));
+
+    static final Template TASK_ITEM = Template.compile(taskItem(""));
+    static final Template DATED_TASK_ITEM = Template.compile(taskItem(" | Échéance: {{dueDate}}"));
+
+    static final Template SEARCH_PAGE = Template.compile(page("Recherche", "container",
+            "<h1>🔍 Rechercher des tâches</h1>"
+            + "<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>"
+            + "<form method='GET' action='/search' class='search-form'>"
+            + "<input type='text' name='q' value='{{query}}' placeholder='Mots du titre ou de la description' autofocus>"
+            + "<button type='submit' class='btn btn-primary'>Rechercher</button>"
+            + "</form>"
+            + "{{results}}"));
+
+    static final Template USER_TASKS_PAGE = Template.compile(page("Tâches de l'utilisateur", "container",
+            "<h1>Tâches de l'utilisateur {{userId}}</h1>"
+            + "<div class='back-link'><a href='/users'>← Retour aux utilisateurs</a></div>"
+            + "{{tasks}}"));
+
+    static final Template SUCCESS_PAGE = Template.compile(successPage(""));
+    static final Template SUCCESS_PAGE_WITH_DETAILS = Template.compile(successPage("<div class='details'>{{details}}</div>"));
+
+    static final Template ERROR_PAGE = Template.compile(page("Erreur", "container narrow centered error",
+            "<h1>❌ Erreur</h1>"
+            + "<div class='error-message'>{{message}}</div>"
+            + "<a href='/' class='btn btn-primary'>Retour à l'accueil</a>"));
+
+    static final Template STATS_PAGE = Template.compile(page("Statistiques", "container",
+            "<h1>📊 Statistiques</h1>"
+            + "<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>"
+            + "<div class='stats-grid'>"
+            + statCard("users", "Utilisateurs")
+            + statCard("tasks", "Tâches totales")
+            + statCard("completed", "Tâches terminées")
+            + statCard("pending", "Tâches en attente")
+            + statCard("overdue", "Tâches en retard")
+            + statCard("upcoming", "Tâches à venir")
+            + "</div>"
+            + "<h2>🔌 Connexions</h2>"
+            + "<div class='stats-grid'>"
+            + statCard("activeConnections", "Connexions ouvertes")
+            + statCard("openedConnections", "Connexions acceptées")
+            + statCard("requests", "Requêtes traitées")
+            + statCard("reusedRequests", "Requêtes sur connexion réutilisée")
+            + statCard("idleTimeouts", "Fermetures pour inactivité")
+            + statCard("maxRequestsReached", "Fermetures (max requêtes atteint)")
+            + "</div>"));
+
+    private Pages() {
+    }
+
+    // Squelette commun : titre, feuille de style partagée et conteneur principal
+    private static String page(String title, String containerClass, String content) {
+        return "<html><head><title>" + title + "</title>"
+                + "<link rel='stylesheet' href='" + STYLESHEET_PATH + "'></head><body>"
+                + "<div class='" + containerClass + "'>" + content + "</div></body></html>";
+    }
+
+    private static String taskItem(String dueDate) {
+        return "<li class='task-item {{statusClass}}'>"
+                + "<div class='task-title'>{{title}}</div>"
+                + "<div class='task-desc'>{{description}}</div>"
+                + "<div class='task-meta'>Créée par: {{creator}} | ID: {{id}}" + dueDate + " | {{status}}</div>"
+                + "<form method='POST' action='/delete-task' class='delete-form'>"
+                + "<input type='hidden' name='taskId' value='{{id}}'>"
+                + "<button type='submit' class='delete-btn'>🗑️ Supprimer</button>"
+                + "</form>"
+                + "</li>";
+    }
+
+    private static String successPage(String details) {
+        return page("Succès", "container narrow centered success",
+                "<h1>✅ {{title}}</h1>" + details + "<a href='{{backUrl}}' class='btn btn-primary'>Retour</a>");
+    }
+
+    private static String statCard(String slot, String label) {
+        return "<div class='stat-card'><div class='stat-number'>{{" + slot + "}}</div>"
+                + "<div class='stat-label'>" + label + "</div></div>";
+    }
+
+    private static String etag(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return "\"" + Long.toHexString(crc.getValue()) + "-" + content.length + "\"";
+    }
+}
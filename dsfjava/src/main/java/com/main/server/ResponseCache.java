@@ -0,0 +1,72 @@
+package com.main.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Cache des pages rendues, indexé par route : chaque corps est associé à la version des données
+// lue avant son calcul et n'est resservi que tant que cette version est la version courante.
+// La taille totale est bornée ; les pages les moins récemment servies sont évincées en premier.
+// Chaque corps est conservé avec sa variante compressée, pour ne compresser une page qu'une fois.
+final class ResponseCache {
+    // Surcoût approximatif d'une entrée (nœud, clé, tableau) en plus de la taille du corps
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private static final class Entry {
+        private final long version;
+        private final ResponseCompressor.PrecompressedBody body;
+        private final long size;
+
+        private Entry(long version, ResponseCompressor.PrecompressedBody body, long size) {
+            this.version = version;
+            this.body = body;
+            this.size = size;
+        }
+    }
+
+    private final long maxBytes;
+    // Ordre d'accès : la première entrée est la moins récemment utilisée
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+
+    ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // Corps calculé à cette version, null s'il est absent ou périmé
+    synchronized ResponseCompressor.PrecompressedBody get(String key, long version) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version != version) {
+            entries.remove(key);
+            size -= entry.size;
+            return null;
+        }
+        return entry.body;
+    }
+
+    // Une page plus grande qu'un huitième du cache n'est pas conservée, pour ne pas le vider à elle seule
+    synchronized void put(String key, long version, ResponseCompressor.PrecompressedBody body) {
+        long entrySize = body.getRetainedBytes() + 2L * key.length() + ENTRY_OVERHEAD;
+        if (entrySize > maxBytes / 8) {
+            return;
+        }
+        Entry previous = entries.get(key);
+        if (previous != null && previous.version > version) {
+            // Une version plus récente a déjà été calculée par une autre requête
+            return;
+        }
+        previous = entries.put(key, new Entry(version, body, entrySize));
+        if (previous != null) {
+            size -= previous.size;
+        }
+        size += entrySize;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (size > maxBytes && eldest.hasNext()) {
+            size -= eldest.next().getValue().size;
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.main.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Compression des réponses selon Accept-Encoding (gzip de préférence, sinon deflate).
+// Un corps en mémoire n'est compressé qu'à partir du seuil configuré ; un corps en flux l'est toujours,
+// sa taille n'étant pas connue. Les Deflater proviennent de DeflaterPool.
+final class ResponseCompressor {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // En-tête gzip minimal : méthode deflate, sans nom ni date (RFC 1952)
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    // Corps en mémoire accompagné de sa variante gzip, calculée une seule fois
+    // (pages statiques et pages du cache) ; gzip est null sous le seuil de compression
+    static final class PrecompressedBody {
+        private final byte[] identity;
+        private final byte[] gzip;
+
+        private PrecompressedBody(byte[] identity, byte[] gzip) {
+            this.identity = identity;
+            this.gzip = gzip;
+        }
+
+        byte[] getIdentity() {
+            return identity;
+        }
+
+        // Octets conservés en mémoire, variantes comprises
+        long getRetainedBytes() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    // Taille minimale d'un corps en mémoire à compresser, négative si la compression est désactivée
+    private final int threshold;
+
+    ResponseCompressor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    PrecompressedBody precompress(byte[] body) {
+        boolean compress = threshold >= 0 && body.length >= threshold;
+        return new PrecompressedBody(body, compress ? compress(body, ContentCoding.GZIP) : null);
+    }
+
+    // Réponse portant la variante pré-compressée si le client accepte gzip ; pour un client qui
+    // n'accepte que deflate, le corps est compressé par apply comme une réponse ordinaire
+    HttpResponse respond(HttpRequest request, int status, String contentType, PrecompressedBody body) {
+        if (body.gzip != null && ContentCoding.negotiate(request.getHeader("accept-encoding")) == ContentCoding.GZIP) {
+            return new HttpResponse(status, contentType, body.gzip)
+                    .header("Content-Encoding", ContentCoding.GZIP.getToken());
+        }
+        return new HttpResponse(status, contentType, body.identity);
+    }
+
+    HttpResponse apply(HttpRequest request, HttpResponse response) {
+        if (threshold < 0 || !isCompressible(response.getContentType())) {
+            return response;
+        }
+        response.header("Vary", "Accept-Encoding");
+        if (response.getHeader("Content-Encoding") != null) {
+            // Variante pré-compressée choisie par respond
+            return weakenEtag(response);
+        }
+        if (response.getStatus() == 204 || response.getStatus() == 304) {
+            return response;
+        }
+        ContentCoding coding = ContentCoding.negotiate(request.getHeader("accept-encoding"));
+        if (coding == ContentCoding.IDENTITY) {
+            return response;
+        }
+        HttpResponse compressed;
+        if (response.isStreaming()) {
+            HttpResponse.BodyWriter body = response.getBodyWriter();
+            compressed = response.withBodyWriter(out -> {
+                CompressingOutputStream compressing = new CompressingOutputStream(out, coding);
+                try {
+                    body.writeTo(compressing);
+                    compressing.finish();
+                } finally {
+                    compressing.release();
+                }
+            });
+        } else if (response.getBody().length >= threshold) {
+            compressed = response.withBody(compress(response.getBody(), coding));
+        } else {
+            return response;
+        }
+        return weakenEtag(compressed.header("Content-Encoding", coding.getToken()));
+    }
+
+    // Le corps compressé n'est plus identique octet pour octet à l'original : l'ETag devient faible
+    private static HttpResponse weakenEtag(HttpResponse response) {
+        String etag = response.getHeader("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            response.header("ETag", "W/" + etag);
+        }
+        return response;
+    }
+
+    static byte[] compress(byte[] data, ContentCoding coding) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        CompressingOutputStream compressing = new CompressingOutputStream(bytes, coding);
+        try {
+            compressing.write(data, 0, data.length);
+            compressing.finish();
+        } catch (IOException e) {
+            // Écriture en mémoire : impossible
+            throw new IllegalStateException(e);
+        } finally {
+            compressing.release();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean isCompressible(String contentType) {
+        return contentType != null && (contentType.startsWith("text/") || contentType.contains("json")
+                || contentType.contains("xml") || contentType.contains("javascript"));
+    }
+
+    // Flux compressé en gzip (deflate brut encadré par l'en-tête et la somme CRC32) ou en zlib.
+    // finish termine le flux compressé sans fermer le flux sous-jacent ; release rend le Deflater.
+    static final class CompressingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private Deflater deflater;
+        // Données confiées au Deflater depuis le dernier flush
+        private boolean pending;
+        private boolean finished;
+
+        CompressingOutputStream(OutputStream out, ContentCoding coding) {
+            this.out = out;
+            this.gzip = coding == ContentCoding.GZIP;
+            this.crc = gzip ? new CRC32() : null;
+            this.deflater = DeflaterPool.borrow(gzip);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            writeHeader();
+            if (gzip) {
+                crc.update(bytes, offset, length);
+            }
+            deflater.setInput(bytes, offset, length);
+            pending = true;
+            while (!deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+        }
+
+        // Envoie tout ce qui a été écrit jusqu'ici, au prix d'un bloc deflate terminé plus tôt
+        @Override
+        public void flush() throws IOException {
+            if (pending && !finished) {
+                int count;
+                do {
+                    count = deflate(Deflater.SYNC_FLUSH);
+                } while (count == buffer.length);
+                pending = false;
+            }
+            out.flush();
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            writeHeader();
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            if (gzip) {
+                writeIntLittleEndian((int) crc.getValue());
+                writeIntLittleEndian((int) deflater.getBytesRead());
+            }
+            finished = true;
+        }
+
+        void release() {
+            if (deflater != null) {
+                DeflaterPool.release(deflater, gzip);
+                deflater = null;
+            }
+        }
+
+        private boolean headerWritten;
+
+        private void writeHeader() throws IOException {
+            if (gzip && !headerWritten) {
+                out.write(GZIP_HEADER);
+            }
+            headerWritten = true;
+        }
+
+        private int deflate(int flush) throws IOException {
+            int count = deflater.deflate(buffer, 0, buffer.length, flush);
+            if (count > 0) {
+                out.write(buffer, 0, count);
+            }
+            return count;
+        }
+
+        private void writeIntLittleEndian(int value) throws IOException {
+            out.write(value & 0xFF);
+            out.write((value >> 8) & 0xFF);
+            out.write((value >> 16) & 0xFF);
+            out.write((value >>> 24) & 0xFF);
+        }
+    }
+}
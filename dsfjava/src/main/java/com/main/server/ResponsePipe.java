@@ -0,0 +1,122 @@
+package com.main.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+// Passage du corps d'une réponse en flux entre le thread du pool qui le produit et la boucle NIO
+// qui l'envoie. La file est bornée : le producteur attend quand le client lit moins vite,
+// la mémoire utilisée par connexion reste constante.
+final class ResponsePipe extends OutputStream {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int MAX_PENDING_CHUNKS = 4;
+
+    // Prévient la boucle NIO que des données ou la fin du flux sont disponibles
+    private final Runnable onData;
+    private final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private int count;
+    private volatile boolean finished;
+    private volatile boolean failed;
+    private boolean cancelled;
+
+    ResponsePipe(Runnable onData) {
+        this.onData = onData;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            handOff();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (count == buffer.length) {
+                handOff();
+            }
+            int copied = Math.min(length, buffer.length - count);
+            System.arraycopy(bytes, offset, buffer, count, copied);
+            count += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        handOff();
+    }
+
+    // Fin normale du corps, appelée par le producteur
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        handOff();
+        finished = true;
+        onData.run();
+    }
+
+    // Erreur du producteur : la connexion sera fermée sans terminer la réponse
+    void fail() {
+        failed = true;
+        onData.run();
+    }
+
+    // Connexion fermée côté boucle : le producteur bloqué est libéré et reçoit une IOException
+    synchronized void cancel() {
+        cancelled = true;
+        notifyAll();
+    }
+
+    // Appelé par la boucle NIO ; null si aucun morceau n'est disponible pour le moment
+    synchronized byte[] poll() {
+        byte[] chunk = chunks.poll();
+        if (chunk != null) {
+            notifyAll();
+        }
+        return chunk;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    private void handOff() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        byte[] chunk = Arrays.copyOf(buffer, count);
+        count = 0;
+        boolean wasEmpty;
+        synchronized (this) {
+            while (chunks.size() >= MAX_PENDING_CHUNKS && !cancelled) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Envoi de la réponse interrompu");
+                }
+            }
+            if (cancelled) {
+                throw new IOException("Connexion fermée pendant l'envoi de la réponse");
+            }
+            wasEmpty = chunks.isEmpty();
+            chunks.add(chunk);
+        }
+        // La boucle n'attend de nouvelles données que lorsque la file est vide
+        if (wasEmpty) {
+            onData.run();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.main.server;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+// Fichier journal à rotation par taille : access.log devient access.log.1, access.log.1 devient access.log.2...
+// au-delà de maxFiles fichiers, le plus ancien est supprimé. Utilisé par un seul thread.
+final class RotatingLogFile extends OutputStream {
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+    private OutputStream out;
+    private long size;
+
+    RotatingLogFile(Path path, long maxBytes, int maxFiles) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        size += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // Appelé entre deux lots : un fichier peut dépasser la taille maximale de la fin d'un lot
+    void rotateIfNeeded() throws IOException {
+        if (size < maxBytes) {
+            return;
+        }
+        out.close();
+        Files.deleteIfExists(numbered(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path older = numbered(i);
+            if (Files.exists(older)) {
+                Files.move(older, numbered(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(path, numbered(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+        open();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        // Ajout à la fin : un redémarrage continue le fichier courant
+        out = new FileOutputStream(path.toFile(), true);
+        size = Files.size(path);
+    }
+
+    private Path numbered(int index) {
+        return Paths.get(path.toString() + "." + index);
+    }
+}
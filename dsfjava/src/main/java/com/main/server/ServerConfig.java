@@ -0,0 +1,308 @@
+package com.main.server;
+
+public class ServerConfig {
+
+    // Modèle d'exécution des connexions
+    public enum ExecutionMode {
+        POOL,
+        VIRTUAL
+    }
+
+    // Couche réseau
+    public enum TransportType {
+        BLOCKING,
+        NIO
+    }
+
+    // Comportement du journal des accès quand son tampon est plein
+    public enum AccessLogPolicy {
+        // L'entrée est perdue et comptée, la requête n'attend jamais
+        DROP,
+        // Le thread qui a servi la requête attend qu'une place se libère
+        BLOCK
+    }
+
+    private int port = 8080;
+    private TransportType transport = TransportType.BLOCKING;
+    private int selectorThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private ExecutionMode executionMode = ExecutionMode.POOL;
+    private int workerThreads = Runtime.getRuntime().availableProcessors() * 2;
+    private int queueCapacity = 256;
+    private int maxConcurrentConnections = 10_000;
+    private int readTimeoutMillis = 10_000;
+    private int keepAliveTimeoutMillis = 5_000;
+    private int maxRequestsPerConnection = 100;
+    private int responseCacheMegabytes = 16;
+    private int compressionThreshold = 1024;
+    // Null : pas de journal des accès
+    private String accessLogPath;
+    private int accessLogBufferSize = 8192;
+    private int accessLogMaxMegabytes = 10;
+    private int accessLogMaxFiles = 5;
+    private AccessLogPolicy accessLogPolicy = AccessLogPolicy.DROP;
+
+    public ServerConfig() {
+        // Configuration par défaut
+    }
+
+    // Lecture de la configuration depuis les propriétés système (-Dtodo.server.xxx=...)
+    public static ServerConfig fromSystemProperties() {
+        ServerConfig config = new ServerConfig();
+        config.port(Integer.getInteger("todo.server.port", config.port));
+        config.selectorThreads(Integer.getInteger("todo.server.selectors", config.selectorThreads));
+        config.workerThreads(Integer.getInteger("todo.server.threads", config.workerThreads));
+        config.queueCapacity(Integer.getInteger("todo.server.queue", config.queueCapacity));
+        config.maxConcurrentConnections(Integer.getInteger("todo.server.maxConnections", config.maxConcurrentConnections));
+        config.readTimeoutMillis(Integer.getInteger("todo.server.readTimeout", config.readTimeoutMillis));
+        config.keepAliveTimeoutMillis(Integer.getInteger("todo.server.keepAliveTimeout", config.keepAliveTimeoutMillis));
+        config.maxRequestsPerConnection(Integer.getInteger("todo.server.maxRequestsPerConnection", config.maxRequestsPerConnection));
+        config.responseCacheMegabytes(Integer.getInteger("todo.server.cacheSize", config.responseCacheMegabytes));
+        config.compressionThreshold(Integer.getInteger("todo.server.compressionThreshold", config.compressionThreshold));
+        config.accessLogBufferSize(Integer.getInteger("todo.server.accessLogBuffer", config.accessLogBufferSize));
+        config.accessLogMaxMegabytes(Integer.getInteger("todo.server.accessLogMaxSize", config.accessLogMaxMegabytes));
+        config.accessLogMaxFiles(Integer.getInteger("todo.server.accessLogFiles", config.accessLogMaxFiles));
+
+        String accessLog = System.getProperty("todo.server.accessLog");
+        if (accessLog != null && !accessLog.trim().isEmpty()) {
+            config.accessLogPath(accessLog.trim());
+        }
+
+        String policy = System.getProperty("todo.server.accessLogPolicy");
+        if (policy != null && !policy.trim().isEmpty()) {
+            try {
+                config.accessLogPolicy(AccessLogPolicy.valueOf(policy.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Politique du journal des accès inconnue : " + policy + " (drop ou block)");
+            }
+        }
+
+        String transport = System.getProperty("todo.server.transport");
+        if (transport != null && !transport.trim().isEmpty()) {
+            try {
+                config.transport(TransportType.valueOf(transport.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Transport inconnu : " + transport + " (blocking ou nio)");
+            }
+        }
+
+        String mode = System.getProperty("todo.server.execution");
+        if (mode != null && !mode.trim().isEmpty()) {
+            try {
+                config.executionMode(ExecutionMode.valueOf(mode.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Mode d'exécution inconnu : " + mode + " (pool ou virtual)");
+            }
+        }
+        return config;
+    }
+
+    public ServerConfig port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public ServerConfig transport(TransportType transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    public ServerConfig selectorThreads(int selectorThreads) {
+        if (selectorThreads < 1) {
+            throw new IllegalArgumentException("Le nombre de sélecteurs doit être positif");
+        }
+        this.selectorThreads = selectorThreads;
+        return this;
+    }
+
+    public ServerConfig executionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    public ServerConfig workerThreads(int workerThreads) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("Le nombre de threads doit être positif");
+        }
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    public ServerConfig queueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("La taille de la file d'attente doit être positive");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public ServerConfig maxConcurrentConnections(int maxConcurrentConnections) {
+        if (maxConcurrentConnections < 1) {
+            throw new IllegalArgumentException("Le nombre maximal de connexions doit être positif");
+        }
+        this.maxConcurrentConnections = maxConcurrentConnections;
+        return this;
+    }
+
+    public ServerConfig readTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
+    // 0 désactive les connexions persistantes
+    public ServerConfig keepAliveTimeoutMillis(int keepAliveTimeoutMillis) {
+        this.keepAliveTimeoutMillis = keepAliveTimeoutMillis;
+        return this;
+    }
+
+    public ServerConfig maxRequestsPerConnection(int maxRequestsPerConnection) {
+        if (maxRequestsPerConnection < 1) {
+            throw new IllegalArgumentException("Le nombre de requêtes par connexion doit être positif");
+        }
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+        return this;
+    }
+
+    // Taille du cache des pages rendues, 0 pour le désactiver
+    public ServerConfig responseCacheMegabytes(int responseCacheMegabytes) {
+        if (responseCacheMegabytes < 0) {
+            throw new IllegalArgumentException("La taille du cache ne peut pas être négative");
+        }
+        this.responseCacheMegabytes = responseCacheMegabytes;
+        return this;
+    }
+
+    // Taille minimale (en octets) d'un corps compressé en gzip ou deflate, -1 pour désactiver la compression
+    public ServerConfig compressionThreshold(int compressionThreshold) {
+        if (compressionThreshold < -1) {
+            throw new IllegalArgumentException("Le seuil de compression doit être positif, ou -1 pour la désactiver");
+        }
+        this.compressionThreshold = compressionThreshold;
+        return this;
+    }
+
+    // Fichier du journal des accès, null pour le désactiver
+    public ServerConfig accessLogPath(String accessLogPath) {
+        this.accessLogPath = accessLogPath;
+        return this;
+    }
+
+    // Nombre d'entrées en attente d'écriture, arrondi à la puissance de deux supérieure
+    public ServerConfig accessLogBufferSize(int accessLogBufferSize) {
+        if (accessLogBufferSize < 1 || accessLogBufferSize > 1 << 24) {
+            throw new IllegalArgumentException("La taille du tampon du journal des accès doit être comprise entre 1 et 16777216");
+        }
+        this.accessLogBufferSize = accessLogBufferSize;
+        return this;
+    }
+
+    // Taille d'un fichier du journal des accès avant rotation
+    public ServerConfig accessLogMaxMegabytes(int accessLogMaxMegabytes) {
+        if (accessLogMaxMegabytes < 1) {
+            throw new IllegalArgumentException("La taille maximale du journal des accès doit être positive");
+        }
+        this.accessLogMaxMegabytes = accessLogMaxMegabytes;
+        return this;
+    }
+
+    // Nombre de fichiers conservés, fichier courant compris
+    public ServerConfig accessLogMaxFiles(int accessLogMaxFiles) {
+        if (accessLogMaxFiles < 1) {
+            throw new IllegalArgumentException("Le nombre de fichiers du journal des accès doit être positif");
+        }
+        this.accessLogMaxFiles = accessLogMaxFiles;
+        return this;
+    }
+
+    public ServerConfig accessLogPolicy(AccessLogPolicy accessLogPolicy) {
+        this.accessLogPolicy = accessLogPolicy;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public TransportType getTransport() {
+        return transport;
+    }
+
+    public int getSelectorThreads() {
+        return selectorThreads;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getMaxConcurrentConnections() {
+        return maxConcurrentConnections;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public int getKeepAliveTimeoutMillis() {
+        return keepAliveTimeoutMillis;
+    }
+
+    public int getMaxRequestsPerConnection() {
+        return maxRequestsPerConnection;
+    }
+
+    public int getResponseCacheMegabytes() {
+        return responseCacheMegabytes;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public String getAccessLogPath() {
+        return accessLogPath;
+    }
+
+    public int getAccessLogBufferSize() {
+        return accessLogBufferSize;
+    }
+
+    public int getAccessLogMaxMegabytes() {
+        return accessLogMaxMegabytes;
+    }
+
+    public int getAccessLogMaxFiles() {
+        return accessLogMaxFiles;
+    }
+
+    public AccessLogPolicy getAccessLogPolicy() {
+        return accessLogPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerConfig{" +
+                "port=" + port +
+                ", transport=" + transport +
+                ", selectorThreads=" + selectorThreads +
+                ", executionMode=" + executionMode +
+                ", workerThreads=" + workerThreads +
+                ", queueCapacity=" + queueCapacity +
+                ", maxConcurrentConnections=" + maxConcurrentConnections +
+                ", readTimeoutMillis=" + readTimeoutMillis +
+                ", keepAliveTimeoutMillis=" + keepAliveTimeoutMillis +
+                ", maxRequestsPerConnection=" + maxRequestsPerConnection +
+                ", responseCacheMegabytes=" + responseCacheMegabytes +
+                ", compressionThreshold=" + compressionThreshold +
+                ", accessLogPath=" + accessLogPath +
+                ", accessLogPolicy=" + accessLogPolicy +
+                '}';
+    }
+}
@@ -0,0 +1,184 @@
+package com.main.server;
+
+import com.main.metrics.Histogram;
+import com.main.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métriques HTTP du serveur, par route : nombre de requêtes, erreurs, durée et taille des réponses.
+// Les routes sont des modèles fixes (/user/{id}) créés au démarrage : une requête ne crée jamais de série,
+// et son enregistrement ne fait qu'incrémenter des LongAdder, sans verrou ni allocation.
+final class ServerMetrics {
+    static final String METRICS_PATH = "/metrics";
+
+    // Série de métriques d'une route
+    static final class Route {
+        private final String method;
+        private final String pattern;
+        // Le modèle couvre tous les chemins qui commencent par pattern (identifiant en fin de chemin)
+        private final boolean prefix;
+        private final LongAdder requests;
+        private final LongAdder errors;
+        private final Histogram duration;
+        private final Histogram size;
+
+        private Route(MetricsRegistry registry, String method, String pattern, boolean prefix, String label) {
+            this.method = method;
+            this.pattern = pattern;
+            this.prefix = prefix;
+            String[] labels = {"method", method, "route", label};
+            this.requests = registry.counter("todo_http_requests_total", "Requêtes HTTP traitées", labels);
+            this.errors = registry.counter("todo_http_errors_total",
+                    "Réponses d'erreur (statut 400 ou plus) et réponses interrompues", labels);
+            this.duration = registry.latencyHistogram("todo_http_request_duration_seconds",
+                    "Durée entre la réception complète de la requête et l'envoi du dernier octet de la réponse", labels);
+            this.size = registry.histogram("todo_http_response_size_bytes", "Taille des réponses, en-têtes compris",
+                    Histogram.SIZE_BUCKETS_BYTES, 1, labels);
+        }
+
+        // end : fin du chemin, avant la chaîne de requête
+        private boolean matches(String requestMethod, String path, int end) {
+            if (!method.equals(requestMethod) || !path.startsWith(pattern)) {
+                return false;
+            }
+            return prefix ? end > pattern.length() : end == pattern.length();
+        }
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+    // Requêtes qui ne correspondent à aucune route connue, pour ne pas multiplier les séries
+    private final Route otherGet;
+    private final Route otherPost;
+    private final Route other;
+    // Requêtes mal formées, rejetées avant d'être lues en entier
+    private final Route invalid;
+    private final LongAdder inFlight;
+    private final LongAdder internalErrors;
+    private final LongAdder ioErrors;
+
+    ServerMetrics(MetricsRegistry registry, ConnectionStats connections) {
+        add(registry, "GET", "/", "/");
+        add(registry, "GET", "/index", "/");
+        add(registry, "GET", Pages.STYLESHEET_PATH, Pages.STYLESHEET_PATH);
+        add(registry, "GET", "/users", "/users");
+        add(registry, "GET", "/tasks", "/tasks");
+        add(registry, "GET", "/search", "/search");
+        add(registry, "GET", "/stats", "/stats");
+        add(registry, "GET", METRICS_PATH, METRICS_PATH);
+        addPrefix(registry, "GET", "/user/", "/user/{id}");
+        add(registry, "GET", "/create-user-form", "/create-user-form");
+        add(registry, "GET", "/create-task-form", "/create-task-form");
+        add(registry, "POST", "/create-user", "/create-user");
+        add(registry, "POST", "/create-task", "/create-task");
+        add(registry, "POST", "/delete-user", "/delete-user");
+        add(registry, "POST", "/delete-task", "/delete-task");
+
+        String api = ApiHandler.PREFIX;
+        for (String method : new String[]{"GET", "POST"}) {
+            add(registry, method, api + "users", api + "users");
+            add(registry, method, api + "tasks", api + "tasks");
+        }
+        add(registry, "POST", ApiHandler.IMPORT_PATH, ApiHandler.IMPORT_PATH);
+        add(registry, "GET", api + "export/tasks", api + "export/tasks");
+        add(registry, "GET", api + "export/users", api + "export/users");
+        add(registry, "GET", api + "stats", api + "stats");
+        for (String method : new String[]{"GET", "DELETE"}) {
+            addPrefix(registry, method, api + "users/", api + "users/{id}");
+        }
+        for (String method : new String[]{"GET", "PUT", "DELETE"}) {
+            addPrefix(registry, method, api + "tasks/", api + "tasks/{id}");
+        }
+
+        otherGet = new Route(registry, "GET", "", true, "autre");
+        otherPost = new Route(registry, "POST", "", true, "autre");
+        other = new Route(registry, "autre", "", true, "autre");
+        invalid = new Route(registry, "autre", "", true, "invalide");
+
+        inFlight = new LongAdder();
+        registry.gauge("todo_http_requests_in_flight", "Requêtes reçues dont la réponse n'est pas encore envoyée",
+                inFlight::sum);
+        internalErrors = registry.counter("todo_server_internal_errors_total",
+                "Exceptions inattendues levées pendant le traitement d'une requête");
+        ioErrors = registry.counter("todo_server_io_errors_total", "Erreurs d'entrée-sortie sur les connexions");
+        registry.gauge("todo_http_connections_active", "Connexions ouvertes", connections::getActiveConnections);
+        registry.counterFunction("todo_http_connections_opened_total", "Connexions acceptées",
+                connections::getOpenedConnections);
+        registry.counterFunction("todo_http_keepalive_reused_requests_total",
+                "Requêtes reçues sur une connexion déjà utilisée", connections::getReusedRequests);
+        registry.counterFunction("todo_http_keepalive_idle_timeouts_total",
+                "Connexions fermées après le délai d'inactivité keep-alive", connections::getIdleTimeouts);
+        registry.counterFunction("todo_http_keepalive_max_requests_total",
+                "Connexions fermées après le nombre maximal de requêtes", connections::getMaxRequestsReached);
+    }
+
+    private void add(MetricsRegistry registry, String method, String path, String label) {
+        routes.add(new Route(registry, method, path, false, label));
+    }
+
+    private void addPrefix(MetricsRegistry registry, String method, String path, String label) {
+        routes.add(new Route(registry, method, path, true, label));
+    }
+
+    // Route de la requête, sans allocation ; les modèles exacts sont déclarés avant les préfixes qui les couvrent
+    Route route(HttpRequest request) {
+        String method = request.getMethod();
+        String path = request.getPath();
+        int end = path.indexOf('?');
+        if (end < 0) {
+            end = path.length();
+        }
+        for (int i = 0; i < routes.size(); i++) {
+            Route route = routes.get(i);
+            if (route.matches(method, path, end)) {
+                return route;
+            }
+        }
+        if (method.equals("GET")) {
+            return otherGet;
+        }
+        return method.equals("POST") ? otherPost : other;
+    }
+
+    Route invalidRoute() {
+        return invalid;
+    }
+
+    // Renvoie l'instant de départ à passer à requestCompleted ou requestAborted
+    long requestStarted() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    // Renvoie la durée de la requête en nanosecondes
+    long requestCompleted(Route route, int status, long startNanos, long bytes) {
+        long duration = System.nanoTime() - startNanos;
+        inFlight.decrement();
+        route.requests.increment();
+        if (status >= 400) {
+            route.errors.increment();
+        }
+        route.duration.record(duration);
+        route.size.record(bytes);
+        return duration;
+    }
+
+    // Connexion perdue avant la fin de la réponse
+    long requestAborted(Route route, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        inFlight.decrement();
+        route.requests.increment();
+        route.errors.increment();
+        route.duration.record(duration);
+        return duration;
+    }
+
+    void internalError() {
+        internalErrors.increment();
+    }
+
+    void ioError() {
+        ioErrors.increment();
+    }
+}
@@ -0,0 +1,105 @@
+package com.main.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Gabarit de page compilé une seule fois : le texte statique est découpé autour des emplacements
+// {{nom}} et encodé en UTF-8 au chargement ; le rendu n'écrit plus que les valeurs dynamiques.
+// Les valeurs sont fournies dans l'ordre de première apparition des noms ; un nom répété
+// reprend la même valeur.
+final class Template {
+    // Contenu d'un emplacement produit au moment du rendu (liste, liens...)
+    interface Slot {
+        void write(HtmlWriter html) throws IOException;
+    }
+
+    private final byte[][] fragments;
+    // Valeur à écrire après chaque fragment, sauf le dernier
+    private final int[] valueIndexes;
+    private final String[] names;
+
+    private Template(byte[][] fragments, int[] valueIndexes, String[] names) {
+        this.fragments = fragments;
+        this.valueIndexes = valueIndexes;
+        this.names = names;
+    }
+
+    static Template compile(String source) {
+        List<byte[]> fragments = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> valueIndexes = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Emplacement non fermé à la position " + open);
+            }
+            fragments.add(source.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            String name = source.substring(open + 2, close);
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+            valueIndexes.add(names.indexOf(name));
+            position = close + 2;
+        }
+        fragments.add(source.substring(position).getBytes(StandardCharsets.UTF_8));
+        int[] indexes = new int[valueIndexes.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = valueIndexes.get(i);
+        }
+        return new Template(fragments.toArray(new byte[0][]), indexes, names.toArray(new String[0]));
+    }
+
+    void render(HtmlWriter html, String... values) throws IOException {
+        checkValueCount(values.length);
+        for (int i = 0; i < valueIndexes.length; i++) {
+            html.write(fragments[i]).append(values[valueIndexes[i]]);
+        }
+        html.write(fragments[valueIndexes.length]);
+    }
+
+    void render(HtmlWriter html, Slot... values) throws IOException {
+        checkValueCount(values.length);
+        for (int i = 0; i < valueIndexes.length; i++) {
+            html.write(fragments[i]);
+            values[valueIndexes[i]].write(html);
+        }
+        html.write(fragments[valueIndexes.length]);
+    }
+
+    // Rendu complet en mémoire, pour une réponse de taille connue ou une page statique pré-rendue :
+    // les valeurs sont encodées d'abord pour allouer le résultat à sa taille exacte
+    byte[] toBytes(String... values) {
+        checkValueCount(values.length);
+        byte[][] encoded = new byte[values.length][];
+        int length = fragments[valueIndexes.length].length;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = String.valueOf(values[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < valueIndexes.length; i++) {
+            length += fragments[i].length + encoded[valueIndexes[i]].length;
+        }
+        byte[] result = new byte[length];
+        int position = 0;
+        for (int i = 0; i < valueIndexes.length; i++) {
+            System.arraycopy(fragments[i], 0, result, position, fragments[i].length);
+            position += fragments[i].length;
+            byte[] value = encoded[valueIndexes[i]];
+            System.arraycopy(value, 0, result, position, value.length);
+            position += value.length;
+        }
+        byte[] last = fragments[valueIndexes.length];
+        System.arraycopy(last, 0, result, position, last.length);
+        return result;
+    }
+
+    private void checkValueCount(int count) {
+        if (count != names.length) {
+            throw new IllegalArgumentException("Le gabarit attend " + names.length + " valeur(s) ("
+                    + String.join(", ", names) + "), reçu " + count);
+        }
+    }
+}
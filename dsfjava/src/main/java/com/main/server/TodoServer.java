@@ -4,154 +4,265 @@ import com.main.database.DatabaseAccess;
 import com.main.model.User;
 import com.main.model.Task;
 import com.main.model.DatedTask;
+import com.main.model.Page;
+import com.main.model.SearchResult;
+import com.main.model.TaskSort;
+import com.main.model.UserSort;
 import com.main.exception.ElementNotFoundException;
+import com.main.metrics.MetricsRegistry;
+import com.main.service.TaskService;
 
-import java.io.*;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class TodoServer {
-    private static final int PORT = 8080;
+    // Génère une page directement dans le flux de réponse
+    private interface PageWriter {
+        void write(HtmlWriter html) throws IOException;
+    }
+
+    // Extrait les données d'une page ; une IllegalArgumentException signale un paramètre invalide
+    private interface PagePreparer {
+        PageWriter prepare();
+    }
+
+    // Nombre d'éléments par page quand le paramètre size est absent
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    // Revalidée au plus une fois par heure grâce à l'ETag
+    private static final String STYLESHEET_CACHE_CONTROL = "public, max-age=3600";
+    // Les pages de données sont revalidées à chaque affichage : 304 tant que rien n'a changé
+    private static final String PAGE_CACHE_CONTROL = "no-cache";
+    // Au-delà, la page des tâches d'un utilisateur est envoyée en flux sans être mise en cache
+    private static final int MAX_CACHED_USER_TASKS = 1000;
+    // Nombre de résultats d'une recherche quand le paramètre limit est absent
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    // Format texte d'exposition de Prometheus
+    private static final String METRICS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Fragments statiques des listes, encodés une seule fois
+    private static final byte[] SORT_LINKS_START = bytes("<div class='sort-links'>Trier par : ");
+    private static final byte[] PAGE_LINKS_START = bytes("<div class='page-links'>");
+    private static final byte[] LINK_START = bytes("<a href='");
+    private static final byte[] LINK_END = bytes("'>");
+    private static final byte[] LINK_CLOSE = bytes("</a> ");
+    private static final byte[] BOLD_START = bytes("<b>");
+    private static final byte[] BOLD_END_ASCENDING = bytes(" ↑</b>");
+    private static final byte[] BOLD_END_DESCENDING = bytes(" ↓</b>");
+    private static final byte[] FIRST_PAGE_LINK_END = bytes("'>⏮ Première page</a> ");
+    private static final byte[] NEXT_PAGE_LINK_END = bytes("'>Page suivante →</a>");
+    private static final byte[] DIV_END = bytes("</div>");
+    private static final byte[] USER_LIST_START = bytes("<ul class='user-list'>");
+    private static final byte[] TASK_LIST_START = bytes("<ul class='task-list'>");
+    private static final byte[] SIMPLE_LIST_START = bytes("<ul>");
+    private static final byte[] LIST_END = bytes("</ul>");
+    private static final byte[] ITEM_START = bytes("<li>");
+    private static final byte[] ITEM_END = bytes("</li>");
+    private static final byte[] NO_USERS = bytes("<p>Aucun utilisateur trouvé.</p>");
+    private static final byte[] NO_TASKS = bytes("<p>Aucune tâche trouvée.</p>");
+    private static final byte[] SEARCH_SUMMARY_START = bytes("<p>");
+    private static final byte[] SEARCH_SUMMARY_MATCHES = bytes(" tâche(s) trouvée(s)");
+    private static final byte[] SEARCH_SUMMARY_SHOWN = bytes(", les ");
+    private static final byte[] SEARCH_SUMMARY_SHOWN_END = bytes(" plus pertinentes affichées");
+    private static final byte[] NO_USER_TASKS = bytes("<p>Aucune tâche trouvée pour cet utilisateur.</p>");
+    private static final byte[] USER_NOT_FOUND_START = bytes("<p>Utilisateur non trouvé : ");
+    private static final byte[] PARAGRAPH_END = bytes("</p>");
+
+    private final ServerConfig config;
+    private final ConnectionStats connectionStats;
+    private final ServerMetrics metrics;
+    private final AccessLog accessLog;
     private DatabaseAccess database;
+    private final ApiHandler api;
+    private final TaskService taskService;
+    // Null si le cache est désactivé
+    private final ResponseCache responseCache;
+    private final ResponseCompressor compressor;
+    // Pages fixes accompagnées de leur variante gzip, compressées une fois au démarrage
+    private final ResponseCompressor.PrecompressedBody mainPage;
+    private final ResponseCompressor.PrecompressedBody createUserForm;
+    private final ResponseCompressor.PrecompressedBody stylesheet;
+    // Distingue les ETag de deux exécutions du serveur, dont les versions repartent de zéro
+    private final String etagPrefix;
     private DateTimeFormatter dateFormatter;
 
     public TodoServer() {
+        this(ServerConfig.fromSystemProperties());
+    }
+
+    public TodoServer(ServerConfig config) {
+        this.config = config;
+        this.connectionStats = new ConnectionStats();
+        this.metrics = new ServerMetrics(MetricsRegistry.getInstance(), connectionStats);
+        this.accessLog = AccessLog.create(config, MetricsRegistry.getInstance());
         this.database = DatabaseAccess.getInstance();
+        this.api = new ApiHandler(database);
+        this.taskService = new TaskService();
+        this.responseCache = config.getResponseCacheMegabytes() > 0
+                ? new ResponseCache(config.getResponseCacheMegabytes() * 1024L * 1024L) : null;
+        this.compressor = new ResponseCompressor(config.getCompressionThreshold());
+        this.mainPage = compressor.precompress(Pages.MAIN_PAGE);
+        this.createUserForm = compressor.precompress(Pages.CREATE_USER_FORM);
+        this.stylesheet = compressor.precompress(Pages.STYLESHEET);
+        this.etagPrefix = Long.toHexString(System.currentTimeMillis());
         this.dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     }
 
     public void start() {
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            System.out.println("Serveur TODO List démarré sur le port " + PORT);
-            System.out.println("Accédez à http://localhost:" + PORT);
-            
-            while (true) {
-                Socket clientSocket = serverSocket.accept();
-                handleClient(clientSocket);
+        WorkerPool workers = new WorkerPool(config);
+        Transport transport = createTransport(workers);
+        try {
+            System.out.println("Serveur TODO List démarré sur le port " + config.getPort());
+            System.out.println("Transport : " + transport.getDescription());
+            System.out.println("Exécution : " + workers.getDescription());
+            if (accessLog.isEnabled()) {
+                accessLog.start();
+                System.out.println("Journal des accès : " + config.getAccessLogPath()
+                        + " (tampon plein : " + config.getAccessLogPolicy().name().toLowerCase() + ")");
             }
+            System.out.println("Accédez à http://localhost:" + config.getPort());
+            transport.serve();
         } catch (IOException e) {
             System.err.println("Erreur lors du démarrage du serveur : " + e.getMessage());
+        } finally {
+            workers.shutdown();
+            accessLog.close();
         }
     }
 
-    private void handleClient(Socket clientSocket) {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-             PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
-            
-            String requestLine = in.readLine();
-            if (requestLine == null) {
-                sendErrorResponse(out, "Requête invalide");
-                return;
-            }
-
-            String[] parts = requestLine.split(" ");
-            if (parts.length < 2) {
-                sendErrorResponse(out, "Format de requête invalide");
-                return;
-            }
+    private Transport createTransport(WorkerPool workers) {
+        if (config.getTransport() == ServerConfig.TransportType.NIO) {
+            return new NioTransport(this, config, workers);
+        }
+        return new BlockingTransport(this, config, workers);
+    }
 
-            String method = parts[0];
-            String path = parts[1];
+    public ConnectionStats getConnectionStats() {
+        return connectionStats;
+    }
 
-            StringBuilder body = new StringBuilder();
-            int contentLength = 0;
-            
-            String line;
-            while ((line = in.readLine()) != null && !line.isEmpty()) {
-                if (line.startsWith("Content-Length:")) {
-                    contentLength = Integer.parseInt(line.substring(16).trim());
-                }
-            }
-            
-            if (contentLength > 0) {
-                char[] buffer = new char[contentLength];
-                int bytesRead = in.read(buffer, 0, contentLength);
-                if (bytesRead > 0) {
-                    body.append(buffer, 0, bytesRead);
-                }
-            }
+    ServerMetrics getMetrics() {
+        return metrics;
+    }
 
-            handleRequest(method, path, body.toString(), out);
+    AccessLog getAccessLog() {
+        return accessLog;
+    }
 
-        } catch (IOException e) {
-            System.err.println("Erreur lors du traitement de la requête : " + e.getMessage());
-        } finally {
-            try {
-                clientSocket.close();
-            } catch (IOException e) {
-                System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
-            }
+    // Limites de taille du corps des requêtes, passées aux analyseurs des transports
+    int maxBodyLength(String method, String path) {
+        if (path.startsWith(ApiHandler.PREFIX)) {
+            return ApiHandler.maxBodyLength(method, path);
         }
+        return HttpRequestParser.DEFAULT_MAX_BODY_LENGTH;
     }
 
-    private void handleRequest(String method, String path, String body, PrintWriter out) {
+    // Point d'entrée commun aux transports : une requête complète donne une réponse complète
+    HttpResponse handle(HttpRequest request) {
         try {
-            if (method.equals("GET")) {
-                handleGetRequest(path, out);
-            } else if (method.equals("POST")) {
-                handlePostRequest(path, body, out);
+            String path = request.getPath();
+            int queryStart = path.indexOf('?');
+            String query = queryStart < 0 ? "" : path.substring(queryStart + 1);
+            if (queryStart >= 0) {
+                path = path.substring(0, queryStart);
+            }
+
+            HttpResponse response;
+            if (path.startsWith(ApiHandler.PREFIX)) {
+                response = api.handle(request, path, query);
+            } else if (request.getMethod().equals("GET")) {
+                response = handleGetRequest(request, path, query);
+            } else if (request.getMethod().equals("POST")) {
+                response = handlePostRequest(path, FormData.decode(request.getBody()));
             } else {
-                sendErrorResponse(out, "Méthode non supportée : " + method);
+                response = errorResponse("Méthode non supportée : " + request.getMethod());
+            }
+            response = compressor.apply(request, response);
+            if (response.isStreaming() && "HTTP/1.0".equals(request.getVersion())) {
+                // Un client HTTP/1.0 ne comprend pas l'encodage chunked
+                response.disableChunkedEncoding();
             }
+            return response;
         } catch (Exception e) {
-            sendErrorResponse(out, "Erreur interne : " + e.getMessage());
+            metrics.internalError();
+            return errorResponse("Erreur interne : " + e.getMessage());
         }
     }
 
-    private void handleGetRequest(String path, PrintWriter out) {
+    // Réponse envoyée quand aucun thread n'est disponible pour traiter la requête
+    HttpResponse unavailableResponse() {
+        return new HttpResponse(503, Pages.HTML_CONTENT_TYPE, generateErrorPage("Serveur surchargé, veuillez réessayer plus tard"))
+                .header("Retry-After", "1");
+    }
+
+    HttpResponse errorResponse(int status, String message) {
+        return new HttpResponse(status, Pages.HTML_CONTENT_TYPE, generateErrorPage(message));
+    }
+
+    private HttpResponse handleGetRequest(HttpRequest request, String path, String query) {
         if (path.equals("/") || path.equals("/index")) {
-            sendHtmlResponse(out, generateMainPage());
+            return compressor.respond(request, 200, Pages.HTML_CONTENT_TYPE, mainPage);
+        } else if (path.equals(Pages.STYLESHEET_PATH)) {
+            return stylesheetResponse(request);
         } else if (path.equals("/users")) {
-            sendHtmlResponse(out, generateUsersPage());
+            return handleUsersPage(request, query);
         } else if (path.equals("/tasks")) {
-            sendHtmlResponse(out, generateTasksPage());
+            return handleTasksPage(request, query);
+        } else if (path.equals("/search")) {
+            return handleSearchPage(request, query);
         } else if (path.equals("/stats")) {
-            sendHtmlResponse(out, generateStatsPage());
+            return htmlResponse(generateStatsPage());
+        } else if (path.equals(ServerMetrics.METRICS_PATH)) {
+            return new HttpResponse(200, METRICS_CONTENT_TYPE,
+                    MetricsRegistry.getInstance().scrape().getBytes(StandardCharsets.UTF_8));
         } else if (path.startsWith("/user/")) {
-            String userId = path.substring(6);
-            sendHtmlResponse(out, generateUserTasksPage(userId));
+            return handleUserTasksPage(request, path.substring(6));
         } else if (path.equals("/create-user-form")) {
-            sendHtmlResponse(out, generateCreateUserForm());
+            return compressor.respond(request, 200, Pages.HTML_CONTENT_TYPE, createUserForm);
         } else if (path.equals("/create-task-form")) {
-            sendHtmlResponse(out, generateCreateTaskForm());
+            return streamingHtmlResponse(this::generateCreateTaskForm);
         } else {
-            sendErrorResponse(out, "Page non trouvée : " + path);
+            return errorResponse("Page non trouvée : " + path);
         }
     }
 
-    private void handlePostRequest(String path, String body, PrintWriter out) {
+    private HttpResponse handlePostRequest(String path, FormData form) {
         if (path.equals("/create-user")) {
-            handleCreateUser(body, out);
+            return handleCreateUser(form);
         } else if (path.equals("/create-task")) {
-            handleCreateTask(body, out);
+            return handleCreateTask(form);
         } else if (path.equals("/delete-user")) {
-            handleDeleteUser(body, out);
+            return handleDeleteUser(form);
         } else if (path.equals("/delete-task")) {
-            handleDeleteTask(body, out);
+            return handleDeleteTask(form);
         } else {
-            sendErrorResponse(out, "Action non supportée : " + path);
+            return errorResponse("Action non supportée : " + path);
         }
     }
 
-    private void handleCreateUser(String body, PrintWriter out) {
-        String firstName = parseFormData(body, "firstName");
+    private HttpResponse handleCreateUser(FormData form) {
+        String firstName = form.get("firstName");
         if (firstName != null && !firstName.trim().isEmpty()) {
             User user = new User(firstName.trim());
             database.addUser(user);
-            sendHtmlResponse(out, generateSuccessPage("Utilisateur créé avec succès", user.toString(), "/users"));
+            return htmlResponse(generateSuccessPage("Utilisateur créé avec succès", user.toString(), "/users"));
         } else {
-            sendErrorResponse(out, "Le prénom est obligatoire");
+            return errorResponse("Le prénom est obligatoire");
         }
     }
 
-    private void handleCreateTask(String body, PrintWriter out) {
-        String title = parseFormData(body, "title");
-        String description = parseFormData(body, "description");
-        String userId = parseFormData(body, "userId");
-        String dueDate = parseFormData(body, "dueDate");
+    private HttpResponse handleCreateTask(FormData form) {
+        String title = form.get("title");
+        // Un champ vide est absent du formulaire décodé : description facultative
+        String description = form.get("description");
+        if (description == null) {
+            description = "";
+        }
+        String userId = form.get("userId");
+        String dueDate = form.get("dueDate");
         
         if (title != null && !title.trim().isEmpty() && userId != null) {
             try {
@@ -166,416 +277,381 @@ public class TodoServer {
                 }
                 
                 database.addTask(task);
-                sendHtmlResponse(out, generateSuccessPage("Tâche créée avec succès", task.toString(), "/tasks"));
+                return htmlResponse(generateSuccessPage("Tâche créée avec succès", task.toString(), "/tasks"));
             } catch (ElementNotFoundException e) {
-                sendErrorResponse(out, "Utilisateur non trouvé");
+                return errorResponse("Utilisateur non trouvé");
             } catch (Exception e) {
-                sendErrorResponse(out, "Erreur lors de la création : " + e.getMessage());
+                return errorResponse("Erreur lors de la création : " + e.getMessage());
             }
         } else {
-            sendErrorResponse(out, "Le titre et l'utilisateur sont obligatoires");
+            return errorResponse("Le titre et l'utilisateur sont obligatoires");
         }
     }
 
-    private void handleDeleteUser(String body, PrintWriter out) {
-        String userId = parseFormData(body, "userId");
+    private HttpResponse handleDeleteUser(FormData form) {
+        String userId = form.get("userId");
         if (userId != null) {
             try {
                 database.deleteUser(userId);
-                sendHtmlResponse(out, generateSuccessPage("Utilisateur supprimé avec succès", "", "/users"));
+                return htmlResponse(generateSuccessPage("Utilisateur supprimé avec succès", "", "/users"));
             } catch (ElementNotFoundException e) {
-                sendErrorResponse(out, "Utilisateur non trouvé");
+                return errorResponse("Utilisateur non trouvé");
             }
         } else {
-            sendErrorResponse(out, "ID utilisateur manquant");
+            return errorResponse("ID utilisateur manquant");
         }
     }
 
-    private void handleDeleteTask(String body, PrintWriter out) {
-        String taskId = parseFormData(body, "taskId");
+    private HttpResponse handleDeleteTask(FormData form) {
+        String taskId = form.get("taskId");
         if (taskId != null) {
             try {
                 database.deleteTask(taskId);
-                sendHtmlResponse(out, generateSuccessPage("Tâche supprimée avec succès", "", "/tasks"));
+                return htmlResponse(generateSuccessPage("Tâche supprimée avec succès", "", "/tasks"));
             } catch (ElementNotFoundException e) {
-                sendErrorResponse(out, "Tâche non trouvée");
+                return errorResponse("Tâche non trouvée");
             }
         } else {
-            sendErrorResponse(out, "ID tâche manquant");
+            return errorResponse("ID tâche manquant");
         }
     }
 
-    private String parseFormData(String body, String fieldName) {
-        String[] pairs = body.split("&");
-        for (String pair : pairs) {
-            String[] keyValue = pair.split("=");
-            if (keyValue.length == 2 && keyValue[0].equals(fieldName)) {
-                try {
-                    return java.net.URLDecoder.decode(keyValue[1], "UTF-8");
-                } catch (Exception e) {
-                    return keyValue[1];
-                }
+    // La page est extraite avant l'envoi : un paramètre invalide donne une erreur 400, pas une page tronquée
+    private HttpResponse handleUsersPage(HttpRequest request, String query) {
+        return cachedPage(request, "/users?" + query, database.getDataVersion(), true, () -> {
+            FormData parameters = FormData.decode(query);
+            String sortParameter = parameters.get("sort");
+            UserSort sort = sortParameter == null ? UserSort.CREATION : UserSort.fromParameter(sortParameter);
+            boolean descending = "desc".equals(parameters.get("order"));
+            String after = parameters.get("after");
+            int size = parsePageSize(parameters);
+            Page<User> page = database.getUsersPage(sort, descending, after, size);
+            return html -> generateUsersPage(page, sort, descending, after != null, size, html);
+        });
+    }
+
+    private HttpResponse handleTasksPage(HttpRequest request, String query) {
+        return cachedPage(request, "/tasks?" + query, database.getDataVersion(), true, () -> {
+            FormData parameters = FormData.decode(query);
+            String sortParameter = parameters.get("sort");
+            TaskSort sort = sortParameter == null ? TaskSort.CREATION : TaskSort.fromParameter(sortParameter);
+            boolean descending = "desc".equals(parameters.get("order"));
+            String after = parameters.get("after");
+            int size = parsePageSize(parameters);
+            Page<Task> page = database.getTasksPage(sort, descending, after, size);
+            return html -> generateTasksPage(page, sort, descending, after != null, size, html);
+        });
+    }
+
+    // Sans paramètre q, seul le formulaire de recherche est affiché
+    private HttpResponse handleSearchPage(HttpRequest request, String query) {
+        return cachedPage(request, "/search?" + query, database.getDataVersion(), true, () -> {
+            FormData parameters = FormData.decode(query);
+            String text = parameters.get("q");
+            String limitParameter = parameters.get("limit");
+            int limit;
+            try {
+                limit = limitParameter == null ? DEFAULT_SEARCH_LIMIT : Integer.parseInt(limitParameter);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Nombre de résultats invalide : " + limitParameter);
             }
-        }
-        return null;
+            SearchResult result = text == null ? null : taskService.search(text, limit);
+            return html -> generateSearchPage(text, result, html);
+        });
     }
 
-    private void sendHtmlResponse(PrintWriter out, String html) {
-        out.println("HTTP/1.1 200 OK");
-        out.println("Content-Type: text/html; charset=UTF-8");
+    // Ne dépend que de l'utilisateur et de ses tâches : sa version propre suffit.
+    // Les identifiants inconnus et les utilisateurs aux très nombreuses tâches ne sont pas mis en cache.
+    private HttpResponse handleUserTasksPage(HttpRequest request, String userId) {
+        long version = database.getUserVersion(userId);
+        boolean cacheable;
         try {
-            out.println("Content-Length: " + html.getBytes("UTF-8").length);
-        } catch (UnsupportedEncodingException e) {
-            out.println("Content-Length: " + html.length());
+            cacheable = database.getTaskCountByUser(database.findUserById(userId)) <= MAX_CACHED_USER_TASKS;
+        } catch (ElementNotFoundException e) {
+            cacheable = false;
         }
-        out.println();
-        out.println(html);
+        return cachedPage(request, "/user/" + userId, version, cacheable, () -> html -> generateUserTasksPage(userId, html));
     }
 
-    private void sendErrorResponse(PrintWriter out, String message) {
-        String html = generateErrorPage(message);
-        out.println("HTTP/1.1 400 Bad Request");
-        out.println("Content-Type: text/html; charset=UTF-8");
-        try {
-            out.println("Content-Length: " + html.getBytes("UTF-8").length);
-        } catch (UnsupportedEncodingException e) {
-            out.println("Content-Length: " + html.length());
+    // Page servie depuis le cache tant que la version des données lue avant son calcul n'a pas changé.
+    // L'ETag est dérivé de cette version : un client qui présente l'ETag courant reçoit 304 sans
+    // qu'aucune page soit extraite ni rendue.
+    private HttpResponse cachedPage(HttpRequest request, String key, long version, boolean cacheable,
+                                    PagePreparer preparer) {
+        String etag = "\"" + etagPrefix + "-" + Long.toHexString(version) + "\"";
+        String ifNoneMatch = request.getHeader("if-none-match");
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, etag)) {
+            return new HttpResponse(304, Pages.HTML_CONTENT_TYPE, new byte[0])
+                    .header("ETag", etag).header("Cache-Control", PAGE_CACHE_CONTROL);
         }
-        out.println();
-        out.println(html);
-    }
-
-    private String generateMainPage() {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>TODO List - Accueil</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 800px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; text-align: center; }");
-        html.append("nav { margin: 20px 0; }");
-        html.append("nav ul { list-style: none; padding: 0; display: flex; justify-content: center; gap: 20px; }");
-        html.append("nav a { text-decoration: none; color: #007bff; padding: 10px 20px; border: 1px solid #007bff; border-radius: 5px; }");
-        html.append("nav a:hover { background-color: #007bff; color: white; }");
-        html.append(".actions { margin: 20px 0; text-align: center; }");
-        html.append(".btn { display: inline-block; padding: 10px 20px; margin: 5px; text-decoration: none; color: white; border-radius: 5px; }");
-        html.append(".btn-primary { background-color: #007bff; }");
-        html.append(".btn-success { background-color: #28a745; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>📋 Système TODO List</h1>");
-        html.append("<nav><ul>");
-        html.append("<li><a href='/users'>👥 Gérer les utilisateurs</a></li>");
-        html.append("<li><a href='/tasks'>📝 Gérer les tâches</a></li>");
-        html.append("<li><a href='/stats'>📊 Statistiques</a></li>");
-        html.append("</ul></nav>");
-        html.append("<div class='actions'>");
-        html.append("<a href='/create-user-form' class='btn btn-primary'>➕ Créer un utilisateur</a>");
-        html.append("<a href='/create-task-form' class='btn btn-success'>➕ Créer une tâche</a>");
-        html.append("</div>");
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateUsersPage() {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Utilisateurs</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 800px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; }");
-        html.append(".back-link { margin-bottom: 20px; }");
-        html.append(".back-link a { color: #007bff; text-decoration: none; }");
-        html.append(".user-list { list-style: none; padding: 0; }");
-        html.append(".user-item { background: #f8f9fa; margin: 10px 0; padding: 15px; border-radius: 5px; border-left: 4px solid #007bff; }");
-        html.append(".user-name { font-weight: bold; color: #333; }");
-        html.append(".user-id { color: #666; font-size: 0.9em; }");
-        html.append(".delete-form { display: inline; }");
-        html.append(".delete-btn { background: #dc3545; color: white; border: none; padding: 5px 10px; border-radius: 3px; cursor: pointer; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>👥 Liste des utilisateurs</h1>");
-        html.append("<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>");
-        
-        List<User> users = database.getAllUsers();
-        if (users.isEmpty()) {
-            html.append("<p>Aucun utilisateur trouvé.</p>");
+        ResponseCompressor.PrecompressedBody body = responseCache == null ? null : responseCache.get(key, version);
+        HttpResponse response;
+        if (body != null) {
+            response = compressor.respond(request, 200, Pages.HTML_CONTENT_TYPE, body);
         } else {
-            html.append("<ul class='user-list'>");
-            for (User user : users) {
-                html.append("<li class='user-item'>");
-                html.append("<div class='user-name'>").append(user.getFirstName()).append("</div>");
-                html.append("<div class='user-id'>ID: ").append(user.getId()).append("</div>");
-                html.append("<form method='POST' action='/delete-user' class='delete-form'>");
-                html.append("<input type='hidden' name='userId' value='").append(user.getId()).append("'>");
-                html.append("<button type='submit' class='delete-btn'>🗑️ Supprimer</button>");
-                html.append("</form>");
-                html.append("</li>");
+            PageWriter page;
+            try {
+                page = preparer.prepare();
+            } catch (IllegalArgumentException e) {
+                return errorResponse(e.getMessage());
+            }
+            if (responseCache != null && cacheable) {
+                body = compressor.precompress(render(page));
+                responseCache.put(key, version, body);
+                response = compressor.respond(request, 200, Pages.HTML_CONTENT_TYPE, body);
+            } else {
+                response = streamingHtmlResponse(page);
             }
-            html.append("</ul>");
         }
-        
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateTasksPage() {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Tâches</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 800px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; }");
-        html.append(".back-link { margin-bottom: 20px; }");
-        html.append(".back-link a { color: #007bff; text-decoration: none; }");
-        html.append(".task-list { list-style: none; padding: 0; }");
-        html.append(".task-item { background: #f8f9fa; margin: 10px 0; padding: 15px; border-radius: 5px; border-left: 4px solid #28a745; }");
-        html.append(".task-title { font-weight: bold; color: #333; font-size: 1.1em; }");
-        html.append(".task-desc { color: #666; margin: 5px 0; }");
-        html.append(".task-meta { color: #888; font-size: 0.9em; }");
-        html.append(".task-done { border-left-color: #28a745; }");
-        html.append(".task-pending { border-left-color: #ffc107; }");
-        html.append(".delete-form { display: inline; }");
-        html.append(".delete-btn { background: #dc3545; color: white; border: none; padding: 5px 10px; border-radius: 3px; cursor: pointer; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>📝 Liste des tâches</h1>");
-        html.append("<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>");
-        
-        List<Task> tasks = database.getAllTasks();
-        if (tasks.isEmpty()) {
-            html.append("<p>Aucune tâche trouvée.</p>");
-        } else {
-            html.append("<ul class='task-list'>");
-            for (Task task : tasks) {
-                String statusClass = task.isDone() ? "task-done" : "task-pending";
-                String statusText = task.isDone() ? "✅ Terminée" : "⏳ En cours";
-                
-                html.append("<li class='task-item ").append(statusClass).append("'>");
-                html.append("<div class='task-title'>").append(task.getTitle()).append("</div>");
-                html.append("<div class='task-desc'>").append(task.getDescription()).append("</div>");
-                html.append("<div class='task-meta'>");
-                html.append("Créée par: ").append(task.getCreatedBy().getFirstName());
-                html.append(" | ID: ").append(task.getId());
-                if (task instanceof DatedTask) {
-                    html.append(" | Échéance: ").append(((DatedTask) task).getDueDate());
-                }
-                html.append(" | ").append(statusText);
-                html.append("</div>");
-                html.append("<form method='POST' action='/delete-task' class='delete-form'>");
-                html.append("<input type='hidden' name='taskId' value='").append(task.getId()).append("'>");
-                html.append("<button type='submit' class='delete-btn'>🗑️ Supprimer</button>");
-                html.append("</form>");
-                html.append("</li>");
+        return response.header("ETag", etag).header("Cache-Control", PAGE_CACHE_CONTROL);
+    }
+
+    private int parsePageSize(FormData parameters) {
+        String size = parameters.get("size");
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Math.min(Integer.parseInt(size), DatabaseAccess.MAX_PAGE_SIZE);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Taille de page invalide : " + size);
+        }
+    }
+
+    // Lien vers une page de la liste ; les curseurs sont en base64 URL et n'ont pas besoin d'être encodés
+    private String listUrl(String path, String sort, boolean descending, int size, String after) {
+        StringBuilder url = new StringBuilder(path).append("?sort=").append(sort);
+        if (descending) {
+            url.append("&amp;order=desc");
+        }
+        if (size != DEFAULT_PAGE_SIZE) {
+            url.append("&amp;size=").append(size);
+        }
+        if (after != null) {
+            url.append("&amp;after=").append(after);
+        }
+        return url.toString();
+    }
+
+    // Liens de tri : le tri courant est en gras et son lien inverse l'ordre
+    private void appendSortLinks(HtmlWriter html, String path, String[][] sorts, String current, boolean descending, int size) throws IOException {
+        html.write(SORT_LINKS_START);
+        for (String[] sort : sorts) {
+            boolean selected = sort[0].equals(current);
+            boolean linkDescending = selected && !descending;
+            html.write(LINK_START).append(listUrl(path, sort[0], linkDescending, size, null)).write(LINK_END);
+            if (selected) {
+                html.write(BOLD_START).append(sort[1]).write(descending ? BOLD_END_DESCENDING : BOLD_END_ASCENDING);
+            } else {
+                html.append(sort[1]);
             }
-            html.append("</ul>");
+            html.write(LINK_CLOSE);
         }
-        
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateCreateUserForm() {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Créer un utilisateur</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 600px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; }");
-        html.append(".form-group { margin: 15px 0; }");
-        html.append("label { display: block; margin-bottom: 5px; font-weight: bold; }");
-        html.append("input[type='text'] { width: 100%; padding: 10px; border: 1px solid #ddd; border-radius: 5px; font-size: 16px; }");
-        html.append(".btn { padding: 10px 20px; border: none; border-radius: 5px; cursor: pointer; font-size: 16px; }");
-        html.append(".btn-primary { background-color: #007bff; color: white; }");
-        html.append(".btn-secondary { background-color: #6c757d; color: white; text-decoration: none; display: inline-block; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>👤 Créer un utilisateur</h1>");
-        html.append("<form method='POST' action='/create-user'>");
-        html.append("<div class='form-group'>");
-        html.append("<label for='firstName'>Prénom :</label>");
-        html.append("<input type='text' id='firstName' name='firstName' required>");
-        html.append("</div>");
-        html.append("<div class='form-group'>");
-        html.append("<button type='submit' class='btn btn-primary'>Créer l'utilisateur</button>");
-        html.append("<a href='/users' class='btn btn-secondary'>Annuler</a>");
-        html.append("</div>");
-        html.append("</form>");
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateCreateTaskForm() {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Créer une tâche</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 600px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; }");
-        html.append(".form-group { margin: 15px 0; }");
-        html.append("label { display: block; margin-bottom: 5px; font-weight: bold; }");
-        html.append("input[type='text'], textarea, select { width: 100%; padding: 10px; border: 1px solid #ddd; border-radius: 5px; font-size: 16px; }");
-        html.append("textarea { height: 100px; resize: vertical; }");
-        html.append(".btn { padding: 10px 20px; border: none; border-radius: 5px; cursor: pointer; font-size: 16px; }");
-        html.append(".btn-primary { background-color: #007bff; color: white; }");
-        html.append(".btn-secondary { background-color: #6c757d; color: white; text-decoration: none; display: inline-block; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>📝 Créer une tâche</h1>");
-        html.append("<form method='POST' action='/create-task'>");
-        html.append("<div class='form-group'>");
-        html.append("<label for='title'>Titre :</label>");
-        html.append("<input type='text' id='title' name='title' required>");
-        html.append("</div>");
-        html.append("<div class='form-group'>");
-        html.append("<label for='description'>Description :</label>");
-        html.append("<textarea id='description' name='description'></textarea>");
-        html.append("</div>");
-        html.append("<div class='form-group'>");
-        html.append("<label for='userId'>Utilisateur :</label>");
-        html.append("<select id='userId' name='userId' required>");
-        html.append("<option value=''>Choisir un utilisateur</option>");
-        
-        List<User> users = database.getAllUsers();
-        for (User user : users) {
-            html.append("<option value='").append(user.getId()).append("'>");
-            html.append(user.getFirstName()).append("</option>");
+        html.write(DIV_END);
+    }
+
+    private void appendPageLinks(HtmlWriter html, String path, Page<?> page, String sort, boolean descending,
+                                 boolean hasPrevious, int size) throws IOException {
+        html.write(PAGE_LINKS_START);
+        if (hasPrevious) {
+            html.write(LINK_START).append(listUrl(path, sort, descending, size, null)).write(FIRST_PAGE_LINK_END);
         }
-        
-        html.append("</select>");
-        html.append("</div>");
-        html.append("<div class='form-group'>");
-        html.append("<label for='dueDate'>Date d'échéance (optionnel) :</label>");
-        html.append("<input type='text' id='dueDate' name='dueDate' placeholder='dd/MM/yyyy'>");
-        html.append("</div>");
-        html.append("<div class='form-group'>");
-        html.append("<button type='submit' class='btn btn-primary'>Créer la tâche</button>");
-        html.append("<a href='/tasks' class='btn btn-secondary'>Annuler</a>");
-        html.append("</div>");
-        html.append("</form>");
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateSuccessPage(String title, String details, String backUrl) {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Succès</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 600px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); text-align: center; }");
-        html.append("h1 { color: #28a745; }");
-        html.append(".details { background: #f8f9fa; padding: 15px; margin: 20px 0; border-radius: 5px; text-align: left; }");
-        html.append(".btn { padding: 10px 20px; border: none; border-radius: 5px; cursor: pointer; font-size: 16px; text-decoration: none; display: inline-block; }");
-        html.append(".btn-primary { background-color: #007bff; color: white; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>✅ ").append(title).append("</h1>");
-        if (!details.isEmpty()) {
-            html.append("<div class='details'>").append(details).append("</div>");
+        if (page.hasNext()) {
+            html.write(LINK_START).append(listUrl(path, sort, descending, size, page.getNextCursor())).write(NEXT_PAGE_LINK_END);
         }
-        html.append("<a href='").append(backUrl).append("' class='btn btn-primary'>Retour</a>");
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateErrorPage(String message) {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Erreur</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 600px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); text-align: center; }");
-        html.append("h1 { color: #dc3545; }");
-        html.append(".error-message { background: #f8d7da; color: #721c24; padding: 15px; margin: 20px 0; border-radius: 5px; }");
-        html.append(".btn { padding: 10px 20px; border: none; border-radius: 5px; cursor: pointer; font-size: 16px; text-decoration: none; display: inline-block; }");
-        html.append(".btn-primary { background-color: #007bff; color: white; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>❌ Erreur</h1>");
-        html.append("<div class='error-message'>").append(message).append("</div>");
-        html.append("<a href='/' class='btn btn-primary'>Retour à l'accueil</a>");
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateUserTasksPage(String userId) {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Tâches de l'utilisateur</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 800px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; }");
-        html.append(".back-link { margin-bottom: 20px; }");
-        html.append(".back-link a { color: #007bff; text-decoration: none; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>Tâches de l'utilisateur ").append(userId).append("</h1>");
-        html.append("<div class='back-link'><a href='/users'>← Retour aux utilisateurs</a></div>");
-        
+        html.write(DIV_END);
+    }
+
+    private static byte[] render(PageWriter page) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * 1024);
         try {
-            User user = database.findUserById(userId);
-            List<Task> tasks = database.getTasksByUser(user);
-            if (tasks.isEmpty()) {
-                html.append("<p>Aucune tâche trouvée pour cet utilisateur.</p>");
+            HtmlWriter html = new HtmlWriter(bytes);
+            page.write(html);
+            html.flush();
+        } catch (IOException e) {
+            // Écriture en mémoire : impossible
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private HttpResponse htmlResponse(byte[] html) {
+        return new HttpResponse(200, Pages.HTML_CONTENT_TYPE, html);
+    }
+
+    // Page écrite au fil du parcours des données, encodée en UTF-8 directement dans le flux de réponse
+    private HttpResponse streamingHtmlResponse(PageWriter page) {
+        return HttpResponse.streaming(200, Pages.HTML_CONTENT_TYPE, out -> {
+            HtmlWriter html = new HtmlWriter(out);
+            page.write(html);
+            html.flush();
+        });
+    }
+
+    // Feuille de style commune : mise en cache par le navigateur, revalidée par ETag
+    private HttpResponse stylesheetResponse(HttpRequest request) {
+        String ifNoneMatch = request.getHeader("if-none-match");
+        HttpResponse response = ifNoneMatch != null && matchesEtag(ifNoneMatch, Pages.STYLESHEET_ETAG)
+                ? new HttpResponse(304, Pages.CSS_CONTENT_TYPE, new byte[0])
+                : compressor.respond(request, 200, Pages.CSS_CONTENT_TYPE, stylesheet);
+        return response.header("ETag", Pages.STYLESHEET_ETAG).header("Cache-Control", STYLESHEET_CACHE_CONTROL);
+    }
+
+    // If-None-Match peut lister plusieurs ETag séparés par des virgules, ou "*"
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private HttpResponse errorResponse(String message) {
+        return errorResponse(400, message);
+    }
+
+    private void generateUsersPage(Page<User> page, UserSort sort, boolean descending, boolean hasPrevious,
+                                   int size, HtmlWriter html) throws IOException {
+        String[][] sorts = new String[UserSort.values().length][];
+        for (UserSort option : UserSort.values()) {
+            sorts[option.ordinal()] = new String[] {option.getParameter(), option.getLabel()};
+        }
+        Pages.USERS_PAGE.render(html,
+                out -> out.append(database.getUserCount()),
+                out -> appendSortLinks(out, "/users", sorts, sort.getParameter(), descending, size),
+                out -> {
+                    List<User> users = page.getItems();
+                    if (users.isEmpty()) {
+                        out.write(NO_USERS);
+                        return;
+                    }
+                    out.write(USER_LIST_START);
+                    for (User user : users) {
+                        Pages.USER_ITEM.render(out, user.getFirstName(), user.getId(),
+                                String.valueOf(database.getTaskCountByUser(user)),
+                                String.valueOf(database.getCompletedTaskCountByUser(user)));
+                    }
+                    out.write(LIST_END);
+                },
+                out -> appendPageLinks(out, "/users", page, sort.getParameter(), descending, hasPrevious, size));
+    }
+
+    private void generateTasksPage(Page<Task> page, TaskSort sort, boolean descending, boolean hasPrevious,
+                                   int size, HtmlWriter html) throws IOException {
+        String[][] sorts = new String[TaskSort.values().length][];
+        for (TaskSort option : TaskSort.values()) {
+            sorts[option.ordinal()] = new String[] {option.getParameter(), option.getLabel()};
+        }
+        Pages.TASKS_PAGE.render(html,
+                out -> out.append(database.getTaskCount()),
+                out -> appendSortLinks(out, "/tasks", sorts, sort.getParameter(), descending, size),
+                out -> {
+                    List<Task> tasks = page.getItems();
+                    if (tasks.isEmpty()) {
+                        out.write(NO_TASKS);
+                        return;
+                    }
+                    appendTaskList(out, tasks);
+                },
+                out -> appendPageLinks(out, "/tasks", page, sort.getParameter(), descending, hasPrevious, size));
+    }
+
+    private void generateSearchPage(String text, SearchResult result, HtmlWriter html) throws IOException {
+        Pages.SEARCH_PAGE.render(html, out -> out.appendEscaped(text == null ? "" : text), out -> {
+            if (result == null) {
+                return;
+            }
+            if (result.getTasks().isEmpty()) {
+                out.write(NO_TASKS);
+                return;
+            }
+            out.write(SEARCH_SUMMARY_START).append(result.getTotalMatches()).write(SEARCH_SUMMARY_MATCHES);
+            if (result.getTotalMatches() > result.getTasks().size()) {
+                out.write(SEARCH_SUMMARY_SHOWN).append(result.getTasks().size()).write(SEARCH_SUMMARY_SHOWN_END);
+            }
+            out.write(PARAGRAPH_END);
+            appendTaskList(out, result.getTasks());
+        });
+    }
+
+    private void appendTaskList(HtmlWriter html, List<Task> tasks) throws IOException {
+        html.write(TASK_LIST_START);
+        for (Task task : tasks) {
+            String statusClass = task.isDone() ? "task-done" : "task-pending";
+            String statusText = task.isDone() ? "✅ Terminée" : "⏳ En cours";
+            if (task instanceof DatedTask) {
+                Pages.DATED_TASK_ITEM.render(html, statusClass, task.getTitle(), task.getDescription(),
+                        task.getCreatedBy().getFirstName(), task.getId(),
+                        String.valueOf(((DatedTask) task).getDueDate()), statusText);
             } else {
-                html.append("<ul>");
-                for (Task task : tasks) {
-                    html.append("<li>").append(task.toString()).append("</li>");
-                }
-                html.append("</ul>");
+                Pages.TASK_ITEM.render(html, statusClass, task.getTitle(), task.getDescription(),
+                        task.getCreatedBy().getFirstName(), task.getId(), statusText);
             }
-        } catch (ElementNotFoundException e) {
-            html.append("<p>Utilisateur non trouvé : ").append(e.getMessage()).append("</p>");
         }
-        
-        html.append("</div></body></html>");
-        return html.toString();
-    }
-
-    private String generateStatsPage() {
-        StringBuilder html = new StringBuilder();
-        html.append("<html><head><title>Statistiques</title>");
-        html.append("<style>");
-        html.append("body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }");
-        html.append(".container { max-width: 800px; margin: 0 auto; background: white; padding: 20px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }");
-        html.append("h1 { color: #333; }");
-        html.append(".back-link { margin-bottom: 20px; }");
-        html.append(".back-link a { color: #007bff; text-decoration: none; }");
-        html.append(".stats-grid { display: grid; grid-template-columns: repeat(auto-fit, minmax(200px, 1fr)); gap: 20px; margin-top: 20px; }");
-        html.append(".stat-card { background: #f8f9fa; padding: 20px; border-radius: 8px; text-align: center; }");
-        html.append(".stat-number { font-size: 2em; font-weight: bold; color: #007bff; }");
-        html.append(".stat-label { color: #666; margin-top: 5px; }");
-        html.append("</style></head><body>");
-        html.append("<div class='container'>");
-        html.append("<h1>📊 Statistiques</h1>");
-        html.append("<div class='back-link'><a href='/'>← Retour à l'accueil</a></div>");
-        
-        html.append("<div class='stats-grid'>");
-        html.append("<div class='stat-card'>");
-        html.append("<div class='stat-number'>").append(database.getUserCount()).append("</div>");
-        html.append("<div class='stat-label'>Utilisateurs</div>");
-        html.append("</div>");
-        html.append("<div class='stat-card'>");
-        html.append("<div class='stat-number'>").append(database.getTaskCount()).append("</div>");
-        html.append("<div class='stat-label'>Tâches totales</div>");
-        html.append("</div>");
-        html.append("<div class='stat-card'>");
-        html.append("<div class='stat-number'>").append(database.getCompletedTaskCount()).append("</div>");
-        html.append("<div class='stat-label'>Tâches terminées</div>");
-        html.append("</div>");
-        html.append("<div class='stat-card'>");
-        html.append("<div class='stat-number'>").append(database.getPendingTaskCount()).append("</div>");
-        html.append("<div class='stat-label'>Tâches en attente</div>");
-        html.append("</div>");
-        html.append("<div class='stat-card'>");
-        html.append("<div class='stat-number'>").append(database.getOverdueTasks().size()).append("</div>");
-        html.append("<div class='stat-label'>Tâches en retard</div>");
-        html.append("</div>");
-        html.append("<div class='stat-card'>");
-        html.append("<div class='stat-number'>").append(database.getUpcomingTasks().size()).append("</div>");
-        html.append("<div class='stat-label'>Tâches à venir</div>");
-        html.append("</div>");
-        html.append("</div>");
-        
-        html.append("</div></body></html>");
-        return html.toString();
+        html.write(LIST_END);
+    }
+
+    private void generateCreateTaskForm(HtmlWriter html) throws IOException {
+        Pages.CREATE_TASK_FORM.render(html, out -> {
+            for (User user : database.getAllUsers()) {
+                Pages.USER_OPTION.render(out, user.getId(), user.getFirstName());
+            }
+        });
+    }
+
+    private byte[] generateSuccessPage(String title, String details, String backUrl) {
+        if (details.isEmpty()) {
+            return Pages.SUCCESS_PAGE.toBytes(title, backUrl);
+        }
+        return Pages.SUCCESS_PAGE_WITH_DETAILS.toBytes(title, details, backUrl);
+    }
+
+    private byte[] generateErrorPage(String message) {
+        return Pages.ERROR_PAGE.toBytes(message);
+    }
+
+    private void generateUserTasksPage(String userId, HtmlWriter html) throws IOException {
+        Pages.USER_TASKS_PAGE.render(html, out -> out.append(userId), out -> {
+            try {
+                User user = database.findUserById(userId);
+                List<Task> tasks = database.getTasksByUser(user);
+                if (tasks.isEmpty()) {
+                    out.write(NO_USER_TASKS);
+                } else {
+                    out.write(SIMPLE_LIST_START);
+                    for (Task task : tasks) {
+                        out.write(ITEM_START).append(task.toString()).write(ITEM_END);
+                    }
+                    out.write(LIST_END);
+                }
+            } catch (ElementNotFoundException e) {
+                out.write(USER_NOT_FOUND_START).append(e.getMessage()).write(PARAGRAPH_END);
+            }
+        });
+    }
+
+    private byte[] generateStatsPage() {
+        return Pages.STATS_PAGE.toBytes(
+                String.valueOf(database.getUserCount()),
+                String.valueOf(database.getTaskCount()),
+                String.valueOf(database.getCompletedTaskCount()),
+                String.valueOf(database.getPendingTaskCount()),
+                String.valueOf(database.getOverdueTaskCount()),
+                String.valueOf(database.getUpcomingTaskCount()),
+                String.valueOf(connectionStats.getActiveConnections()),
+                String.valueOf(connectionStats.getOpenedConnections()),
+                String.valueOf(connectionStats.getRequests()),
+                String.valueOf(connectionStats.getReusedRequests()),
+                String.valueOf(connectionStats.getIdleTimeouts()),
+                String.valueOf(connectionStats.getMaxRequestsReached()));
+    }
+
+    private static byte[] bytes(String html) {
+        return html.getBytes(StandardCharsets.UTF_8);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.main.server;
+
+import java.io.IOException;
+
+// Couche réseau du serveur : reçoit les requêtes HTTP et les transmet à TodoServer
+public interface Transport {
+
+    // Bloque tant que le serveur tourne
+    void serve() throws IOException;
+
+    String getDescription();
+}
@@ -0,0 +1,105 @@
+package com.main.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkerPool {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final String description;
+
+    public WorkerPool(ServerConfig config) {
+        ExecutorService virtualExecutor = null;
+        if (config.getExecutionMode() == ServerConfig.ExecutionMode.VIRTUAL) {
+            virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor == null) {
+                System.err.println("Threads virtuels non disponibles sur cette JVM, utilisation du pool de threads");
+            }
+        }
+
+        if (virtualExecutor != null) {
+            // Un thread virtuel par connexion, borné par un nombre maximal de connexions simultanées
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(config.getMaxConcurrentConnections());
+            this.description = "threads virtuels (max " + config.getMaxConcurrentConnections() + " connexions)";
+        } else {
+            // Pool borné : au-delà des threads et de la file d'attente, les connexions sont refusées
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    config.getWorkerThreads(), config.getWorkerThreads(),
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(config.getQueueCapacity()),
+                    new WorkerThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.permits = null;
+            this.description = "pool de " + config.getWorkerThreads() + " threads (file de " + config.getQueueCapacity() + ")";
+        }
+    }
+
+    // Soumet une tâche ; renvoie false si le serveur est saturé
+    public boolean tryExecute(final Runnable task) {
+        if (permits == null) {
+            try {
+                executor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return false;
+        }
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() n'existe qu'à partir de Java 21 : appel par réflexion
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "todo-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.main.service;
 
+import com.main.model.ImportResult;
+import com.main.model.Page;
+import com.main.model.SearchResult;
 import com.main.model.Task;
+import com.main.model.TaskImportRow;
+import com.main.model.TaskSort;
 import com.main.model.DatedTask;
 import com.main.model.User;
 import com.main.database.DatabaseAccess;
 import com.main.builder.TaskBuilder;
 import com.main.exception.ElementNotFoundException;
+import com.main.io.DataFormat;
+import com.main.io.TaskImportReader;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TaskService {
+    // Lignes d'un import validées et ajoutées ensemble : un verrou et une écriture du journal par lot
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
     private DatabaseAccess database;
 
     public TaskService() {
@@ -22,6 +40,19 @@ public class TaskService {
         return database.getAllTasks();
     }
 
+    // Lister les tâches page par page (cursor null pour la première page)
+    public Page<Task> getTasksPage(TaskSort sort, boolean descending, String cursor, int size) {
+        return database.getTasksPage(sort, descending, cursor, size);
+    }
+
+    // Rechercher des tâches par mots du titre ou de la description, les plus pertinentes d'abord
+    public SearchResult search(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("La recherche ne peut pas être vide");
+        }
+        return database.searchTasks(query, limit);
+    }
+
     // Lister les tâches d'un utilisateur
     public List<Task> getTasksByUser(User user) {
         return database.getTasksByUser(user);
@@ -33,26 +64,101 @@ public class TaskService {
     }
 
     // Créer une tâche simple avec TaskBuilder
-    public Task createTask(String title, String description, User createdBy) {
+    public Task createTask(String title, String description, User createdBy) throws ElementNotFoundException {
         Task task = TaskBuilder.createSimpleTask(title, description, createdBy);
         database.addTask(task);
         return task;
     }
 
     // Créer une tâche avec échéance avec TaskBuilder
-    public DatedTask createDatedTask(String title, String description, User createdBy, LocalDate dueDate) {
+    public DatedTask createDatedTask(String title, String description, User createdBy, LocalDate dueDate) throws ElementNotFoundException {
         DatedTask task = TaskBuilder.createDatedTask(title, description, createdBy, dueDate);
         database.addTask(task);
         return task;
     }
 
     // Créer une tâche avec échéance avec TaskBuilder (version String)
-    public DatedTask createDatedTask(String title, String description, User createdBy, String dueDateStr) {
+    public DatedTask createDatedTask(String title, String description, User createdBy, String dueDateStr) throws ElementNotFoundException {
         DatedTask task = TaskBuilder.createDatedTask(title, description, createdBy, dueDateStr);
         database.addTask(task);
         return task;
     }
 
+    // Importer des tâches depuis un flux NDJSON ou CSV : les lignes sont lues et ajoutées par lots de
+    // IMPORT_BATCH_SIZE, sans construire la liste complète. Un lot ajouté reste en place si la suite échoue.
+    public ImportResult importTasks(InputStream in, DataFormat format) throws IOException {
+        Map<String, User> creators = new HashMap<>();
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        int[] created = new int[1];
+        TaskImportReader.read(in, format, IMPORT_BATCH_SIZE, rows -> created[0] += addRows(rows, creators, errors));
+        errors.sort(Comparator.comparingInt(ImportResult.RowError::getLine));
+        return new ImportResult(created[0], errors);
+    }
+
+    // Créer des tâches en lot : chaque ligne est validée avec TaskBuilder, chaque créateur n'est cherché
+    // qu'une fois, puis toutes les tâches valides sont ajoutées en une seule opération.
+    // Les lignes invalides sont ignorées et signalées dans le bilan.
+    public ImportResult createTasks(Collection<TaskImportRow> rows) {
+        List<ImportResult.RowError> errors = new ArrayList<>();
+        int created = addRows(rows, new HashMap<>(), errors);
+        errors.sort(Comparator.comparingInt(ImportResult.RowError::getLine));
+        return new ImportResult(created, errors);
+    }
+
+    // Renvoie le nombre de tâches ajoutées ; les erreurs sont ajoutées à errors
+    private int addRows(Collection<TaskImportRow> rows, Map<String, User> creators, List<ImportResult.RowError> errors) {
+        List<Task> tasks = new ArrayList<>(rows.size());
+        Map<Task, Integer> lines = new IdentityHashMap<>();
+        for (TaskImportRow row : rows) {
+            if (row.getError() != null) {
+                errors.add(new ImportResult.RowError(row.getLine(), row.getError()));
+                continue;
+            }
+            try {
+                User createdBy = resolveCreator(row.getUserId(), creators);
+                TaskBuilder builder = new TaskBuilder()
+                        .title(row.getTitle() == null ? null : row.getTitle().trim())
+                        .description(row.getDescription() == null ? "" : row.getDescription().trim())
+                        .createdBy(createdBy)
+                        .done(row.isDone());
+                if (row.getDueDate() != null && !row.getDueDate().trim().isEmpty()) {
+                    builder.dueDate(row.getDueDate().trim());
+                }
+                Task task = builder.build();
+                tasks.add(task);
+                lines.put(task, row.getLine());
+            } catch (ElementNotFoundException | IllegalArgumentException | IllegalStateException e) {
+                errors.add(new ImportResult.RowError(row.getLine(), e.getMessage()));
+            }
+        }
+        List<Task> rejected = database.addTasks(tasks);
+        for (Task task : rejected) {
+            errors.add(new ImportResult.RowError(lines.get(task), "Utilisateur avec l'ID '"
+                    + task.getCreatedBy().getId() + "' supprimé pendant l'import"));
+        }
+        return tasks.size() - rejected.size();
+    }
+
+    // Un créateur introuvable est aussi mémorisé (valeur null) pour ne pas le rechercher à chaque ligne
+    private User resolveCreator(String userId, Map<String, User> creators) throws ElementNotFoundException {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("L'utilisateur créateur est obligatoire");
+        }
+        String id = userId.trim();
+        if (!creators.containsKey(id)) {
+            try {
+                creators.put(id, database.findUserById(id));
+            } catch (ElementNotFoundException e) {
+                creators.put(id, null);
+            }
+        }
+        User createdBy = creators.get(id);
+        if (createdBy == null) {
+            throw new ElementNotFoundException("Utilisateur avec l'ID '" + id + "' non trouvé");
+        }
+        return createdBy;
+    }
+
     // Trouver une tâche par son ID
     public Task getTaskById(String id) throws ElementNotFoundException {
         return database.findTaskById(id);
@@ -98,6 +204,30 @@ public class TaskService {
         return database.getUpcomingTasks();
     }
 
+    // Obtenir les tâches dont l'échéance est comprise entre deux dates (incluses)
+    public List<DatedTask> getTasksDueBetween(LocalDate from, LocalDate to) {
+        return database.getTasksDueBetween(from, to, false);
+    }
+
+    // Obtenir les tâches non terminées arrivant à échéance dans les prochains jours (aujourd'hui compris)
+    public List<DatedTask> getTasksDueInNextDays(int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Le nombre de jours doit être positif");
+        }
+        LocalDate today = LocalDate.now();
+        return database.getTasksDueBetween(today, today.plusDays(days), true);
+    }
+
+    // Compter les tâches en retard
+    public int getOverdueTaskCount() {
+        return database.getOverdueTaskCount();
+    }
+
+    // Compter les tâches à venir
+    public int getUpcomingTaskCount() {
+        return database.getUpcomingTaskCount();
+    }
+
     // Compter les tâches totales
     public int getTotalTaskCount() {
         return database.getTaskCount();
@@ -113,8 +243,18 @@ public class TaskService {
         return database.getPendingTaskCount();
     }
 
+    // Compter les tâches d'un utilisateur
+    public int getTaskCountByUser(User user) {
+        return database.getTaskCountByUser(user);
+    }
+
+    // Compter les tâches terminées d'un utilisateur
+    public int getCompletedTaskCountByUser(User user) {
+        return database.getCompletedTaskCountByUser(user);
+    }
+
     // Méthode pour créer une tâche avec le pattern Builder
-    public Task createTaskWithBuilder(TaskBuilder builder) {
+    public Task createTaskWithBuilder(TaskBuilder builder) throws ElementNotFoundException {
         Task task = builder.build();
         database.addTask(task);
         return task;
@@ -1,6 +1,8 @@
 package com.main.service;
 
+import com.main.model.Page;
 import com.main.model.User;
+import com.main.model.UserSort;
 import com.main.database.DatabaseAccess;
 import com.main.exception.ElementNotFoundException;
 
@@ -35,6 +37,11 @@ public class UserService {
         return database.getAllUsers();
     }
 
+    // Lister les utilisateurs page par page (cursor null pour la première page)
+    public Page<User> getUsersPage(UserSort sort, boolean descending, String cursor, int size) {
+        return database.getUsersPage(sort, descending, cursor, size);
+    }
+
     // Modifier un utilisateur
     public void updateUser(String id, String firstName) throws ElementNotFoundException {
         database.updateUser(id, firstName);
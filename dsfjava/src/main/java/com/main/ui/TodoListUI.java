@@ -434,8 +434,8 @@ public class TodoListUI {
             System.out.println("Nombre total de tâches : " + taskService.getTotalTaskCount());
             System.out.println("Tâches terminées : " + taskService.getCompletedTaskCount());
             System.out.println("Tâches en attente : " + taskService.getPendingTaskCount());
-            System.out.println("Tâches en retard : " + taskService.getOverdueTasks().size());
-            System.out.println("Tâches à venir : " + taskService.getUpcomingTasks().size());
+            System.out.println("Tâches en retard : " + taskService.getOverdueTaskCount());
+            System.out.println("Tâches à venir : " + taskService.getUpcomingTaskCount());
         } catch (Exception e) {
             System.out.println("Erreur lors de l'affichage des statistiques : " + e.getMessage());
         }